@@ -1,50 +1,86 @@
 package com.mybank;
 
+import com.mybank.database.DatabaseHelper;
+import com.mybank.models.Session;
 import com.mybank.models.Staff;
-import com.mybank.services.StaffService;
+import com.mybank.services.BankCore;
+import com.mybank.services.SessionRegistry;
+import com.mybank.services.StartupOrchestrator;
+import com.mybank.utils.ProfilePictureManager;
 
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
+import javafx.application.Platform;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.stage.Stage;
 
 /**
  * Main Application Class
  * Entry point for the My Bank application
+ *
+ * Start with -Dmybank.debugPictures=true to log the profile picture cache counts on exit.
  */
 public class Main extends Application {
     
     private static Stage primaryStageObj;
-    private static int loggedInAccountNumber = -1;
-    private static Staff currentStaff = null;
+    private static final boolean DEBUG_PICTURES = Boolean.getBoolean("mybank.debugPictures");
+    // Sessions of whoever is signed in on this window
+    private static volatile String customerSessionToken = null;
+    private static volatile String staffSessionToken = null;
     
     @Override
     public void start(Stage primaryStage) {
-        try {
-            primaryStageObj = primaryStage;
-            
-            // Initialize default admin account
-            StaffService.initializeDefaultAdmin();
-            
-            // Load Login FXML
-            Parent root = FXMLLoader.load(getClass().getResource("/fxml/Login.fxml"));
-            
-            // Create scene
-            Scene scene = new Scene(root, 1200, 900);
-            
-            // Load CSS stylesheet
-            scene.getStylesheets().add(getClass().getResource("/css/style.css").toExternalForm());
-            
-            // Set up primary stage
-            primaryStage.setTitle("MY BANK");
-            primaryStage.setScene(scene);
-            primaryStage.setResizable(true);
-            primaryStage.show();
-            
-        } catch (Exception e) {
-            System.err.println("Error starting application: " + e.getMessage());
-            e.printStackTrace();
+        primaryStageObj = primaryStage;
+        
+        // Limits and login throttling live in memory, so only one process may run the bank
+        if (!DatabaseHelper.claimDatabase()) {
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("MY BANK");
+            alert.setHeaderText("MY BANK is already running");
+            alert.setContentText("Another copy of MY BANK or the bank API server is using the database. Close it and try again.");
+            alert.showAndWait();
+            Platform.exit();
+            return;
+        }
+        
+        // Independent startup work runs side by side; the login window opens as soon
+        // as its own screen is ready and the rest carries on behind it
+        StartupOrchestrator startup = new StartupOrchestrator();
+        
+        // Database, default admins, password calibration and the background services
+        BankCore.startCore(startup);
+        
+        // Parse the login screen; its controller opens the database itself if needed
+        startup.task("login-screen", () -> SceneCache.prepare("Login.fxml"));
+        
+        // Send this window back to its login page when its session expires
+        SessionRegistry.subscribe(Main::sessionExpired);
+        
+        startup.after("login-screen").thenRun(() -> Platform.runLater(() -> {
+            try {
+                // Built from the parsed screen; this also starts preloading the dashboard
+                Scene scene = SceneCache.get("Login.fxml");
+                
+                // Set up primary stage
+                primaryStage.setTitle("MY BANK");
+                primaryStage.setScene(scene);
+                primaryStage.setResizable(true);
+                primaryStage.show();
+                startup.mark("login-window-shown");
+                
+            } catch (Exception e) {
+                System.err.println("Error starting application: " + e.getMessage());
+                e.printStackTrace();
+            }
+            startup.printTimelineWhenDone();
+        }));
+    }
+    
+    @Override
+    public void stop() {
+        BankCore.stopCore();
+        if (DEBUG_PICTURES) {
+            System.out.println("Profile pictures: " + ProfilePictureManager.getCacheStats());
         }
     }
     
@@ -54,10 +90,12 @@ public class Main extends Application {
      * @throws Exception if loading fails
      */
     public static void changeScene(String fxml) throws Exception {
-        Parent root = FXMLLoader.load(Main.class.getResource("/fxml/" + fxml));
-        Scene scene = new Scene(root, 1200, 900);
-        scene.getStylesheets().add(Main.class.getResource("/css/style.css").toExternalForm());
-        primaryStageObj.setScene(scene);
+        // Moving between pages counts as activity
+        SessionRegistry.touch(customerSessionToken);
+        SessionRegistry.touch(staffSessionToken);
+        
+        // Screens with a Refreshable controller are reused rather than rebuilt
+        primaryStageObj.setScene(SceneCache.get(fxml));
     }
     
     /**
@@ -73,7 +111,8 @@ public class Main extends Application {
      * @return Account number or -1 if not logged in
      */
     public static int getLoggedInAccount() {
-        return loggedInAccountNumber;
+        Session session = SessionRegistry.get(customerSessionToken);
+        return session != null ? session.getUserId() : -1;
     }
     
     /**
@@ -81,14 +120,17 @@ public class Main extends Application {
      * @param accountNumber The account number
      */
     public static void setLoggedInAccount(int accountNumber) {
-        loggedInAccountNumber = accountNumber;
+        SessionRegistry.close(customerSessionToken);
+        customerSessionToken = SessionRegistry.open(Session.CUSTOMER, accountNumber,
+                                                    String.valueOf(accountNumber), null).getToken();
     }
     
     /**
      * Clears the logged-in account (for logout)
      */
     public static void clearLoggedInAccount() {
-        loggedInAccountNumber = -1;
+        SessionRegistry.close(customerSessionToken);
+        customerSessionToken = null;
     }
     
     /**
@@ -96,7 +138,7 @@ public class Main extends Application {
      * @return true if logged in, false otherwise
      */
     public static boolean isLoggedIn() {
-        return loggedInAccountNumber > 0;
+        return getLoggedInAccount() > 0;
     }
     
     /**
@@ -104,7 +146,8 @@ public class Main extends Application {
      * @return Current staff or null
      */
     public static Staff getCurrentStaff() {
-        return currentStaff;
+        Session session = SessionRegistry.get(staffSessionToken);
+        return session != null ? (Staff) session.getPrincipal() : null;
     }
     
     /**
@@ -112,7 +155,10 @@ public class Main extends Application {
      * @param staff Staff object
      */
     public static void setCurrentStaff(Staff staff) {
-        currentStaff = staff;
+        SessionRegistry.close(staffSessionToken);
+        staffSessionToken = staff != null
+            ? SessionRegistry.open(Session.STAFF, staff.getStaffId(), staff.getUsername(), staff).getToken()
+            : null;
     }
     
     /**
@@ -120,7 +166,30 @@ public class Main extends Application {
      * @return true if staff logged in
      */
     public static boolean isStaffLoggedIn() {
-        return currentStaff != null;
+        return getCurrentStaff() != null;
+    }
+    
+    /**
+     * Return to the login page when this window's session times out
+     */
+    private static void sessionExpired(Session session) {
+        String token = session.getToken();
+        if (!token.equals(customerSessionToken) && !token.equals(staffSessionToken)) {
+            return;
+        }
+        Platform.runLater(() -> {
+            try {
+                if (token.equals(customerSessionToken)) {
+                    customerSessionToken = null;
+                    changeScene("Login.fxml");
+                } else if (token.equals(staffSessionToken)) {
+                    staffSessionToken = null;
+                    changeScene("StaffLogin.fxml");
+                }
+            } catch (Exception e) {
+                System.err.println("Error returning to login after session timeout: " + e.getMessage());
+            }
+        });
     }
     
     // Navigation methods for Staff Portal
@@ -0,0 +1,160 @@
+package com.mybank;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.mybank.controllers.Refreshable;
+import com.mybank.services.BackgroundExecutor;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+
+/**
+ * Scene Cache
+ * Keeps built scenes by FXML name so returning to a screen doesn't parse the FXML,
+ * create a controller, build a Scene and apply the stylesheet again. Only screens
+ * whose controller implements Refreshable are kept; their refresh() runs on every
+ * show. Other screens are built fresh each time, as before.
+ *
+ * Showing a screen also preloads the screens likely to come next (Dashboard after
+ * Login, StaffDashboard after StaffLogin) in the background. FXML is parsed off the
+ * FX thread; the Scene itself is built on it.
+ *
+ * Start with -Dmybank.debugScenes=true to log how long each screen took to show.
+ */
+public class SceneCache {
+
+    private static final double WIDTH = 1200;
+    private static final double HEIGHT = 900;
+    private static final boolean DEBUG = Boolean.getBoolean("mybank.debugScenes");
+
+    private static final Map<String, List<String>> LIKELY_NEXT = new HashMap<>();
+    static {
+        LIKELY_NEXT.put("Login.fxml", Arrays.asList("Dashboard.fxml"));
+        LIKELY_NEXT.put("StaffLogin.fxml", Arrays.asList("StaffDashboard.fxml"));
+    }
+
+    /**
+     * A built screen and its controller
+     */
+    private static final class Entry {
+        final Scene scene;
+        final Object controller;
+
+        Entry(Scene scene, Object controller) {
+            this.scene = scene;
+            this.controller = controller;
+        }
+    }
+
+    // Only touched on the FX thread
+    private static final Map<String, Entry> scenes = new HashMap<>();
+    private static final Set<String> preloading = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Get the scene for a screen, refreshed and ready to show.
+     * Must be called on the JavaFX thread.
+     * @param fxml The FXML file name (without path)
+     * @throws Exception if loading fails
+     */
+    public static Scene get(String fxml) throws Exception {
+        long start = System.nanoTime();
+        Entry entry = scenes.get(fxml);
+        boolean cached = entry != null;
+        if (!cached) {
+            FXMLLoader loader = new FXMLLoader(Main.class.getResource("/fxml/" + fxml));
+            Parent root = loader.load();
+            entry = build(root, loader.getController());
+            if (entry.controller instanceof Refreshable) {
+                scenes.put(fxml, entry);
+            }
+        }
+        if (entry.controller instanceof Refreshable) {
+            ((Refreshable) entry.controller).refresh();
+        }
+
+        if (DEBUG) {
+            System.out.println(String.format("Scene %s ready in %.1f ms (%s)", fxml,
+                                            (System.nanoTime() - start) / 1e6, cached ? "cached" : "loaded"));
+        }
+        preloadNext(fxml);
+        return entry.scene;
+    }
+
+    /**
+     * Parse a screen in the background so its first show is quick.
+     * Screens that can't be cached, or already are, are skipped.
+     * @param fxml The FXML file name (without path)
+     */
+    public static void preload(String fxml) {
+        if (scenes.containsKey(fxml) || !preloading.add(fxml)) {
+            return;
+        }
+        BackgroundExecutor.execute("preload-" + fxml, () -> parse(fxml));
+    }
+
+    /**
+     * Parse a screen on the calling thread, off the FX thread, and hand it to the FX
+     * thread to be built and kept. A get() posted to the FX thread after this returns
+     * finds the screen ready.
+     * @param fxml The FXML file name (without path)
+     */
+    public static void prepare(String fxml) {
+        // The scene map belongs to the FX thread; a screen kept already is skipped there
+        if (!preloading.add(fxml)) {
+            return;
+        }
+        parse(fxml);
+    }
+
+    /**
+     * Drop a kept screen so it is built fresh next time
+     */
+    public static void invalidate(String fxml) {
+        scenes.remove(fxml);
+    }
+
+    /**
+     * Drop every kept screen
+     */
+    public static void clear() {
+        scenes.clear();
+    }
+
+    private static void parse(String fxml) {
+        try {
+            // initialize() runs here, so it must only set up the screen's own nodes
+            FXMLLoader loader = new FXMLLoader(Main.class.getResource("/fxml/" + fxml));
+            Parent root = loader.load();
+            Object controller = loader.getController();
+            Platform.runLater(() -> {
+                preloading.remove(fxml);
+                if (controller instanceof Refreshable && !scenes.containsKey(fxml)) {
+                    scenes.put(fxml, build(root, controller));
+                }
+            });
+        } catch (Exception e) {
+            preloading.remove(fxml);
+            System.err.println("Error preloading " + fxml + ": " + e.getMessage());
+        }
+    }
+
+    private static void preloadNext(String fxml) {
+        for (String next : LIKELY_NEXT.getOrDefault(fxml, Collections.emptyList())) {
+            preload(next);
+        }
+    }
+
+    private static Entry build(Parent root, Object controller) {
+        Scene scene = new Scene(root, WIDTH, HEIGHT);
+        scene.getStylesheets().add(Main.class.getResource("/css/style.css").toExternalForm());
+        return new Entry(scene, controller);
+    }
+}
@@ -0,0 +1,46 @@
+package com.mybank.api;
+
+import java.util.concurrent.CountDownLatch;
+
+import com.mybank.database.DatabaseHelper;
+import com.mybank.services.BankCore;
+import com.mybank.services.StartupOrchestrator;
+
+/**
+ * Headless entry point: the banking core and its background services with the
+ * HTTP API in front, and no JavaFX window.
+ * Usage: java com.mybank.api.BankApiMain [port]
+ *
+ * Run it instead of the desktop app, not beside it: limit totals, fraud windows and
+ * login failures are kept in memory, so only one process may use the database. It
+ * exits at once if the desktop app or another API server already holds it.
+ */
+public class BankApiMain {
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : BankApiServer.DEFAULT_PORT;
+
+        if (!DatabaseHelper.claimDatabase()) {
+            System.err.println("The database is in use by the desktop app or another API server; stop it first.");
+            System.exit(1);
+        }
+
+        // Same startup graph as the desktop app, without the screens
+        StartupOrchestrator startup = new StartupOrchestrator();
+        BankCore.startCore(startup);
+        startup.printTimelineWhenDone();
+        startup.all().join();
+
+        BankApiServer.start(port);
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            BankApiServer.stop();
+            BankCore.stopCore();
+            stopped.countDown();
+        }, "api-shutdown"));
+
+        // Service threads are daemons, so keep the process up until it is stopped
+        stopped.await();
+    }
+}
@@ -0,0 +1,478 @@
+package com.mybank.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import com.mybank.database.ChequeDAO;
+import com.mybank.database.DatabaseHelper;
+import com.mybank.database.LoginThrottle;
+import com.mybank.database.TransactionFees;
+import com.mybank.database.TransactionLimits;
+import com.mybank.models.ChequeStats;
+import com.mybank.models.ClearingReport;
+import com.mybank.models.Session;
+import com.mybank.models.Staff;
+import com.mybank.models.Transaction;
+import com.mybank.services.BackgroundExecutor;
+import com.mybank.services.ChequeClearingService;
+import com.mybank.services.CredentialService;
+import com.mybank.services.NotificationService;
+import com.mybank.services.SessionRegistry;
+import com.mybank.services.StaffService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Bank API Server
+ * Local HTTP API over the same DatabaseHelper core the desktop screens use, so many
+ * teller terminals can drive one ledger. Staff sign in with POST /api/sessions and
+ * send the returned token as "Authorization: Bearer <token>"; sessions live in
+ * SessionRegistry and expire after SESSION_TIMEOUT_MINUTES like desktop ones. Failed
+ * sign-ins count against the caller's address in LoginThrottle; once it reaches
+ * LOGIN_SOURCE_MAX_FAILURES the address gets 429 for the rest of the window.
+ *
+ *   POST   /api/sessions                      username, password
+ *   DELETE /api/sessions
+ *   GET    /api/accounts/{n}/balance
+ *   GET    /api/accounts/{n}/transactions     ?limit=
+ *   POST   /api/deposits                      account, amount
+ *   POST   /api/withdrawals                   account, amount
+ *   POST   /api/transfers                     from, to, amount
+ *   GET    /api/cheques/stats
+ *   POST   /api/cheques/clearing              ids (comma-separated, optional), remarks
+ *
+ * Request bodies are form-encoded; responses are JSON. Requests run on a bounded
+ * pool; when its queue is full the accepting thread runs the request itself, which
+ * slows intake instead of dropping connections.
+ */
+public class BankApiServer {
+
+    public static final int DEFAULT_PORT = 8085;
+
+    private static final int QUEUE_SIZE = 256;
+    private static final int DEFAULT_HISTORY_LIMIT = 50;
+    private static final int MAX_HISTORY_LIMIT = 500;
+
+    /**
+     * A request that can't be served, with the HTTP status to answer
+     */
+    private static class ApiException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * One route; the session is null for routes that don't need one
+     */
+    private interface Route {
+        String handle(HttpExchange exchange, Session session) throws Exception;
+    }
+
+    private static HttpServer server;
+    private static ThreadPoolExecutor workers;
+    private static final DatabaseHelper dbHelper = new DatabaseHelper();
+    private static NotificationService notificationService;
+
+    /**
+     * Start serving on localhost
+     * @param port Port to listen on
+     */
+    public static synchronized void start(int port) throws IOException {
+        if (server != null) return;
+
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        AtomicInteger count = new AtomicInteger();
+        workers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(QUEUE_SIZE),
+            r -> {
+                Thread thread = new Thread(r, "api-worker-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.setExecutor(workers);
+        server.createContext("/api/sessions", exchange -> dispatch(exchange, false, BankApiServer::sessions));
+        server.createContext("/api/accounts/", exchange -> dispatch(exchange, true, BankApiServer::accounts));
+        server.createContext("/api/deposits", exchange -> dispatch(exchange, true, BankApiServer::deposit));
+        server.createContext("/api/withdrawals", exchange -> dispatch(exchange, true, BankApiServer::withdraw));
+        server.createContext("/api/transfers", exchange -> dispatch(exchange, true, BankApiServer::transfer));
+        server.createContext("/api/cheques/stats", exchange -> dispatch(exchange, true, BankApiServer::chequeStats));
+        server.createContext("/api/cheques/clearing", exchange -> dispatch(exchange, true, BankApiServer::clearing));
+        server.start();
+        System.out.println("Bank API listening on http://127.0.0.1:" + port + "/api");
+    }
+
+    /**
+     * Stop serving, letting requests in progress finish for up to a second
+     */
+    public static synchronized void stop() {
+        if (server != null) {
+            server.stop(1);
+            server = null;
+            workers.shutdown();
+            workers = null;
+        }
+    }
+
+    // Routes
+
+    private static String sessions(HttpExchange exchange, Session ignored) throws Exception {
+        String method = exchange.getRequestMethod();
+        if ("DELETE".equals(method)) {
+            Session session = authenticate(exchange);
+            SessionRegistry.close(session.getToken());
+            return new JsonWriter().beginObject().field("closed", true).endObject().toString();
+        }
+        requireMethod(exchange, "POST");
+
+        // Refuse an address with too many recent failures before any hashing
+        String source = exchange.getRemoteAddress().getAddress().getHostAddress();
+        String refused = LoginThrottle.checkSource(source);
+        if (refused != null) {
+            throw new ApiException(429, refused);
+        }
+
+        Map<String, String> form = readForm(exchange);
+        String username = required(form, "username");
+        String password = required(form, "password");
+
+        // Hashing is bounded by the credential pool, like desktop sign-ins
+        Staff staff;
+        try {
+            staff = CredentialService.submit(() -> StaffService.authenticateStaff(username, password)).get();
+        } catch (ExecutionException e) {
+            throw new ApiException(503, "Sign-in is busy right now. Please try again.");
+        }
+        if (staff == null) {
+            LoginThrottle.recordSourceFailure(source);
+            throw new ApiException(401, "Invalid username or password");
+        }
+
+        Session session = SessionRegistry.open(Session.STAFF, staff.getStaffId(), staff.getUsername(), staff);
+        return new JsonWriter().beginObject()
+            .field("token", session.getToken())
+            .field("staffId", staff.getStaffId())
+            .field("name", staff.getFullName())
+            .field("role", staff.getRole())
+            .endObject().toString();
+    }
+
+    private static String accounts(HttpExchange exchange, Session session) throws Exception {
+        requireMethod(exchange, "GET");
+
+        // /api/accounts/{n}/balance or /api/accounts/{n}/transactions
+        String[] parts = exchange.getRequestURI().getPath().split("/");
+        if (parts.length != 5) {
+            throw new ApiException(404, "Not found");
+        }
+        int accountNumber = parseAccount(parts[3]);
+        requireAccount(accountNumber);
+
+        if ("balance".equals(parts[4])) {
+            return new JsonWriter().beginObject()
+                .field("accountNumber", accountNumber)
+                .field("ownerName", dbHelper.getOwnerName(accountNumber))
+                .field("balance", dbHelper.getBalance(accountNumber))
+                .endObject().toString();
+        }
+        if ("transactions".equals(parts[4])) {
+            Map<String, String> query = parseForm(exchange.getRequestURI().getRawQuery());
+            int limit = DEFAULT_HISTORY_LIMIT;
+            if (query.containsKey("limit")) {
+                limit = Math.max(1, Math.min(MAX_HISTORY_LIMIT, parseInt(query.get("limit"), "limit")));
+            }
+
+            JsonWriter json = new JsonWriter().beginObject()
+                .field("accountNumber", accountNumber)
+                .beginArray("transactions");
+            for (Transaction transaction : dbHelper.getTransactions(accountNumber, limit)) {
+                json.beginObject()
+                    .field("id", transaction.getId())
+                    .field("type", transaction.getType())
+                    .field("amount", transaction.getAmount())
+                    .field("timestamp", transaction.getDate())
+                    .endObject();
+            }
+            return json.endArray().endObject().toString();
+        }
+        throw new ApiException(404, "Not found");
+    }
+
+    private static String deposit(HttpExchange exchange, Session session) throws Exception {
+        requireMethod(exchange, "POST");
+        Map<String, String> form = readForm(exchange);
+        int accountNumber = parseAccount(required(form, "account"));
+        double amount = parseAmount(required(form, "amount"));
+        requireAccount(accountNumber);
+
+        if (!dbHelper.deposit(accountNumber, amount)) {
+            throw new ApiException(500, "Deposit failed. Please try again.");
+        }
+        double newBalance = dbHelper.getBalance(accountNumber);
+        notify(service -> service.sendDepositNotification(accountNumber, amount, newBalance));
+        return posting(accountNumber, amount, 0, newBalance);
+    }
+
+    private static String withdraw(HttpExchange exchange, Session session) throws Exception {
+        requireMethod(exchange, "POST");
+        Map<String, String> form = readForm(exchange);
+        int accountNumber = parseAccount(required(form, "account"));
+        double amount = parseAmount(required(form, "amount"));
+        requireAccount(accountNumber);
+
+        // Checked here for the message; withdraw() checks again inside its transaction
+        double fee = TransactionFees.getWithdrawalFee();
+        if (dbHelper.getBalance(accountNumber) < amount + fee) {
+            throw new ApiException(422, "Insufficient balance, including the "
+                                       + String.format("%.2f", fee) + " TAKA withdrawal fee");
+        }
+        String limitError = TransactionLimits.checkWithdrawal(accountNumber, amount);
+        if (limitError != null) {
+            throw new ApiException(422, limitError);
+        }
+
+        if (!dbHelper.withdraw(accountNumber, amount)) {
+            throw new ApiException(409, "Withdrawal failed. The balance or limits changed; please try again.");
+        }
+        double newBalance = dbHelper.getBalance(accountNumber);
+        notify(service -> service.sendWithdrawalNotification(accountNumber, amount, newBalance));
+        return posting(accountNumber, amount, fee, newBalance);
+    }
+
+    private static String transfer(HttpExchange exchange, Session session) throws Exception {
+        requireMethod(exchange, "POST");
+        Map<String, String> form = readForm(exchange);
+        int fromAccount = parseAccount(required(form, "from"));
+        int toAccount = parseAccount(required(form, "to"));
+        double amount = parseAmount(required(form, "amount"));
+
+        if (fromAccount == toAccount) {
+            throw new ApiException(400, "Cannot transfer to the same account");
+        }
+        requireAccount(fromAccount);
+        requireAccount(toAccount);
+
+        // Checked here for the message; transfer() checks again inside its transaction
+        double fee = TransactionFees.getTransferFee();
+        if (dbHelper.getBalance(fromAccount) < amount + fee) {
+            throw new ApiException(422, "Insufficient balance in sender's account, including the "
+                                       + String.format("%.2f", fee) + " TAKA transfer fee");
+        }
+        String limitError = TransactionLimits.checkTransfer(fromAccount, amount);
+        if (limitError != null) {
+            throw new ApiException(422, limitError);
+        }
+
+        if (!dbHelper.transfer(fromAccount, toAccount, amount)) {
+            throw new ApiException(409, "Transfer failed. The balance or limits changed; please try again.");
+        }
+        double senderBalance = dbHelper.getBalance(fromAccount);
+        double receiverBalance = dbHelper.getBalance(toAccount);
+        notify(service -> service.sendTransferNotifications(fromAccount, toAccount, amount,
+                                                            senderBalance, receiverBalance));
+        return new JsonWriter().beginObject()
+            .field("fromAccount", fromAccount)
+            .field("toAccount", toAccount)
+            .field("amount", amount)
+            .field("fee", fee)
+            .field("senderBalance", senderBalance)
+            .endObject().toString();
+    }
+
+    private static String chequeStats(HttpExchange exchange, Session session) throws Exception {
+        requireMethod(exchange, "GET");
+        ChequeStats stats = ChequeDAO.getChequeStats();
+        return new JsonWriter().beginObject()
+            .field("totalBooks", stats.getTotalBooks())
+            .field("pendingBooks", stats.getPendingBooks())
+            .field("activeBooks", stats.getActiveBooks())
+            .field("totalCheques", stats.getTotalCheques())
+            .field("pendingClearance", stats.getPendingClearance())
+            .field("clearedCheques", stats.getClearedCheques())
+            .field("bouncedCheques", stats.getBouncedCheques())
+            .field("clearedAmount", stats.getClearedAmount())
+            .field("bouncedAmount", stats.getBouncedAmount())
+            .endObject().toString();
+    }
+
+    private static String clearing(HttpExchange exchange, Session session) throws Exception {
+        requireMethod(exchange, "POST");
+        Map<String, String> form = readForm(exchange);
+
+        List<Integer> ids = null;
+        String idList = form.get("ids");
+        if (idList != null && !idList.trim().isEmpty()) {
+            ids = new ArrayList<>();
+            for (String id : idList.split(",")) {
+                ids.add(parseInt(id.trim(), "ids"));
+            }
+        }
+        String remarks = form.getOrDefault("remarks", "Cleared via API");
+
+        ClearingReport report = ChequeClearingService.runClearingCycle(ids, session.getUserId(), remarks);
+        return new JsonWriter().beginObject()
+            .field("candidates", report.getCandidates())
+            .field("cleared", report.getCleared())
+            .field("bounced", report.getBounced())
+            .field("skipped", report.getSkipped())
+            .field("failed", report.getFailed())
+            .field("elapsedMillis", report.getElapsedMillis())
+            .endObject().toString();
+    }
+
+    // Plumbing
+
+    private static void dispatch(HttpExchange exchange, boolean needsSession, Route route) throws IOException {
+        int status = 200;
+        String body;
+        try {
+            Session session = needsSession ? authenticate(exchange) : null;
+            body = route.handle(exchange, session);
+        } catch (ApiException e) {
+            status = e.status;
+            body = new JsonWriter().beginObject().field("error", e.getMessage()).endObject().toString();
+        } catch (Exception e) {
+            e.printStackTrace();
+            status = 500;
+            body = new JsonWriter().beginObject().field("error", "Internal error").endObject().toString();
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Session authenticate(HttpExchange exchange) throws ApiException {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            throw new ApiException(401, "Sign in first");
+        }
+        // Each request counts as activity
+        Session session = SessionRegistry.touch(header.substring("Bearer ".length()).trim());
+        if (session == null || !Session.STAFF.equals(session.getUserType())) {
+            throw new ApiException(401, "Session expired. Please sign in again.");
+        }
+        return session;
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) throws ApiException {
+        if (!method.equals(exchange.getRequestMethod())) {
+            throw new ApiException(405, "Use " + method);
+        }
+    }
+
+    private static void requireAccount(int accountNumber) throws ApiException {
+        if (!dbHelper.accountExists(accountNumber)) {
+            throw new ApiException(404, "Account " + accountNumber + " not found");
+        }
+    }
+
+    private static String posting(int accountNumber, double amount, double fee, double newBalance) {
+        return new JsonWriter().beginObject()
+            .field("accountNumber", accountNumber)
+            .field("amount", amount)
+            .field("fee", fee)
+            .field("balance", newBalance)
+            .endObject().toString();
+    }
+
+    private static Map<String, String> readForm(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            byte[] chunk = new byte[4096];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                buffer.write(chunk, 0, read);
+            }
+            return parseForm(new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Map<String, String> parseForm(String encoded) {
+        Map<String, String> values = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) return values;
+        for (String pair : encoded.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            values.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                      URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+
+    private static String required(Map<String, String> form, String name) throws ApiException {
+        String value = form.get(name);
+        if (value == null || value.trim().isEmpty()) {
+            throw new ApiException(400, "Missing " + name);
+        }
+        return value.trim();
+    }
+
+    private static int parseInt(String value, String name) throws ApiException {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, name + " must be a whole number");
+        }
+    }
+
+    private static int parseAccount(String value) throws ApiException {
+        int accountNumber = parseInt(value, "Account number");
+        if (accountNumber <= 0) {
+            throw new ApiException(400, "Account numbers must be positive");
+        }
+        return accountNumber;
+    }
+
+    private static double parseAmount(String value) throws ApiException {
+        double amount;
+        try {
+            amount = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Amount must be a number");
+        }
+        if (!(amount > 0) || Double.isInfinite(amount)) {
+            throw new ApiException(400, "Amount must be greater than zero");
+        }
+        return amount;
+    }
+
+    // Sent in the background so a slow mail server never holds up a posting
+    private static void notify(Consumer<NotificationService> send) {
+        BackgroundExecutor.execute("api-notification", () -> send.accept(notifier()));
+    }
+
+    // Created on first use; NotificationService reads its settings when constructed
+    private static synchronized NotificationService notifier() {
+        if (notificationService == null) {
+            notificationService = new NotificationService();
+        }
+        return notificationService;
+    }
+}
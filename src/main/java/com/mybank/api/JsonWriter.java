@@ -0,0 +1,111 @@
+package com.mybank.api;
+
+import java.util.Locale;
+
+/**
+ * Json Writer
+ * Minimal builder for the flat JSON objects and arrays the API returns.
+ * Values are written in call order; commas are added between members.
+ */
+public class JsonWriter {
+
+    private final StringBuilder out = new StringBuilder();
+    private boolean needComma;
+
+    public JsonWriter beginObject() {
+        comma();
+        out.append('{');
+        needComma = false;
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        out.append('}');
+        needComma = true;
+        return this;
+    }
+
+    public JsonWriter beginArray(String name) {
+        name(name);
+        out.append('[');
+        needComma = false;
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        out.append(']');
+        needComma = true;
+        return this;
+    }
+
+    public JsonWriter field(String name, String value) {
+        name(name);
+        if (value == null) {
+            out.append("null");
+        } else {
+            quote(value);
+        }
+        needComma = true;
+        return this;
+    }
+
+    public JsonWriter field(String name, long value) {
+        name(name);
+        out.append(value);
+        needComma = true;
+        return this;
+    }
+
+    public JsonWriter field(String name, double value) {
+        name(name);
+        // Money is shown to two places everywhere else in the app
+        out.append(String.format(Locale.ROOT, "%.2f", value));
+        needComma = true;
+        return this;
+    }
+
+    public JsonWriter field(String name, boolean value) {
+        name(name);
+        out.append(value);
+        needComma = true;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+
+    private void name(String name) {
+        comma();
+        quote(name);
+        out.append(':');
+    }
+
+    private void comma() {
+        if (needComma) {
+            out.append(',');
+        }
+    }
+
+    private void quote(String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
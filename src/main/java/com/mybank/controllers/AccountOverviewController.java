@@ -209,7 +209,12 @@ public class AccountOverviewController {
                 repaymentStatusLabel.setStyle("-fx-text-fill: #1565c0; -fx-font-weight: bold;");
             }
             
-            loanTermLabel.setText(loan.getLoanTerm() + " months");
+            if (loan.getSchedule().isEmpty()) {
+                loanTermLabel.setText(loan.getLoanTerm() + " months");
+            } else {
+                loanTermLabel.setText(loan.getLoanTerm() + " months (" + loan.getInstallmentsPaid() + " of " +
+                                      loan.getSchedule().size() + " installments paid)");
+            }
             
             // Display repayment progress
             double progress = loan.getRepaymentPercentage();
@@ -4,19 +4,23 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 import com.mybank.Main;
+import com.mybank.database.AuditLogDAO;
 import com.mybank.models.Admin;
 import com.mybank.models.AuditLog;
 import com.mybank.services.AdminService;
 
+import javafx.animation.PauseTransition;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
+import javafx.util.Duration;
 
 /**
  * Controller for Audit Logs viewing.
@@ -56,8 +60,21 @@ public class AdminAuditLogsController {
     @FXML
     private Label messageLabel;
     
+    @FXML
+    private Button previousPageButton;
+    
+    @FXML
+    private Button nextPageButton;
+    
+    @FXML
+    private Label pageLabel;
+    
+    private static final int PAGE_SIZE = 100;
+    
     private ObservableList<AuditRecord> auditList = FXCollections.observableArrayList();
     private Admin currentAdmin;
+    private int currentPage = 0;
+    private final PauseTransition searchDebounce = new PauseTransition(Duration.millis(250));
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
     @FXML
@@ -90,53 +107,65 @@ public class AdminAuditLogsController {
         ));
         filterComboBox.setValue("All");
         
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> filterData());
+        // Searching hits the database, so wait for typing to pause
+        searchDebounce.setOnFinished(e -> filterData());
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> searchDebounce.playFromStart());
         filterComboBox.valueProperty().addListener((obs, oldVal, newVal) -> filterData());
     }
     
+    /**
+     * Load the current page of logs matching the search text and filter
+     */
     private void loadAuditData() {
         auditList.clear();
-        List<AuditLog> logs = AdminService.getAuditLogs();
         
-        if (logs != null) {
-            for (AuditLog log : logs) {
-                auditList.add(new AuditRecord(
-                    log.getTimestamp().format(formatter),
-                    log.getUserType(),
-                    log.getUsername(),
-                    log.getAction(),
-                    log.getModule(),
-                    log.getDetails(),
-                    log.getStatus()
-                ));
-            }
+        // Fetch one extra row to learn whether a next page exists
+        List<AuditLog> logs = AuditLogDAO.searchLogs(searchField.getText().trim(),
+            filterComboBox.getValue(), currentPage * PAGE_SIZE, PAGE_SIZE + 1);
+        boolean hasNextPage = logs.size() > PAGE_SIZE;
+        if (hasNextPage) {
+            logs = logs.subList(0, PAGE_SIZE);
+        }
+        
+        for (AuditLog log : logs) {
+            auditList.add(new AuditRecord(
+                log.getTimestamp().format(formatter),
+                log.getUserType(),
+                log.getUsername(),
+                log.getAction(),
+                log.getModule(),
+                log.getDetails(),
+                log.getStatus()
+            ));
         }
         
         auditTable.setItems(auditList);
+        
+        previousPageButton.setDisable(currentPage == 0);
+        nextPageButton.setDisable(!hasNextPage);
+        pageLabel.setText("Page " + (currentPage + 1));
     }
     
+    /**
+     * Restart from the first page with the current search and filter
+     */
     private void filterData() {
-        String searchText = searchField.getText().toLowerCase().trim();
-        String filter = filterComboBox.getValue();
-        
-        ObservableList<AuditRecord> filtered = FXCollections.observableArrayList();
-        
-        for (AuditRecord audit : auditList) {
-            boolean matchesSearch = searchText.isEmpty() || 
-                audit.getUsername().toLowerCase().contains(searchText) ||
-                audit.getDetails().toLowerCase().contains(searchText);
-            
-            boolean matchesFilter = filter.equals("All") ||
-                audit.getUserType().equals(filter) ||
-                audit.getAction().equals(filter) ||
-                audit.getStatus().equals(filter);
-            
-            if (matchesSearch && matchesFilter) {
-                filtered.add(audit);
-            }
+        currentPage = 0;
+        loadAuditData();
+    }
+    
+    @FXML
+    private void handlePreviousPage() {
+        if (currentPage > 0) {
+            currentPage--;
+            loadAuditData();
         }
-        
-        auditTable.setItems(filtered);
+    }
+    
+    @FXML
+    private void handleNextPage() {
+        currentPage++;
+        loadAuditData();
     }
     
     @FXML
@@ -5,6 +5,7 @@ import java.util.Optional;
 
 import com.mybank.Main;
 import com.mybank.database.BankConfigDAO;
+import com.mybank.database.ConfigRegistry;
 import com.mybank.models.Admin;
 import com.mybank.models.BankConfig;
 import com.mybank.services.AdminService;
@@ -71,7 +72,7 @@ public class AdminBankConfigController {
     
     private void setupFilter() {
         categoryFilter.setItems(FXCollections.observableArrayList(
-            "All", "INTEREST_RATE", "BALANCE", "TRANSACTION_LIMIT", "FEE", "PENALTY", "SECURITY"
+            "All", "INTEREST_RATE", "BALANCE", "TRANSACTION_LIMIT", "FEE", "PENALTY", "SECURITY", "CHEQUE_CLEARING"
         ));
         categoryFilter.setValue("All");
         categoryFilter.valueProperty().addListener((obs, oldVal, newVal) -> filterData());
@@ -131,6 +132,12 @@ public class AdminBankConfigController {
                 return;
             }
             
+            String invalid = ConfigRegistry.validate(selected.getKey(), newValue);
+            if (invalid != null) {
+                showError(invalid);
+                return;
+            }
+            
             boolean success = BankConfigDAO.updateConfig(selected.getKey(), newValue, currentAdmin.getUsername());
             
             if (success) {
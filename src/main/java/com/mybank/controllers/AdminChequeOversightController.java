@@ -10,9 +10,11 @@ import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 
+import com.mybank.database.ChequeDAO;
 import com.mybank.database.DatabaseConnection;
 import com.mybank.models.Cheque;
 import com.mybank.models.ChequeBook;
+import com.mybank.models.ChequeStats;
 import com.mybank.models.ChequeTransaction;
 import com.mybank.utils.SessionManager;
 
@@ -197,45 +199,31 @@ public class AdminChequeOversightController {
     }
     
     private void loadStatistics() {
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement()) {
-            
-            // Cheque Book Statistics
-            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) as total FROM cheque_books");
-            if (rs.next()) totalBooksLabel.setText(String.valueOf(rs.getInt("total")));
-            
-            rs = stmt.executeQuery("SELECT COUNT(*) as pending FROM cheque_books WHERE status = 'PENDING'");
-            if (rs.next()) pendingBooksLabel.setText(String.valueOf(rs.getInt("pending")));
-            
-            rs = stmt.executeQuery("SELECT COUNT(*) as active FROM cheque_books WHERE status = 'ISSUED'");
-            if (rs.next()) activeBooksLabel.setText(String.valueOf(rs.getInt("active")));
-            
-            // Cheque Statistics
-            rs = stmt.executeQuery("SELECT COUNT(*) as total FROM cheques");
-            if (rs.next()) totalChequesLabel.setText(String.valueOf(rs.getInt("total")));
-            
-            rs = stmt.executeQuery("SELECT COUNT(*) as cleared FROM cheques WHERE status = 'CLEARED'");
-            if (rs.next()) clearedChequesLabel.setText(String.valueOf(rs.getInt("cleared")));
-            
-            rs = stmt.executeQuery("SELECT COUNT(*) as bounced FROM cheques WHERE status = 'BOUNCED'");
-            if (rs.next()) bouncedChequesLabel.setText(String.valueOf(rs.getInt("bounced")));
-            
-            // Amount Statistics
-            rs = stmt.executeQuery("SELECT COALESCE(SUM(amount), 0) as total FROM cheques WHERE status = 'CLEARED'");
-            if (rs.next()) totalAmountClearedLabel.setText(String.format("TAKA %.2f", rs.getDouble("total")));
-            
-            rs = stmt.executeQuery("SELECT COALESCE(SUM(amount), 0) as total FROM cheques WHERE status = 'BOUNCED'");
-            if (rs.next()) totalAmountBouncedLabel.setText(String.format("TAKA %.2f", rs.getDouble("total")));
-            
-        } catch (SQLException e) {
-            showError("Error loading statistics: " + e.getMessage());
+        ChequeStats stats = ChequeDAO.getChequeStats();
+        if (stats == null) {
+            showError("Error loading statistics: cheque summary unavailable");
+            return;
         }
+        
+        // Cheque Book Statistics
+        totalBooksLabel.setText(String.valueOf(stats.getTotalBooks()));
+        pendingBooksLabel.setText(String.valueOf(stats.getPendingBooks()));
+        activeBooksLabel.setText(String.valueOf(stats.getActiveBooks()));
+        
+        // Cheque Statistics
+        totalChequesLabel.setText(String.valueOf(stats.getTotalCheques()));
+        clearedChequesLabel.setText(String.valueOf(stats.getClearedCheques()));
+        bouncedChequesLabel.setText(String.valueOf(stats.getBouncedCheques()));
+        
+        // Amount Statistics
+        totalAmountClearedLabel.setText(String.format("TAKA %.2f", stats.getClearedAmount()));
+        totalAmountBouncedLabel.setText(String.format("TAKA %.2f", stats.getBouncedAmount()));
     }
     
     private void loadAllChequeBooks() {
         allBooks.clear();
         
-        String query = "SELECT * FROM vw_cheque_book_summary ORDER BY request_date DESC";
+        String query = "SELECT * FROM mv_cheque_book_summary ORDER BY request_date DESC";
         
         try (Connection conn = DatabaseConnection.getConnection();
              Statement stmt = conn.createStatement();
@@ -267,7 +255,7 @@ public class AdminChequeOversightController {
     private void loadAllCheques() {
         allCheques.clear();
         
-        String query = "SELECT * FROM vw_cheque_details ORDER BY issue_date DESC LIMIT 5000";
+        String query = "SELECT * FROM mv_cheque_details ORDER BY issue_date DESC LIMIT 5000";
         
         try (Connection conn = DatabaseConnection.getConnection();
              Statement stmt = conn.createStatement();
@@ -299,7 +287,7 @@ public class AdminChequeOversightController {
     private void loadTransactionHistory() {
         transactions.clear();
         
-        String query = "SELECT * FROM vw_cheque_transaction_history ORDER BY transaction_date DESC LIMIT 1000";
+        String query = "SELECT * FROM mv_cheque_transaction_history ORDER BY transaction_date DESC LIMIT 1000";
         
         try (Connection conn = DatabaseConnection.getConnection();
              Statement stmt = conn.createStatement();
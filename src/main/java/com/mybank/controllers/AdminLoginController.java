@@ -2,7 +2,10 @@ package com.mybank.controllers;
 
 import com.mybank.Main;
 import com.mybank.services.AdminService;
+import com.mybank.services.BackgroundExecutor;
+import com.mybank.services.CredentialService;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
@@ -27,6 +30,11 @@ public class AdminLoginController {
      */
     @FXML
     private void handleLogin() {
+        // A password check is already running
+        if (passwordField.isDisabled()) {
+            return;
+        }
+        
         String username = usernameField.getText().trim();
         String password = passwordField.getText();
         
@@ -43,9 +51,24 @@ public class AdminLoginController {
             return;
         }
         
-        // Authenticate
-        boolean success = AdminService.authenticate(username, password);
-        
+        // Authenticate on the credential pool; the result comes back on the FX thread
+        passwordField.setDisable(true);
+        CredentialService.submit(() -> AdminService.authenticate(username, password))
+            .whenComplete((success, error) -> Platform.runLater(() -> {
+                passwordField.setDisable(false);
+                if (error != null) {
+                    showError("Sign-in is busy right now. Please try again.");
+                    return;
+                }
+                finishLogin(success);
+            }));
+    }
+    
+    /**
+     * Complete an admin login once the password has been checked
+     * @param success Whether the credentials matched
+     */
+    private void finishLogin(boolean success) {
         if (success) {
             showSuccess("Login successful!");
             
@@ -53,16 +76,11 @@ public class AdminLoginController {
             clearFields();
             
             // Navigate to admin dashboard
-            new Thread(() -> {
-                try {
-                    Thread.sleep(500);
-                    javafx.application.Platform.runLater(() -> {
-                        Main.showAdminDashboard();
-                    });
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }).start();
+            BackgroundExecutor.schedule("show-admin-dashboard", () -> {
+                javafx.application.Platform.runLater(() -> {
+                    Main.showAdminDashboard();
+                });
+            }, 500);
             
         } else {
             showError("Invalid username or password. Please try again.");
@@ -6,13 +6,12 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
 
 import com.mybank.Main;
 import com.mybank.database.AdminDAO;
 import com.mybank.models.Admin;
+import com.mybank.utils.PasswordHasher;
+import com.mybank.services.BackgroundExecutor;
 
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
@@ -152,7 +151,7 @@ public class AdminRegistrationController {
             admin.setUsername(username);
             admin.setEmail(email);
             admin.setPhone(phone);
-            admin.setPassword(hashPassword(password));
+            admin.setPassword(PasswordHasher.hash(password));
             admin.setStatus("ACTIVE");
             admin.setCreatedBy(username); // Self-registered
             admin.setSuperAdmin(false); // Regular admin, not super admin
@@ -175,16 +174,11 @@ public class AdminRegistrationController {
                 clearFields();
                 
                 // Navigate to login after a short delay
-                new Thread(() -> {
-                    try {
-                        Thread.sleep(2000);
-                        javafx.application.Platform.runLater(() -> {
-                            Main.showAdminLogin();
-                        });
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
-                }).start();
+                BackgroundExecutor.schedule("show-admin-login", () -> {
+                    javafx.application.Platform.runLater(() -> {
+                        Main.showAdminLogin();
+                    });
+                }, 2000);
                 
             } else {
                 showError("Registration failed. Please try again.");
@@ -299,19 +293,6 @@ public class AdminRegistrationController {
         profileImageLabel.setStyle("-fx-text-fill: #757575; -fx-font-size: 9px;");
     }
     
-    /**
-     * Hash password using SHA-256
-     */
-    private String hashPassword(String password) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(password.getBytes());
-            return Base64.getEncoder().encodeToString(hash);
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Error hashing password", e);
-        }
-    }
-    
     /**
      * Show error message
      */
@@ -12,6 +12,7 @@ import com.mybank.models.Admin;
 import com.mybank.models.Staff;
 import com.mybank.services.AdminService;
 import com.mybank.services.StaffService;
+import com.mybank.utils.PasswordHasher;
 
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -372,7 +373,7 @@ public class AdminStaffManagementController {
                 Connection conn = DatabaseHelper.getConnection();
                 String sql = "UPDATE staff SET passwordHash = ? WHERE staffId = ?";
                 PreparedStatement pstmt = conn.prepareStatement(sql);
-                pstmt.setString(1, hashPassword(newPassword));
+                pstmt.setString(1, PasswordHasher.hash(newPassword));
                 pstmt.setInt(2, selected.getStaffId());
                 pstmt.executeUpdate();
                 
@@ -425,19 +426,6 @@ public class AdminStaffManagementController {
         }
     }
     
-    /**
-     * Hash password
-     */
-    private String hashPassword(String password) {
-        try {
-            java.security.MessageDigest md = java.security.MessageDigest.getInstance("SHA-256");
-            byte[] hash = md.digest(password.getBytes());
-            return java.util.Base64.getEncoder().encodeToString(hash);
-        } catch (Exception e) {
-            return password;
-        }
-    }
-    
     /**
      * Handle back to dashboard
      */
@@ -5,26 +5,39 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
 import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 
 import com.mybank.Main;
 import com.mybank.database.DatabaseHelper;
+import com.mybank.database.FraudMonitor;
 import com.mybank.models.Admin;
+import com.mybank.models.FraudAlert;
 import com.mybank.services.AdminService;
 
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.DatePicker;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.TextInputDialog;
+import javafx.util.Duration;
 
 /**
  * Controller for Transaction Monitoring.
@@ -47,10 +60,31 @@ public class AdminTransactionMonitoringController {
     @FXML private DatePicker endDatePicker;
     @FXML private Label messageLabel;
     @FXML private Label statsLabel;
+    @FXML private CheckBox liveFeedCheckBox;
+    @FXML private Label alertsLabel;
+    @FXML private ListView<String> alertList;
+    
+    // Poll interval and row cap for the live feed
+    private static final Duration LIVE_FEED_INTERVAL = Duration.seconds(3);
+    private static final int MAX_ROWS = 1000;
+    private static final int MAX_ALERTS_SHOWN = 100;
     
     private ObservableList<TransactionRecord> transactionList = FXCollections.observableArrayList();
+    private FilteredList<TransactionRecord> filteredList = new FilteredList<>(transactionList, txn -> true);
     private Admin currentAdmin;
     
+    // Highest transaction id already shown; the live feed only fetches rows above it
+    private long highWaterMark = 0;
+    private Timeline liveFeed;
+    
+    // Running totals over the rows currently shown, maintained from list changes
+    private int shownCount = 0;
+    private double shownAmount = 0;
+    
+    // Fraud monitor alerts already shown, and the accounts they name
+    private long lastAlertSequence = 0;
+    private final Set<String> flaggedAccounts = new HashSet<>();
+    
     @FXML
     private void initialize() {
         currentAdmin = AdminService.getCurrentAdmin();
@@ -74,35 +108,61 @@ public class AdminTransactionMonitoringController {
         searchField.textProperty().addListener((obs, oldVal, newVal) -> filterTransactions());
         filterComboBox.valueProperty().addListener((obs, oldVal, newVal) -> filterTransactions());
         
-        // Load transactions
+        // Keep stats in step with the visible rows without re-summing the list
+        filteredList.addListener((ListChangeListener<TransactionRecord>) change -> {
+            while (change.next()) {
+                for (TransactionRecord txn : change.getRemoved()) {
+                    shownCount--;
+                    shownAmount -= txn.getAmount();
+                }
+                for (TransactionRecord txn : change.getAddedSubList()) {
+                    shownCount++;
+                    shownAmount += txn.getAmount();
+                }
+            }
+            updateStats();
+        });
+        transactionTable.setItems(filteredList);
+        
+        // Live feed polls for new rows while the checkbox is ticked
+        liveFeed = new Timeline(new KeyFrame(LIVE_FEED_INTERVAL, event -> pollNewTransactions()));
+        liveFeed.setCycleCount(Timeline.INDEFINITE);
+        liveFeedCheckBox.selectedProperty().addListener((obs, oldVal, newVal) -> {
+            if (newVal) {
+                liveFeed.play();
+            } else {
+                liveFeed.stop();
+            }
+        });
+        
+        // Load alerts before transactions so rows of flagged accounts are marked
+        pollAlerts();
         loadTransactions();
+        if (liveFeedCheckBox.isSelected()) {
+            liveFeed.play();
+        }
     }
     
     /**
      * Load all transactions
      */
     private void loadTransactions() {
-        transactionList.clear();
-        
         try {
             Connection conn = DatabaseHelper.getConnection();
-            String sql = "SELECT id, accountNumber, type, amount, timestamp FROM transactions ORDER BY timestamp DESC LIMIT 1000";
+            String sql = "SELECT id, accountNumber, type, amount, timestamp FROM transactions ORDER BY timestamp DESC LIMIT " + MAX_ROWS;
             Statement stmt = conn.createStatement();
             ResultSet rs = stmt.executeQuery(sql);
             
+            ObservableList<TransactionRecord> loaded = FXCollections.observableArrayList();
+            long maxId = 0;
             while (rs.next()) {
-                transactionList.add(new TransactionRecord(
-                    rs.getInt("id"),
-                    rs.getInt("accountNumber"),
-                    rs.getString("type"),
-                    rs.getDouble("amount"),
-                    rs.getString("timestamp"),
-                    "N/A"
-                ));
+                TransactionRecord txn = readTransactionRecord(rs);
+                maxId = Math.max(maxId, txn.getId());
+                loaded.add(txn);
             }
             
-            transactionTable.setItems(transactionList);
-            updateStats();
+            transactionList.setAll(loaded);
+            highWaterMark = maxId;
             
         } catch (Exception e) {
             e.printStackTrace();
@@ -110,24 +170,115 @@ public class AdminTransactionMonitoringController {
         }
     }
     
+    /**
+     * Append transactions committed since the last poll to the top of the table
+     */
+    private void pollNewTransactions() {
+        // Stop polling once this screen has been navigated away from
+        if (transactionTable.getScene() == null || transactionTable.getScene().getWindow() == null) {
+            liveFeed.stop();
+            return;
+        }
+        
+        pollAlerts();
+        
+        String sql = "SELECT id, accountNumber, type, amount, timestamp FROM transactions " +
+                    "WHERE id > ? ORDER BY id ASC LIMIT " + MAX_ROWS;
+        
+        try (PreparedStatement pstmt = DatabaseHelper.getConnection().prepareStatement(sql)) {
+            pstmt.setLong(1, highWaterMark);
+            ResultSet rs = pstmt.executeQuery();
+            
+            ObservableList<TransactionRecord> newRows = FXCollections.observableArrayList();
+            while (rs.next()) {
+                TransactionRecord txn = readTransactionRecord(rs);
+                highWaterMark = Math.max(highWaterMark, txn.getId());
+                newRows.add(0, txn);
+            }
+            
+            if (newRows.isEmpty()) {
+                return;
+            }
+            
+            transactionList.addAll(0, newRows);
+            if (transactionList.size() > MAX_ROWS) {
+                transactionList.remove(MAX_ROWS, transactionList.size());
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            liveFeedCheckBox.setSelected(false);
+            showError("Live feed stopped: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Show alerts raised by the fraud monitor since the last poll and flag
+     * the rows of the accounts they name
+     */
+    private void pollAlerts() {
+        List<FraudAlert> alerts = FraudMonitor.getAlertsAfter(lastAlertSequence);
+        if (alerts.isEmpty()) {
+            return;
+        }
+        
+        for (FraudAlert alert : alerts) {
+            lastAlertSequence = alert.getSequence();
+            flaggedAccounts.add(String.valueOf(alert.getAccountNumber()));
+            alertList.getItems().add(0, alert.getTimestamp().toLocalTime().withNano(0) + "  " + alert);
+        }
+        if (alertList.getItems().size() > MAX_ALERTS_SHOWN) {
+            alertList.getItems().remove(MAX_ALERTS_SHOWN, alertList.getItems().size());
+        }
+        alertsLabel.setText("Fraud Alerts (" + lastAlertSequence + " since startup)");
+        
+        for (TransactionRecord txn : transactionList) {
+            markIfFlagged(txn);
+        }
+    }
+    
+    private void markIfFlagged(TransactionRecord txn) {
+        if (flaggedAccounts.contains(txn.getAccountNumber())) {
+            txn.statusProperty().set("Flagged");
+        }
+    }
+    
+    /**
+     * Build a table record from the current result set row
+     */
+    private TransactionRecord readTransactionRecord(ResultSet rs) throws java.sql.SQLException {
+        TransactionRecord txn = new TransactionRecord(
+            rs.getInt("id"),
+            rs.getInt("accountNumber"),
+            rs.getString("type"),
+            rs.getDouble("amount"),
+            rs.getString("timestamp"),
+            "N/A"
+        );
+        markIfFlagged(txn);
+        return txn;
+    }
+    
     /**
      * Filter transactions based on search and filter criteria
      */
     private void filterTransactions() {
         String searchText = searchField.getText().toLowerCase().trim();
         String filter = filterComboBox.getValue();
+        String today = LocalDate.now().toString();
         
-        ObservableList<TransactionRecord> filtered = FXCollections.observableArrayList();
-        
-        for (TransactionRecord txn : transactionList) {
+        Predicate<TransactionRecord> predicate = txn -> {
             // Apply filter
             if (!filter.equals("All Transactions")) {
                 if (filter.equals("Today")) {
-                    if (!txn.getDate().startsWith(LocalDate.now().toString())) {
-                        continue;
+                    if (!txn.getDate().startsWith(today)) {
+                        return false;
+                    }
+                } else if (filter.equals("Flagged")) {
+                    if (!txn.statusProperty().get().equals("Flagged")) {
+                        return false;
                     }
                 } else if (!txn.getType().equalsIgnoreCase(filter)) {
-                    continue;
+                    return false;
                 }
             }
             
@@ -136,28 +287,22 @@ public class AdminTransactionMonitoringController {
                 if (!txn.getAccountNumber().contains(searchText) &&
                     !txn.getType().toLowerCase().contains(searchText) &&
                     !txn.getDescription().toLowerCase().contains(searchText)) {
-                    continue;
+                    return false;
                 }
             }
             
-            filtered.add(txn);
-        }
+            return true;
+        };
         
-        transactionTable.setItems(filtered);
-        updateStats();
+        filteredList.setPredicate(predicate);
     }
     
     /**
      * Update statistics
      */
     private void updateStats() {
-        int totalCount = transactionTable.getItems().size();
-        double totalAmount = transactionTable.getItems().stream()
-            .mapToDouble(t -> t.getAmount())
-            .sum();
-        
         statsLabel.setText(String.format("Showing %d transactions | Total Amount: ৳%.2f", 
-            totalCount, totalAmount));
+            shownCount, shownAmount));
     }
     
     /**
@@ -178,7 +323,8 @@ public class AdminTransactionMonitoringController {
             return;
         }
         
-        transactionList.clear();
+        // A fixed date range is a snapshot; new postings must not leak into it
+        liveFeedCheckBox.setSelected(false);
         
         try {
             Connection conn = DatabaseHelper.getConnection();
@@ -190,19 +336,12 @@ public class AdminTransactionMonitoringController {
             pstmt.setString(2, endDate.toString());
             ResultSet rs = pstmt.executeQuery();
             
+            ObservableList<TransactionRecord> loaded = FXCollections.observableArrayList();
             while (rs.next()) {
-                transactionList.add(new TransactionRecord(
-                    rs.getInt("id"),
-                    rs.getInt("accountNumber"),
-                    rs.getString("type"),
-                    rs.getDouble("amount"),
-                    rs.getString("timestamp"),
-                    "N/A"
-                ));
+                loaded.add(readTransactionRecord(rs));
             }
             
-            transactionTable.setItems(transactionList);
-            updateStats();
+            transactionList.setAll(loaded);
             showSuccess("Found " + transactionList.size() + " transactions in date range");
             
         } catch (Exception e) {
@@ -295,11 +434,13 @@ public class AdminTransactionMonitoringController {
         filterComboBox.setValue("All Transactions");
         if (startDatePicker != null) startDatePicker.setValue(null);
         if (endDatePicker != null) endDatePicker.setValue(null);
+        liveFeedCheckBox.setSelected(true);
         showSuccess("Transactions refreshed");
     }
     
     @FXML
     private void handleBack() {
+        liveFeed.stop();
         Main.showAdminDashboard();
     }
     
@@ -327,6 +468,8 @@ public class AdminTransactionMonitoringController {
      * Transaction record class for TableView
      */
     public static class TransactionRecord {
+        private final long id;
+        private final double rawAmount;
         private final SimpleStringProperty transactionId;
         private final SimpleStringProperty accountNumber;
         private final SimpleStringProperty type;
@@ -337,6 +480,8 @@ public class AdminTransactionMonitoringController {
         
         public TransactionRecord(int transactionId, int accountNumber, String type, 
                                 double amount, String date, String description) {
+            this.id = transactionId;
+            this.rawAmount = amount;
             this.transactionId = new SimpleStringProperty(String.valueOf(transactionId));
             this.accountNumber = new SimpleStringProperty(String.valueOf(accountNumber));
             this.type = new SimpleStringProperty(type);
@@ -354,12 +499,11 @@ public class AdminTransactionMonitoringController {
         public SimpleStringProperty descriptionProperty() { return description; }
         public SimpleStringProperty statusProperty() { return status; }
         
+        public long getId() { return id; }
         public String getTransactionId() { return transactionId.get(); }
         public String getAccountNumber() { return accountNumber.get(); }
         public String getType() { return type.get(); }
-        public double getAmount() { 
-            return Double.parseDouble(amount.get().replace("৳", "").replace(",", "")); 
-        }
+        public double getAmount() { return rawAmount; }
         public String getDate() { return date.get(); }
         public String getDescription() { return description.get(); }
     }
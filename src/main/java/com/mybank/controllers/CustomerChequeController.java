@@ -9,10 +9,12 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 
+import com.mybank.database.ChequeDAO;
 import com.mybank.database.DatabaseConnection;
 import com.mybank.models.Cheque;
 import com.mybank.models.ChequeBook;
 import com.mybank.models.ChequeTransaction;
+import com.mybank.services.ChequeAutoClearanceService;
 import com.mybank.services.NotificationService;
 import com.mybank.utils.SessionManager;
 
@@ -261,9 +263,13 @@ public class CustomerChequeController {
             
             // Generate unique book number
             String bookNumber = generateBookNumber();
-            String startChequeNumber = generateChequeNumber();
-            long startNum = Long.parseLong(startChequeNumber);
-            String endChequeNumber = String.format("%015d", startNum + leavesPerBook - 1);
+            long startNum = ChequeDAO.reserveChequeNumbers(leavesPerBook);
+            if (startNum < 0) {
+                showError("Unable to allocate cheque numbers. Please try again later.");
+                return;
+            }
+            String startChequeNumber = ChequeDAO.formatChequeNumber(startNum);
+            String endChequeNumber = ChequeDAO.formatChequeNumber(startNum + leavesPerBook - 1);
             
             // Insert cheque book request
             String insertQuery = "INSERT INTO cheque_books (accountNumber, book_number, " +
@@ -303,7 +309,7 @@ public class CustomerChequeController {
     private void loadChequeBooks() {
         chequeBooks.clear();
         
-        String query = "SELECT * FROM vw_cheque_book_summary WHERE accountNumber = ? ORDER BY request_date DESC";
+        String query = "SELECT * FROM mv_cheque_book_summary WHERE accountNumber = ? ORDER BY request_date DESC";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
@@ -340,7 +346,7 @@ public class CustomerChequeController {
     private void loadCheques() {
         cheques.clear();
         
-        String query = "SELECT * FROM vw_cheque_details WHERE accountNumber = ? ORDER BY issue_date DESC";
+        String query = "SELECT * FROM mv_cheque_details WHERE accountNumber = ? ORDER BY issue_date DESC";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
@@ -399,6 +405,12 @@ public class CustomerChequeController {
             
             String accountNumber = selectedAccount.split(" - ")[0];
             
+            // Numbers the filter has never seen can't be in the cheques table
+            if (!ChequeDAO.mightHaveChequeNumber(chequeNumber)) {
+                showError("Cheque number not found in our system. Please verify the cheque number.");
+                return;
+            }
+            
             try (Connection conn = DatabaseConnection.getConnection()) {
                 // Get account ID
                 String accountQuery = "SELECT accountNumber FROM accounts WHERE accountNumber = ?";
@@ -413,60 +425,63 @@ public class CustomerChequeController {
                 
                 int depositToAccountId = rs.getInt("accountNumber");
                 
-                // Check if cheque already exists
-                String checkQuery = "SELECT cheque_id, status FROM cheques WHERE cheque_number = ?";
-                pstmt = conn.prepareStatement(checkQuery);
-                pstmt.setString(1, chequeNumber);
-                rs = pstmt.executeQuery();
+                // Deposit only if the cheque is still ISSUED; checking and updating in one
+                // statement means two deposits of the same cheque can't both succeed
+                String updateQuery = "UPDATE cheques SET amount = ?, payee_name = ?, " +
+                                   "deposit_date = CURRENT_TIMESTAMP, deposited_to_account = ?, " +
+                                   "status = 'DEPOSITED', remarks = ? " +
+                                   "WHERE cheque_number = ? AND status = 'ISSUED' " +
+                                   "RETURNING cheque_id";
                 
-                int chequeId;
+                pstmt = conn.prepareStatement(updateQuery);
+                pstmt.setDouble(1, amount);
+                pstmt.setString(2, payerName);
+                pstmt.setInt(3, depositToAccountId);
+                pstmt.setString(4, remarks);
+                pstmt.setString(5, chequeNumber);
+                rs = pstmt.executeQuery();
                 
-                if (rs.next()) {
-                    // Cheque exists, update it
-                    chequeId = rs.getInt("cheque_id");
-                    String currentStatus = rs.getString("status");
-                    
-                    if (!currentStatus.equals("ISSUED")) {
-                        showError("This cheque has already been deposited or processed");
-                        return;
-                    }
-                    
-                    String updateQuery = "UPDATE cheques SET amount = ?, payee_name = ?, " +
-                                       "deposit_date = CURRENT_TIMESTAMP, deposited_to_account = ?, " +
-                                       "status = 'DEPOSITED', remarks = ? " +
-                                       "WHERE cheque_id = ?";
-                    
-                    pstmt = conn.prepareStatement(updateQuery);
-                    pstmt.setDouble(1, amount);
-                    pstmt.setString(2, payerName);
-                    pstmt.setInt(3, depositToAccountId);
-                    pstmt.setString(4, remarks);
-                    pstmt.setInt(5, chequeId);
-                    pstmt.executeUpdate();
+                if (!rs.next()) {
+                    rs.close();
                     
-                    // Log transaction
-                    logChequeTransaction(conn, chequeId, chequeNumber, depositToAccountId, 
-                                       "DEPOSIT", "ISSUED", "DEPOSITED", amount, customerId, "CUSTOMER", remarks);
+                    // Nothing updated: find out why
+                    String checkQuery = "SELECT status FROM cheques WHERE cheque_number = ?";
+                    pstmt = conn.prepareStatement(checkQuery);
+                    pstmt.setString(1, chequeNumber);
+                    rs = pstmt.executeQuery();
                     
-                    // Send deposit notification email
-                    try {
-                        notificationService.sendChequeDepositedNotification(
-                            depositToAccountId, 
-                            chequeNumber, 
-                            amount,
-                            payerName
-                        );
-                    } catch (Exception e) {
-                        System.err.println("Failed to send cheque deposited notification: " + e.getMessage());
+                    if (rs.next()) {
+                        showError("This cheque has already been deposited or processed");
+                    } else {
+                        // New cheque deposit (from another bank or external)
+                        showError("Cheque number not found in our system. Please verify the cheque number.");
                     }
-                    
-                } else {
-                    // New cheque deposit (from another bank or external)
-                    showError("Cheque number not found in our system. Please verify the cheque number.");
                     return;
                 }
                 
-                showSuccess("Cheque deposited successfully!\nPending staff verification and clearance.");
+                int chequeId = rs.getInt("cheque_id");
+                rs.close();
+                
+                // Log transaction
+                logChequeTransaction(conn, chequeId, chequeNumber, depositToAccountId, 
+                                   "DEPOSIT", "ISSUED", "DEPOSITED", amount, customerId, "CUSTOMER", remarks);
+                
+                // Send deposit notification email
+                try {
+                    notificationService.sendChequeDepositedNotification(
+                        depositToAccountId, 
+                        chequeNumber, 
+                        amount,
+                        payerName
+                    );
+                } catch (Exception e) {
+                    System.err.println("Failed to send cheque deposited notification: " + e.getMessage());
+                }
+                
+                // Let the clearance rules look at it now rather than on the next interval
+                ChequeAutoClearanceService.requestRun();
+                
+                showSuccess("Cheque deposited successfully!\nPending verification and clearance.");
                 clearDepositFields();
                 loadCheques();
                 loadTransactionHistory();
@@ -483,7 +498,7 @@ public class CustomerChequeController {
     private void loadTransactionHistory() {
         transactions.clear();
         
-        String query = "SELECT * FROM vw_cheque_transaction_history " +
+        String query = "SELECT * FROM mv_cheque_transaction_history " +
                       "WHERE accountNumber = ? " +
                       "ORDER BY transaction_date DESC LIMIT 100";
         
@@ -542,10 +557,6 @@ public class CustomerChequeController {
         return "BK" + System.currentTimeMillis() + (int)(Math.random() * 1000);
     }
     
-    private String generateChequeNumber() {
-        return String.format("%015d", (long)(Math.random() * 900000000000000L) + 100000000000000L);
-    }
-    
     private void clearDepositFields() {
         depositChequeNumberField.clear();
         depositAmountField.clear();
@@ -7,12 +7,15 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.mybank.Main;
+import com.mybank.database.CustomerSearchDAO;
 import com.mybank.database.DatabaseHelper;
+import com.mybank.database.LoginThrottle;
 import com.mybank.models.Account;
 import com.mybank.models.Staff;
 import com.mybank.services.NotificationService;
 import com.mybank.services.StaffService;
 
+import javafx.animation.PauseTransition;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -27,6 +30,7 @@ import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.VBox;
+import javafx.util.Duration;
 
 /**
  * Controller for customer management.
@@ -106,6 +110,9 @@ public class CustomerManagementController {
     private Staff currentStaff;
     private Account selectedAccount;
     
+    // Search runs once typing pauses rather than on every keystroke
+    private final PauseTransition searchDebounce = new PauseTransition(Duration.millis(250));
+    
     /**
      * Initialize the controller
      */
@@ -118,6 +125,9 @@ public class CustomerManagementController {
         statusFilter.setValue("All");
         statusFilter.setOnAction(e -> loadCustomers());
         
+        searchDebounce.setOnFinished(e -> loadCustomers());
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> searchDebounce.playFromStart());
+        
         setupTable();
         loadCustomers();
     }
@@ -194,6 +204,13 @@ public class CustomerManagementController {
         
         List<Account> accounts = new ArrayList<>();
         
+        // Indexed prefix search when the FTS index is available
+        if (!searchText.isEmpty() && CustomerSearchDAO.isAvailable()) {
+            accounts = CustomerSearchDAO.searchAccounts(searchText, status);
+            customersTable.setItems(FXCollections.observableArrayList(accounts));
+            return;
+        }
+        
         String sql = "SELECT * FROM accounts WHERE 1=1";
         
         if (!searchText.isEmpty()) {
@@ -313,6 +330,7 @@ public class CustomerManagementController {
      */
     @FXML
     private void handleSearch() {
+        searchDebounce.stop();
         loadCustomers();
     }
     
@@ -474,6 +492,7 @@ public class CustomerManagementController {
             pstmt.setInt(2, accountNumber);
             
             int rowsAffected = pstmt.executeUpdate();
+            LoginThrottle.reset(accountNumber);
             return rowsAffected > 0;
             
         } catch (Exception e) {
@@ -6,6 +6,7 @@ import java.sql.ResultSet;
 
 import com.mybank.Main;
 import com.mybank.database.DatabaseHelper;
+import com.mybank.services.BackgroundExecutor;
 import com.mybank.services.NotificationService;
 import com.mybank.utils.ProfilePictureManager;
 
@@ -19,7 +20,7 @@ import javafx.scene.image.ImageView;
  * Dashboard Controller
  * Handles navigation from the main dashboard
  */
-public class DashboardController {
+public class DashboardController implements Refreshable {
     
     @FXML
     private Label welcomeLabel;
@@ -29,6 +30,8 @@ public class DashboardController {
     
     private NotificationService notificationService;
     private DatabaseHelper dbHelper;
+    // Picture the latest refresh asked for (FX thread only)
+    private String requestedPicturePath;
     
     /**
      * Initializes the controller
@@ -37,6 +40,13 @@ public class DashboardController {
     public void initialize() {
         notificationService = new NotificationService();
         dbHelper = new DatabaseHelper();
+    }
+    
+    /**
+     * Shows the signed-in customer's name and picture; runs each time the dashboard is shown
+     */
+    @Override
+    public void refresh() {
         updateWelcomeMessage();
         loadProfilePicture();
     }
@@ -48,40 +58,45 @@ public class DashboardController {
     private void loadProfilePicture() {
         try {
             int accountNumber = Main.getLoggedInAccount();
-            if (accountNumber > 0) {
-                String profilePicturePath = getProfilePicturePath(accountNumber);
-                Image profileImage = ProfilePictureManager.loadProfilePicture(profilePicturePath);
-                
-                if (profileImage != null) {
-                    profilePictureView.setImage(profileImage);
-                    
-                    // Calculate viewport to center the image
-                    double imageWidth = profileImage.getWidth();
-                    double imageHeight = profileImage.getHeight();
-                    double size = Math.min(imageWidth, imageHeight);
-                    double offsetX = (imageWidth - size) / 2;
-                    double offsetY = (imageHeight - size) / 2;
-                    
-                    // Set viewport to show center square portion
-                    profilePictureView.setViewport(new javafx.geometry.Rectangle2D(offsetX, offsetY, size, size));
-                    
-                    // Set proper display settings for circular image
-                    profilePictureView.setPreserveRatio(false);
-                    profilePictureView.setFitWidth(132);
-                    profilePictureView.setFitHeight(132);
-                    profilePictureView.setSmooth(true);
-                } else {
-                    profilePictureView.setImage(ProfilePictureManager.loadDefaultAvatar());
+            String profilePicturePath = accountNumber > 0 ? getProfilePicturePath(accountNumber) : null;
+            
+            // Decoded in the background; the default avatar shows until it is ready
+            requestedPicturePath = profilePicturePath;
+            ProfilePictureManager.loadProfilePictureAsync(profilePicturePath, image -> {
+                // A later refresh may have asked for another picture meanwhile
+                if (java.util.Objects.equals(profilePicturePath, requestedPicturePath)) {
+                    showProfilePicture(image);
                 }
-            } else {
-                profilePictureView.setImage(ProfilePictureManager.loadDefaultAvatar());
-            }
+            });
         } catch (Exception e) {
             System.err.println("Error loading profile picture: " + e.getMessage());
-            profilePictureView.setImage(ProfilePictureManager.loadDefaultAvatar());
+            showProfilePicture(ProfilePictureManager.loadDefaultAvatar());
         }
     }
     
+    /**
+     * Shows a picture centered and cropped to the circular frame
+     */
+    private void showProfilePicture(Image profileImage) {
+        profilePictureView.setImage(profileImage);
+        
+        // Calculate viewport to center the image
+        double imageWidth = profileImage.getWidth();
+        double imageHeight = profileImage.getHeight();
+        double size = Math.min(imageWidth, imageHeight);
+        double offsetX = (imageWidth - size) / 2;
+        double offsetY = (imageHeight - size) / 2;
+        
+        // Set viewport to show center square portion
+        profilePictureView.setViewport(new javafx.geometry.Rectangle2D(offsetX, offsetY, size, size));
+        
+        // Set proper display settings for circular image
+        profilePictureView.setPreserveRatio(false);
+        profilePictureView.setFitWidth(132);
+        profilePictureView.setFitHeight(132);
+        profilePictureView.setSmooth(true);
+    }
+    
     /**
      * Get profile picture path from database
      */
@@ -277,9 +292,9 @@ public class DashboardController {
             
             // Send logout notification before clearing session
             if (loggedInAccount > 0) {
-                new Thread(() -> {
+                BackgroundExecutor.execute("logout-notification", () -> {
                     notificationService.sendLogoutNotification(loggedInAccount);
-                }).start();
+                });
             }
             
             Main.clearLoggedInAccount();
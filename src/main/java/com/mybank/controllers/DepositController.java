@@ -2,6 +2,7 @@ package com.mybank.controllers;
 
 import com.mybank.Main;
 import com.mybank.database.DatabaseHelper;
+import com.mybank.services.BackgroundExecutor;
 import com.mybank.services.NotificationService;
 
 import javafx.fxml.FXML;
@@ -90,9 +91,9 @@ public class DepositController {
                 final int accNum = accountNumber;
                 final double amt = amount;
                 final double balance = newBalance;
-                new Thread(() -> {
+                BackgroundExecutor.execute("deposit-notification", () -> {
                     notificationService.sendDepositNotification(accNum, amt, balance);
-                }).start();
+                });
                 
                 showSuccess("Deposit successful!\nAmount Deposited: " + String.format("%.2f", amount) + " TAKA" + 
                            "\nNew Balance: " + String.format("%.2f", newBalance) + " TAKA");
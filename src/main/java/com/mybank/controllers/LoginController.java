@@ -2,8 +2,13 @@ package com.mybank.controllers;
 
 import com.mybank.Main;
 import com.mybank.database.DatabaseHelper;
+import com.mybank.database.LoginThrottle;
+import com.mybank.models.CredentialRecord;
+import com.mybank.services.BackgroundExecutor;
+import com.mybank.services.CredentialService;
 import com.mybank.services.NotificationService;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -19,7 +24,7 @@ import javafx.stage.Stage;
  * Handles user authentication and login
  * 2. Returning user: Phone Number + Password
  */
-public class LoginController {
+public class LoginController implements Refreshable {
     
     @FXML
     private TextField phoneNumberField;
@@ -66,6 +71,11 @@ public class LoginController {
      * Handles user login with phone number and password
      */
     private void handleUserLogin() {
+        // A password check is already running
+        if (passwordField.isDisabled()) {
+            return;
+        }
+        
         // Validate inputs
         if (phoneNumberField.getText().trim().isEmpty()) {
             showError("Please enter your phone number!");
@@ -80,25 +90,28 @@ public class LoginController {
         String phoneNumber = phoneNumberField.getText().trim();
         String password = passwordField.getText();
         
-        // Get account number by phone
-        int accountNumber = dbHelper.getAccountByPhone(phoneNumber);
+        // One query for everything the login decides on
+        CredentialRecord record = dbHelper.getCredentialRecordByPhone(phoneNumber);
         
-        if (accountNumber <= 0) {
+        if (record == null) {
             showError("Account not found with this phone number!");
             return;
         }
         
         // Check if account has a password set
-        if (!dbHelper.hasPassword(accountNumber)) {
+        if (!record.hasPassword()) {
             showError("Password not set for this account. Please contact support.");
             return;
         }
         
+        // Refuse attempts on an account with too many recent failures before touching it
+        String throttled = LoginThrottle.check(record.getAccountNumber());
+        int maxAttempts = LoginThrottle.getMaxAttempts();
+        
         // Check account status
-        String status = dbHelper.getAccountStatus(accountNumber);
-        if ("BLOCKED".equals(status)) {
+        if (record.isBlocked()) {
             showError("🔒 ACCOUNT BLOCKED\n\n" +
-                     "Your account was blocked after 3 failed login attempts.\n\n" +
+                     "Your account was blocked after " + maxAttempts + " failed login attempts.\n\n" +
                      "TO UNBLOCK YOUR ACCOUNT:\n" +
                      "1. Check your email for account recovery instructions\n" +
                      "2. Contact Bank Support:\n" +
@@ -109,72 +122,86 @@ public class LoginController {
             return;
         }
         
-        // Attempt authentication
-        boolean authenticated = dbHelper.authenticateLogin(accountNumber, password);
+        if (throttled != null) {
+            showError("⏳ " + throttled);
+            return;
+        }
         
+        // Verify on the credential pool so the password hash doesn't stall the UI;
+        // the record is checked as read, so the account isn't queried again
+        passwordField.setDisable(true);
+        CredentialService.submit(() -> dbHelper.authenticate(record, password))
+            .whenComplete((authenticated, error) -> Platform.runLater(() -> {
+                passwordField.setDisable(false);
+                if (error != null) {
+                    showError("Sign-in is busy right now. Please try again.");
+                    return;
+                }
+                finishLogin(record, authenticated, maxAttempts);
+            }));
+    }
+    
+    /**
+     * Completes a login once the password has been checked
+     * @param record The account's credentials, updated with the outcome
+     * @param authenticated Whether the password matched
+     * @param maxAttempts Failed attempts that block the account
+     */
+    private void finishLogin(CredentialRecord record, boolean authenticated, int maxAttempts) {
+        int accountNumber = record.getAccountNumber();
         if (authenticated) {
             // Store logged-in account number
             Main.setLoggedInAccount(accountNumber);
             
             // Send login notification
-            new Thread(() -> {
+            BackgroundExecutor.execute("login-notification", () -> {
                 notificationService.sendLoginNotification(accountNumber);
-            }).start();
+            });
             
             // Check if user is still using default password
-            if (dbHelper.isUsingDefaultPassword(accountNumber)) {
+            if (record.isUsingDefaultPassword()) {
                 showSuccess("Login successful! You must change your password...");
                 
                 // Force password change for default password users
-                new Thread(() -> {
-                    try {
-                        Thread.sleep(1000);
-                        javafx.application.Platform.runLater(() -> {
-                            try {
-                                showPasswordSetupDialog(accountNumber, true); // true = mandatory
-                            } catch (Exception e) {
-                                System.err.println("Error showing password setup: " + e.getMessage());
-                            }
-                        });
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
-                }).start();
+                BackgroundExecutor.schedule("show-password-setup", () -> {
+                    javafx.application.Platform.runLater(() -> {
+                        try {
+                            showPasswordSetupDialog(accountNumber, true); // true = mandatory
+                        } catch (Exception e) {
+                            System.err.println("Error showing password setup: " + e.getMessage());
+                        }
+                    });
+                }, 1000);
             } else {
                 showSuccess("Login successful! Redirecting...");
                 
                 // Small delay before redirect
-                new Thread(() -> {
-                    try {
-                        Thread.sleep(1000);
-                        javafx.application.Platform.runLater(() -> {
-                            try {
-                                Main.changeScene("Dashboard.fxml");
-                            } catch (Exception e) {
-                                System.err.println("Error redirecting to dashboard: " + e.getMessage());
-                            }
-                        });
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
-                }).start();
+                BackgroundExecutor.schedule("show-dashboard", () -> {
+                    javafx.application.Platform.runLater(() -> {
+                        try {
+                            Main.changeScene("Dashboard.fxml");
+                        } catch (Exception e) {
+                            System.err.println("Error redirecting to dashboard: " + e.getMessage());
+                        }
+                    });
+                }, 1000);
             }
             
         } else {
-            int failedAttempts = dbHelper.getFailedAttempts(accountNumber);
+            int failedAttempts = record.getFailedAttempts();
             
             // Send suspicious login notification
             if (failedAttempts > 0) {
-                new Thread(() -> {
+                BackgroundExecutor.execute("suspicious-login-notification", () -> {
                     notificationService.sendSuspiciousLoginNotification(accountNumber, failedAttempts);
-                }).start();
+                });
             }
             
-            if (failedAttempts >= 3) {
+            if (failedAttempts >= maxAttempts) {
                 // Send account blocked notification
-                new Thread(() -> {
+                BackgroundExecutor.execute("account-blocked-notification", () -> {
                     notificationService.sendAccountBlockedNotification(accountNumber, "Multiple failed login attempts");
-                }).start();
+                });
                 showError("⚠️ ACCOUNT BLOCKED!\n\n" +
                          "Your account has been blocked for security reasons.\n\n" +
                          "TO UNBLOCK:\n" +
@@ -184,10 +211,10 @@ public class LoginController {
                          "• Visit any branch with ID\n\n" +
                          "Staff will verify your identity and unblock your account.");
             } else {
-                int attemptsLeft = 3 - failedAttempts;
+                int attemptsLeft = maxAttempts - failedAttempts;
                 showError("❌ Incorrect password!\n\n" +
                          "You have " + attemptsLeft + " attempt(s) remaining.\n" +
-                         "After 3 failed attempts, your account will be blocked.\n\n" +
+                         "After " + maxAttempts + " failed attempts, your account will be blocked.\n\n" +
                          "⚠️ Warning: If you forgot your password, contact support now.");
             }
         }
@@ -239,6 +266,14 @@ public class LoginController {
         }
     }
     
+    /**
+     * Clears the form left by the previous visit
+     */
+    @Override
+    public void refresh() {
+        handleClear();
+    }
+    
     /**
      * Handles clear button click
      */
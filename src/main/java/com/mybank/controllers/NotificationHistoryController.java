@@ -1,13 +1,10 @@
 package com.mybank.controllers;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-
 import com.mybank.Main;
-import com.mybank.database.DatabaseHelper;
+import com.mybank.database.AuditLogDAO;
+import com.mybank.models.NotificationLog;
 
+import javafx.animation.PauseTransition;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -15,7 +12,9 @@ import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.util.Duration;
 
 /**
  * Controller for viewing notification history
@@ -30,13 +29,15 @@ public class NotificationHistoryController {
     @FXML private TableColumn<NotificationRecord, String> statusColumn;
     @FXML private TextArea messageTextArea;
     @FXML private Label statusLabel;
+    @FXML private TextField searchField;
+    
+    private static final int PAGE_SIZE = 50;
     
-    private DatabaseHelper dbHelper;
     private int accountNumber;
+    private final PauseTransition searchDebounce = new PauseTransition(Duration.millis(250));
     
     @FXML
     public void initialize() {
-        dbHelper = new DatabaseHelper();
         accountNumber = Main.getLoggedInAccount();
         
         // Setup table columns
@@ -49,6 +50,9 @@ public class NotificationHistoryController {
         // Load notification history
         loadNotificationHistory();
         
+        searchDebounce.setOnFinished(e -> loadNotificationHistory());
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> searchDebounce.playFromStart());
+        
         // Add selection listener to show message details
         notificationTable.getSelectionModel().selectedItemProperty().addListener(
             (obs, oldSelection, newSelection) -> {
@@ -62,36 +66,27 @@ public class NotificationHistoryController {
     private void loadNotificationHistory() {
         ObservableList<NotificationRecord> notifications = FXCollections.observableArrayList();
         
-        String sql = "SELECT notificationType, channel, recipient, message, status, sentTimestamp " +
-                     "FROM notifications_log WHERE accountNumber = ? ORDER BY id DESC LIMIT 50";
-        
-        try {
-            Connection conn = dbHelper.getConnection();
-            PreparedStatement pstmt = conn.prepareStatement(sql);
-            pstmt.setInt(1, accountNumber);
-            ResultSet rs = pstmt.executeQuery();
-            
-            int count = 0;
-            while (rs.next()) {
-                notifications.add(new NotificationRecord(
-                    rs.getString("sentTimestamp"),
-                    rs.getString("notificationType"),
-                    rs.getString("channel"),
-                    rs.getString("recipient"),
-                    rs.getString("status"),
-                    rs.getString("message")
-                ));
-                count++;
-            }
-            
+        // Without a logged-in account the DAO would return every customer's history
+        if (accountNumber <= 0) {
             notificationTable.setItems(notifications);
-            statusLabel.setText("Total Notifications: " + count);
-            statusLabel.setStyle("-fx-text-fill: #2e7d32; -fx-font-weight: bold;");
-            
-        } catch (SQLException e) {
-            statusLabel.setText("Error loading notifications: " + e.getMessage());
-            statusLabel.setStyle("-fx-text-fill: #c62828;");
+            return;
+        }
+        
+        for (NotificationLog log : AuditLogDAO.searchNotifications(
+                searchField.getText().trim(), accountNumber, 0, PAGE_SIZE)) {
+            notifications.add(new NotificationRecord(
+                log.getSentTimestamp(),
+                log.getNotificationType(),
+                log.getChannel(),
+                log.getRecipient(),
+                log.getStatus(),
+                log.getMessage()
+            ));
         }
+        
+        notificationTable.setItems(notifications);
+        statusLabel.setText("Total Notifications: " + notifications.size());
+        statusLabel.setStyle("-fx-text-fill: #2e7d32; -fx-font-weight: bold;");
     }
     
     @FXML
@@ -1,6 +1,7 @@
 package com.mybank.controllers;
 
 import com.mybank.database.DatabaseHelper;
+import com.mybank.services.BackgroundExecutor;
 
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
@@ -113,16 +114,11 @@ public class PasswordSetupController {
                 showSuccess("Password created successfully!");
                 
                 // Close dialog after a short delay
-                new Thread(() -> {
-                    try {
-                        Thread.sleep(1500);
-                        javafx.application.Platform.runLater(() -> {
-                            closeDialog();
-                        });
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
-                }).start();
+                BackgroundExecutor.schedule("close-password-dialog", () -> {
+                    javafx.application.Platform.runLater(() -> {
+                        closeDialog();
+                    });
+                }, 1500);
                 
             } else {
                 showError("Failed to create password. Please try again.");
@@ -0,0 +1,15 @@
+package com.mybank.controllers;
+
+/**
+ * Implemented by controllers whose screens SceneCache may keep and show again.
+ * initialize() should only set up the screen; anything that depends on who is
+ * signed in, or that should be re-read, belongs in refresh().
+ */
+public interface Refreshable {
+    
+    /**
+     * Bring the screen up to date; called on the JavaFX thread each time it is shown,
+     * including the first
+     */
+    void refresh();
+}
@@ -8,13 +8,23 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
+import com.mybank.database.ChequeDAO;
 import com.mybank.database.DatabaseConnection;
 import com.mybank.models.Cheque;
 import com.mybank.models.ChequeBook;
+import com.mybank.models.ChequeStats;
+import com.mybank.models.ClearingReport;
+import com.mybank.services.BackgroundExecutor;
+import com.mybank.services.ChequeAutoClearanceService;
+import com.mybank.services.ChequeClearingService;
 import com.mybank.services.NotificationService;
 import com.mybank.utils.SessionManager;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -27,6 +37,7 @@ import javafx.scene.control.ButtonType;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.SelectionMode;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextArea;
@@ -61,12 +72,14 @@ public class StaffChequeController {
     @FXML private TableColumn<Cheque, Timestamp> depDepositDateCol;
     @FXML private TableColumn<Cheque, String> depDepositedByCol;
     @FXML private TableColumn<Cheque, Double> depCurrentBalanceCol;
+    @FXML private TableColumn<Cheque, String> depReviewReasonCol;
     
     @FXML private CheckBox signatureVerifiedCheck;
     @FXML private TextArea clearanceRemarksArea;
     @FXML private TextArea bounceReasonArea;
     @FXML private Button clearChequeBtn;
     @FXML private Button bounceChequeBtn;
+    @FXML private Button clearingCycleBtn;
     
     // All Cheque Books
     @FXML private TableView<ChequeBook> allBooksTable;
@@ -145,6 +158,7 @@ public class StaffChequeController {
         reqDateCol.setCellValueFactory(new PropertyValueFactory<>("requestDate"));
         reqAccountTypeCol.setCellValueFactory(new PropertyValueFactory<>("accountType"));
         reqBalanceCol.setCellValueFactory(new PropertyValueFactory<>("currentBalance"));
+        pendingRequestsTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
         
         // Deposited Cheques Table
         depChequeNumCol.setCellValueFactory(new PropertyValueFactory<>("chequeNumber"));
@@ -155,6 +169,8 @@ public class StaffChequeController {
         depDepositDateCol.setCellValueFactory(new PropertyValueFactory<>("depositDate"));
         depDepositedByCol.setCellValueFactory(new PropertyValueFactory<>("depositedByName"));
         depCurrentBalanceCol.setCellValueFactory(new PropertyValueFactory<>("currentBalance"));
+        depReviewReasonCol.setCellValueFactory(new PropertyValueFactory<>("reviewReason"));
+        depositedChequesTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
         
         // All Books Table
         allBookNumberCol.setCellValueFactory(new PropertyValueFactory<>("bookNumber"));
@@ -176,7 +192,9 @@ public class StaffChequeController {
     private void loadPendingRequests() {
         pendingRequests.clear();
         
-        String query = "SELECT * FROM vw_cheque_book_summary WHERE status = 'PENDING' ORDER BY request_date ASC";
+        String query = "SELECT m.*, a.balance AS current_balance FROM mv_cheque_book_summary m " +
+                      "JOIN accounts a ON a.accountNumber = m.accountNumber " +
+                      "WHERE m.status = 'PENDING' ORDER BY m.request_date ASC";
         
         try (Connection conn = DatabaseConnection.getConnection();
              Statement stmt = conn.createStatement();
@@ -211,8 +229,8 @@ public class StaffChequeController {
     
     @FXML
     private void handleApproveRequest() {
-        ChequeBook selected = pendingRequestsTable.getSelectionModel().getSelectedItem();
-        if (selected == null) {
+        List<ChequeBook> selected = new ArrayList<>(pendingRequestsTable.getSelectionModel().getSelectedItems());
+        if (selected.isEmpty()) {
             showError("Please select a cheque book request to approve");
             return;
         }
@@ -222,75 +240,54 @@ public class StaffChequeController {
         Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
         confirm.setTitle("Confirm Approval");
         confirm.setHeaderText("Approve Cheque Book Request");
-        confirm.setContentText("Book Number: " + selected.getBookNumber() + 
-                              "\nCustomer: " + selected.getCustomerName() + 
-                              "\nAccount: " + selected.getAccountNumber() + 
-                              "\n\nAre you sure you want to approve this request?");
+        if (selected.size() == 1) {
+            ChequeBook book = selected.get(0);
+            confirm.setContentText("Book Number: " + book.getBookNumber() + 
+                                  "\nCustomer: " + book.getCustomerName() + 
+                                  "\nAccount: " + book.getAccountNumber() + 
+                                  "\n\nAre you sure you want to approve this request?");
+        } else {
+            confirm.setContentText(selected.size() + " cheque book requests are selected." +
+                                  "\n\nAre you sure you want to approve all of them?");
+        }
         
         if (confirm.showAndWait().get() == ButtonType.OK) {
-            try (Connection conn = DatabaseConnection.getConnection()) {
-                conn.setAutoCommit(false);
+            try {
+                List<ChequeBook> issued = ChequeDAO.approveChequeBooks(selected, staffId, remarks);
                 
-                try {
-                    // Update cheque book status
-                    String updateQuery = "UPDATE cheque_books SET status = 'APPROVED', " +
-                                       "approval_date = CURRENT_TIMESTAMP, approved_by = ? " +
-                                       "WHERE cheque_book_id = ?";
-                    PreparedStatement pstmt = conn.prepareStatement(updateQuery);
-                    pstmt.setInt(1, staffId);
-                    pstmt.setInt(2, selected.getChequeBookId());
-                    pstmt.executeUpdate();
-                    
-                    // Create individual cheques
-                    long startNum = Long.parseLong(selected.getStartChequeNumber());
-                    String insertChequeQuery = "INSERT INTO cheques (cheque_book_id, accountNumber, " +
-                                              "cheque_number, status) VALUES (?, ?, ?, 'ISSUED')";
-                    pstmt = conn.prepareStatement(insertChequeQuery);
-                    
-                    for (int i = 0; i < selected.getTotalLeaves(); i++) {
-                        String chequeNum = String.format("%015d", startNum + i);
-                        pstmt.setInt(1, selected.getChequeBookId());
-                        pstmt.setInt(2, selected.getAccountId());
-                        pstmt.setString(3, chequeNum);
-                        pstmt.addBatch();
-                    }
-                    pstmt.executeBatch();
-                    
-                    // Update book status to ISSUED
-                    updateQuery = "UPDATE cheque_books SET status = 'ISSUED' WHERE cheque_book_id = ?";
-                    pstmt = conn.prepareStatement(updateQuery);
-                    pstmt.setInt(1, selected.getChequeBookId());
-                    pstmt.executeUpdate();
-                    
-                    conn.commit();
-                    
-                    // Send approval notification email
-                    try {
-                        notificationService.sendChequeBookApprovalNotification(
-                            selected.getAccountId(), 
-                            selected.getBookNumber(), 
-                            selected.getTotalLeaves(),
-                            selected.getStartChequeNumber(),
-                            selected.getEndChequeNumber()
-                        );
-                    } catch (Exception e) {
-                        System.err.println("Failed to send cheque book approval notification: " + e.getMessage());
-                    }
-                    
-                    showSuccess("Cheque book approved and issued successfully!\n" +
-                              selected.getTotalLeaves() + " cheques have been created.");
-                    
-                    approvalRemarksArea.clear();
-                    loadPendingRequests();
-                    loadAllChequeBooks();
-                    loadAllCheques();
-                    loadStatistics();
-                    
-                } catch (SQLException e) {
-                    conn.rollback();
-                    throw e;
+                int leaves = 0;
+                for (ChequeBook book : issued) {
+                    leaves += book.getTotalLeaves();
                 }
                 
+                // Send approval notification emails in the background
+                BackgroundExecutor.execute("cheque-book-notifier", () -> {
+                    for (ChequeBook book : issued) {
+                        try {
+                            notificationService.sendChequeBookApprovalNotification(
+                                book.getAccountId(), 
+                                book.getBookNumber(), 
+                                book.getTotalLeaves(),
+                                book.getStartChequeNumber(),
+                                book.getEndChequeNumber()
+                            );
+                        } catch (Exception e) {
+                            System.err.println("Failed to send cheque book approval notification: " + e.getMessage());
+                        }
+                    }
+                });
+                
+                showSuccess(issued.size() + " cheque book(s) approved and issued successfully!\n" +
+                          leaves + " cheques have been created." +
+                          (issued.size() < selected.size() ?
+                              "\n" + (selected.size() - issued.size()) + " request(s) were already processed." : ""));
+                
+                approvalRemarksArea.clear();
+                loadPendingRequests();
+                loadAllChequeBooks();
+                loadAllCheques();
+                loadStatistics();
+                
             } catch (SQLException e) {
                 showError("Error approving request: " + e.getMessage());
             }
@@ -358,8 +355,12 @@ public class StaffChequeController {
     private void loadDepositedCheques() {
         depositedCheques.clear();
         
-        String query = "SELECT * FROM vw_cheque_details WHERE status IN ('DEPOSITED', 'PENDING_CLEARANCE') " +
-                      "ORDER BY deposit_date ASC";
+        // With auto-clearance on, only the cheques its rules sent for review need staff
+        String query = "SELECT m.*, q.reason AS review_reason FROM mv_cheque_details m " +
+                      "LEFT JOIN cheque_review_queue q ON q.cheque_id = m.cheque_id " +
+                      "WHERE m.status IN ('DEPOSITED', 'PENDING_CLEARANCE') " +
+                      (ChequeAutoClearanceService.isEnabled() ? "AND q.cheque_id IS NOT NULL " : "") +
+                      "ORDER BY m.deposit_date ASC";
         
         try (Connection conn = DatabaseConnection.getConnection();
              Statement stmt = conn.createStatement();
@@ -380,6 +381,7 @@ public class StaffChequeController {
                 cheque.setStatus(rs.getString("status"));
                 cheque.setBookNumber(rs.getString("book_number"));
                 cheque.setSignatureVerified(rs.getBoolean("signature_verified"));
+                cheque.setReviewReason(rs.getString("review_reason"));
                 
                 depositedCheques.add(cheque);
             }
@@ -406,14 +408,14 @@ public class StaffChequeController {
         
         String remarks = clearanceRemarksArea.getText().trim();
         
-        // Check if account has sufficient balance
+        // Cover is checked again when the cheque is posted
         if (selected.getCurrentBalance() < selected.getAmount()) {
             Alert confirm = new Alert(Alert.AlertType.WARNING);
             confirm.setTitle("Insufficient Balance");
             confirm.setHeaderText("Account has insufficient balance");
             confirm.setContentText("Account Balance: TAKA " + selected.getCurrentBalance() + 
                                   "\nCheque Amount: TAKA " + selected.getAmount() + 
-                                  "\n\nThe cheque should be bounced. Do you want to proceed with clearance anyway?");
+                                  "\n\nThe cheque will be bounced unless the balance covers it when it is posted. Do you want to continue?");
             
             if (confirm.showAndWait().get() != ButtonType.OK) {
                 return;
@@ -428,84 +430,33 @@ public class StaffChequeController {
                               "\nAccount: " + selected.getAccountNumber() + 
                               "\n\nAre you sure you want to clear this cheque?");
         
-        if (confirm.showAndWait().get() == ButtonType.OK) {
-            try (Connection conn = DatabaseConnection.getConnection()) {
-                conn.setAutoCommit(false);
-                
-                try {
-                    // Update cheque status
-                    String updateChequeQuery = "UPDATE cheques SET status = 'CLEARED', " +
-                                             "clearance_date = CURRENT_TIMESTAMP, processed_by = ?, " +
-                                             "signature_verified = TRUE, remarks = ? " +
-                                             "WHERE cheque_id = ?";
-                    PreparedStatement pstmt = conn.prepareStatement(updateChequeQuery);
-                    pstmt.setInt(1, staffId);
-                    pstmt.setString(2, remarks);
-                    pstmt.setInt(3, selected.getChequeId());
-                    pstmt.executeUpdate();
-                    
-                    // Deduct amount from issuer's account
-                    String deductQuery = "UPDATE accounts SET balance = balance - ? WHERE accountNumber = ?";
-                    pstmt = conn.prepareStatement(deductQuery);
-                    pstmt.setDouble(1, selected.getAmount());
-                    pstmt.setInt(2, selected.getAccountId());
-                    pstmt.executeUpdate();
-                    
-                    // Add amount to depositor's account if within the bank
-                    if (selected.getDepositedByAccount() != null) {
-                        String addQuery = "UPDATE accounts SET balance = balance + ? WHERE accountNumber = ?";
-                        pstmt = conn.prepareStatement(addQuery);
-                        pstmt.setDouble(1, selected.getAmount());
-                        pstmt.setInt(2, selected.getDepositedByAccount());
-                        pstmt.executeUpdate();
-                    }
-                    
-                    // Log transaction
-                    logChequeTransaction(conn, selected.getChequeId(), selected.getChequeNumber(),
-                                       selected.getAccountId(), "CLEAR", selected.getStatus(), "CLEARED",
-                                       selected.getAmount(), staffId, "STAFF", remarks);
-                    
-                    // Get new balance for notification
-                    String balanceQuery = "SELECT balance FROM accounts WHERE accountNumber = ?";
-                    pstmt = conn.prepareStatement(balanceQuery);
-                    pstmt.setInt(1, selected.getAccountId());
-                    ResultSet rs = pstmt.executeQuery();
-                    double newBalance = 0;
-                    if (rs.next()) {
-                        newBalance = rs.getDouble("balance");
-                    }
-                    
-                    conn.commit();
-                    
-                    // Send clearance notification email
-                    try {
-                        notificationService.sendChequeClearedNotification(
-                            selected.getAccountId(), 
-                            selected.getChequeNumber(), 
-                            selected.getAmount(),
-                            newBalance
-                        );
-                    } catch (Exception e) {
-                        System.err.println("Failed to send cheque cleared notification: " + e.getMessage());
-                    }
-                    
+        if (confirm.showAndWait().get() != ButtonType.OK) {
+            return;
+        }
+        
+        // Posted like a one-cheque clearing cycle, so a cheque the auto-clearance run
+        // has already handled is skipped rather than paid twice
+        List<Integer> ids = Collections.singletonList(selected.getChequeId());
+        BackgroundExecutor.execute("cheque-clear", () -> {
+            ClearingReport report = ChequeClearingService.runClearingCycle(ids, staffId, remarks);
+            
+            Platform.runLater(() -> {
+                if (report.getCleared() > 0) {
                     showSuccess("Cheque cleared successfully!\nAmount TAKA " + selected.getAmount() + " transferred.");
-                    
                     clearanceRemarksArea.clear();
                     signatureVerifiedCheck.setSelected(false);
-                    loadDepositedCheques();
-                    loadAllCheques();
-                    loadStatistics();
-                    
-                } catch (SQLException e) {
-                    conn.rollback();
-                    throw e;
+                } else if (report.getBounced() > 0) {
+                    showError("The issuer's balance does not cover this cheque, so it was bounced.");
+                } else if (report.getFailed() > 0) {
+                    showError("Error clearing cheque. Please try again.");
+                } else {
+                    showError("This cheque has already been processed.");
                 }
-                
-            } catch (SQLException e) {
-                showError("Error clearing cheque: " + e.getMessage());
-            }
-        }
+                loadDepositedCheques();
+                loadAllCheques();
+                loadStatistics();
+            });
+        });
     }
     
     @FXML
@@ -530,63 +481,94 @@ public class StaffChequeController {
                               "\nReason: " + bounceReason + 
                               "\n\nAre you sure you want to bounce this cheque?");
         
-        if (confirm.showAndWait().get() == ButtonType.OK) {
-            try (Connection conn = DatabaseConnection.getConnection()) {
-                conn.setAutoCommit(false);
-                
-                try {
-                    // Update cheque status
-                    String updateQuery = "UPDATE cheques SET status = 'BOUNCED', " +
-                                       "bounce_reason = ?, processed_by = ?, " +
-                                       "clearance_date = CURRENT_TIMESTAMP " +
-                                       "WHERE cheque_id = ?";
-                    PreparedStatement pstmt = conn.prepareStatement(updateQuery);
-                    pstmt.setString(1, bounceReason);
-                    pstmt.setInt(2, staffId);
-                    pstmt.setInt(3, selected.getChequeId());
-                    pstmt.executeUpdate();
-                    
-                    // Log transaction
-                    logChequeTransaction(conn, selected.getChequeId(), selected.getChequeNumber(),
-                                       selected.getAccountId(), "BOUNCE", selected.getStatus(), "BOUNCED",
-                                       selected.getAmount(), staffId, "STAFF", bounceReason);
-                    
-                    conn.commit();
-                    
-                    // Send bounce notification email
-                    try {
-                        notificationService.sendChequeBouncedNotification(
-                            selected.getAccountId(), 
-                            selected.getChequeNumber(), 
-                            selected.getAmount(),
-                            bounceReason
-                        );
-                    } catch (Exception e) {
-                        System.err.println("Failed to send cheque bounced notification: " + e.getMessage());
-                    }
-                    
+        if (confirm.showAndWait().get() != ButtonType.OK) {
+            return;
+        }
+        
+        // Skipped if the cheque was cleared or bounced since the table was loaded
+        List<Integer> ids = Collections.singletonList(selected.getChequeId());
+        BackgroundExecutor.execute("cheque-bounce", () -> {
+            ClearingReport report = ChequeClearingService.bounceCheques(ids, staffId, bounceReason);
+            
+            Platform.runLater(() -> {
+                if (report.getBounced() > 0) {
                     showSuccess("Cheque bounced successfully");
-                    
                     bounceReasonArea.clear();
-                    loadDepositedCheques();
-                    loadAllCheques();
-                    loadStatistics();
-                    
-                } catch (SQLException e) {
-                    conn.rollback();
-                    throw e;
+                } else if (report.getFailed() > 0) {
+                    showError("Error bouncing cheque. Please try again.");
+                } else {
+                    showError("This cheque has already been processed.");
                 }
-                
-            } catch (SQLException e) {
-                showError("Error bouncing cheque: " + e.getMessage());
+                loadDepositedCheques();
+                loadAllCheques();
+                loadStatistics();
+            });
+        });
+    }
+    
+    @FXML
+    private void handleRunClearingCycle() {
+        if (!signatureVerifiedCheck.isSelected()) {
+            showError("Please verify the signatures before running the clearing cycle");
+            return;
+        }
+        
+        // Selected rows only, or the whole queue when nothing is selected
+        List<Integer> chequeIds = null;
+        int count = depositedCheques.size();
+        List<Cheque> selection = depositedChequesTable.getSelectionModel().getSelectedItems();
+        if (!selection.isEmpty()) {
+            chequeIds = new ArrayList<>();
+            for (Cheque cheque : selection) {
+                chequeIds.add(cheque.getChequeId());
             }
+            count = chequeIds.size();
+        }
+        
+        if (count == 0) {
+            showError("There are no cheques pending clearance");
+            return;
+        }
+        
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+        confirm.setTitle("Confirm Clearing Cycle");
+        confirm.setHeaderText("Run Clearing Cycle");
+        confirm.setContentText((chequeIds == null ? "All " : "") + count + " cheque(s) will be processed." +
+                              "\nCheques covered by the issuer's balance are cleared; the rest are bounced " +
+                              "for insufficient funds.\n\nDo you want to continue?");
+        
+        if (confirm.showAndWait().get() != ButtonType.OK) {
+            return;
         }
+        
+        List<Integer> ids = chequeIds;
+        String remarks = clearanceRemarksArea.getText().trim();
+        clearingCycleBtn.setDisable(true);
+        
+        BackgroundExecutor.execute("cheque-clearing", () -> {
+            ClearingReport report = ChequeClearingService.runClearingCycle(ids, staffId, remarks);
+            
+            Platform.runLater(() -> {
+                clearingCycleBtn.setDisable(false);
+                clearanceRemarksArea.clear();
+                signatureVerifiedCheck.setSelected(false);
+                loadDepositedCheques();
+                loadAllCheques();
+                loadStatistics();
+                
+                if (report.getFailed() > 0) {
+                    showError("Clearing cycle finished with errors.\n\n" + report);
+                } else {
+                    showSuccess("Clearing cycle complete.\n\n" + report);
+                }
+            });
+        });
     }
     
     private void loadAllChequeBooks() {
         allBooks.clear();
         
-        String query = "SELECT * FROM vw_cheque_book_summary ORDER BY request_date DESC";
+        String query = "SELECT * FROM mv_cheque_book_summary ORDER BY request_date DESC";
         
         try (Connection conn = DatabaseConnection.getConnection();
              Statement stmt = conn.createStatement();
@@ -615,7 +597,7 @@ public class StaffChequeController {
     private void loadAllCheques() {
         allCheques.clear();
         
-        String query = "SELECT * FROM vw_cheque_details ORDER BY issue_date DESC LIMIT 1000";
+        String query = "SELECT * FROM mv_cheque_details ORDER BY issue_date DESC LIMIT 1000";
         
         try (Connection conn = DatabaseConnection.getConnection();
              Statement stmt = conn.createStatement();
@@ -642,38 +624,23 @@ public class StaffChequeController {
     }
     
     private void loadStatistics() {
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement()) {
-            
-            // Cheque Book Statistics
-            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) as total FROM cheque_books");
-            if (rs.next()) totalRequestsLabel.setText(String.valueOf(rs.getInt("total")));
-            
-            rs = stmt.executeQuery("SELECT COUNT(*) as pending FROM cheque_books WHERE status = 'PENDING'");
-            if (rs.next()) pendingRequestsLabel.setText(String.valueOf(rs.getInt("pending")));
-            
-            rs = stmt.executeQuery("SELECT COUNT(*) as approved FROM cheque_books WHERE status IN ('APPROVED', 'ISSUED')");
-            if (rs.next()) approvedBooksLabel.setText(String.valueOf(rs.getInt("approved")));
-            
-            rs = stmt.executeQuery("SELECT COUNT(*) as active FROM cheque_books WHERE status = 'ISSUED'");
-            if (rs.next()) activeBooksLabel.setText(String.valueOf(rs.getInt("active")));
-            
-            // Cheque Statistics
-            rs = stmt.executeQuery("SELECT COUNT(*) as total FROM cheques");
-            if (rs.next()) totalChequesLabel.setText(String.valueOf(rs.getInt("total")));
-            
-            rs = stmt.executeQuery("SELECT COUNT(*) as cleared FROM cheques WHERE status = 'CLEARED'");
-            if (rs.next()) clearedChequesLabel.setText(String.valueOf(rs.getInt("cleared")));
-            
-            rs = stmt.executeQuery("SELECT COUNT(*) as bounced FROM cheques WHERE status = 'BOUNCED'");
-            if (rs.next()) bouncedChequesLabel.setText(String.valueOf(rs.getInt("bounced")));
-            
-            rs = stmt.executeQuery("SELECT COUNT(*) as pending FROM cheques WHERE status IN ('DEPOSITED', 'PENDING_CLEARANCE')");
-            if (rs.next()) pendingClearanceLabel.setText(String.valueOf(rs.getInt("pending")));
-            
-        } catch (SQLException e) {
-            showError("Error loading statistics: " + e.getMessage());
+        ChequeStats stats = ChequeDAO.getChequeStats();
+        if (stats == null) {
+            showError("Error loading statistics: cheque summary unavailable");
+            return;
         }
+        
+        // Cheque Book Statistics
+        totalRequestsLabel.setText(String.valueOf(stats.getTotalBooks()));
+        pendingRequestsLabel.setText(String.valueOf(stats.getPendingBooks()));
+        approvedBooksLabel.setText(String.valueOf(stats.getApprovedBooks()));
+        activeBooksLabel.setText(String.valueOf(stats.getActiveBooks()));
+        
+        // Cheque Statistics
+        totalChequesLabel.setText(String.valueOf(stats.getTotalCheques()));
+        clearedChequesLabel.setText(String.valueOf(stats.getClearedCheques()));
+        bouncedChequesLabel.setText(String.valueOf(stats.getBouncedCheques()));
+        pendingClearanceLabel.setText(String.valueOf(stats.getPendingClearance()));
     }
     
     @FXML
@@ -746,28 +713,6 @@ public class StaffChequeController {
         allChequesTable.setItems(filtered);
     }
     
-    private void logChequeTransaction(Connection conn, int chequeId, String chequeNumber,
-                                     int accountId, String transactionType, String oldStatus,
-                                     String newStatus, double amount, int performedBy,
-                                     String userType, String remarks) throws SQLException {
-        String query = "INSERT INTO cheque_transactions (cheque_id, cheque_number, accountNumber, " +
-                      "transaction_type, old_status, new_status, amount, performed_by, user_type, remarks) " +
-                      "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        
-        PreparedStatement pstmt = conn.prepareStatement(query);
-        pstmt.setInt(1, chequeId);
-        pstmt.setString(2, chequeNumber);
-        pstmt.setInt(3, accountId);
-        pstmt.setString(4, transactionType);
-        pstmt.setString(5, oldStatus);
-        pstmt.setString(6, newStatus);
-        pstmt.setDouble(7, amount);
-        pstmt.setInt(8, performedBy);
-        pstmt.setString(9, userType);
-        pstmt.setString(10, remarks);
-        pstmt.executeUpdate();
-    }
-    
     @FXML
     private void handleBackToDashboard() {
         try {
@@ -15,7 +15,7 @@ import javafx.scene.layout.VBox;
  * Controller for staff dashboard.
  * Displays role-based menu options and navigation.
  */
-public class StaffDashboardController {
+public class StaffDashboardController implements Refreshable {
     
     @FXML
     private Label staffInfoLabel;
@@ -63,17 +63,29 @@ public class StaffDashboardController {
     private Button systemSettingsBtn;
     
     private Staff currentStaff;
+    // Picture the latest refresh asked for (FX thread only)
+    private String requestedPicturePath;
     
     /**
      * Initialize the dashboard
      */
     @FXML
     private void initialize() {
+        // Staff details are filled in by refresh() each time the dashboard is shown
+    }
+    
+    /**
+     * Show the signed-in staff member's details and the buttons their role allows
+     */
+    @Override
+    public void refresh() {
         currentStaff = Main.getCurrentStaff();
         
         if (currentStaff != null) {
             loadProfilePicture();
             loadStaffInfo();
+            // The previous staff member may have had a narrower role
+            enableAllButtons();
             configureRoleBasedAccess();
         }
     }
@@ -100,35 +112,44 @@ public class StaffDashboardController {
     private void loadProfilePicture() {
         try {
             String profilePicturePath = currentStaff.getProfilePicturePath();
-            Image profileImage = ProfilePictureManager.loadProfilePicture(profilePicturePath);
             
-            if (profileImage != null) {
-                profilePictureView.setImage(profileImage);
-                
-                // Calculate viewport to center the image
-                double imageWidth = profileImage.getWidth();
-                double imageHeight = profileImage.getHeight();
-                double size = Math.min(imageWidth, imageHeight);
-                double offsetX = (imageWidth - size) / 2;
-                double offsetY = (imageHeight - size) / 2;
-                
-                // Set viewport to show center square portion
-                profilePictureView.setViewport(new javafx.geometry.Rectangle2D(offsetX, offsetY, size, size));
-                
-                // Set proper display settings for circular image
-                profilePictureView.setPreserveRatio(false);
-                profilePictureView.setFitWidth(74);
-                profilePictureView.setFitHeight(74);
-                profilePictureView.setSmooth(true);
-            } else {
-                profilePictureView.setImage(ProfilePictureManager.loadDefaultAvatar());
-            }
+            // Decoded in the background; the default avatar shows until it is ready
+            requestedPicturePath = profilePicturePath;
+            ProfilePictureManager.loadProfilePictureAsync(profilePicturePath, image -> {
+                // A later refresh may have asked for another picture meanwhile
+                if (java.util.Objects.equals(profilePicturePath, requestedPicturePath)) {
+                    showProfilePicture(image);
+                }
+            });
         } catch (Exception e) {
             System.err.println("Error loading staff profile picture: " + e.getMessage());
-            profilePictureView.setImage(ProfilePictureManager.loadDefaultAvatar());
+            showProfilePicture(ProfilePictureManager.loadDefaultAvatar());
         }
     }
     
+    /**
+     * Show a picture centered and cropped to the circular frame
+     */
+    private void showProfilePicture(Image profileImage) {
+        profilePictureView.setImage(profileImage);
+        
+        // Calculate viewport to center the image
+        double imageWidth = profileImage.getWidth();
+        double imageHeight = profileImage.getHeight();
+        double size = Math.min(imageWidth, imageHeight);
+        double offsetX = (imageWidth - size) / 2;
+        double offsetY = (imageHeight - size) / 2;
+        
+        // Set viewport to show center square portion
+        profilePictureView.setViewport(new javafx.geometry.Rectangle2D(offsetX, offsetY, size, size));
+        
+        // Set proper display settings for circular image
+        profilePictureView.setPreserveRatio(false);
+        profilePictureView.setFitWidth(74);
+        profilePictureView.setFitHeight(74);
+        profilePictureView.setSmooth(true);
+    }
+    
     /**
      * Configure menu visibility based on staff role
      */
@@ -250,7 +271,7 @@ public class StaffDashboardController {
      */
     @FXML
     private void handleRefresh() {
-        initialize();
+        refresh();
         System.out.println("Dashboard refreshed");
     }
     
@@ -2,8 +2,10 @@ package com.mybank.controllers;
 
 import com.mybank.Main;
 import com.mybank.models.Staff;
+import com.mybank.services.CredentialService;
 import com.mybank.services.StaffService;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -14,7 +16,7 @@ import javafx.scene.control.TextField;
  * Controller for staff login functionality.
  * Handles staff authentication and navigation to staff dashboard.
  */
-public class StaffLoginController {
+public class StaffLoginController implements Refreshable {
     
     @FXML
     private TextField usernameField;
@@ -49,9 +51,24 @@ public class StaffLoginController {
             return;
         }
         
-        // Authenticate staff
-        Staff staff = StaffService.authenticateStaff(username, password);
-        
+        // Authenticate staff on the credential pool; the result comes back on the FX thread
+        loginButton.setDisable(true);
+        CredentialService.submit(() -> StaffService.authenticateStaff(username, password))
+            .whenComplete((staff, error) -> Platform.runLater(() -> {
+                loginButton.setDisable(false);
+                if (error != null) {
+                    showError("Sign-in is busy right now. Please try again.");
+                    return;
+                }
+                finishLogin(staff);
+            }));
+    }
+    
+    /**
+     * Complete a staff login once the password has been checked
+     * @param staff The authenticated staff member, or null if the check failed
+     */
+    private void finishLogin(Staff staff) {
         if (staff != null) {
             System.out.println("Staff login successful: " + staff.getFullName() + 
                              " (" + staff.getRoleDisplay() + ")");
@@ -102,6 +119,17 @@ public class StaffLoginController {
         errorLabel.setManaged(false);
     }
     
+    /**
+     * Clear the form left by the previous visit
+     */
+    @Override
+    public void refresh() {
+        usernameField.clear();
+        passwordField.clear();
+        hideError();
+        usernameField.requestFocus();
+    }
+    
     /**
      * Initialize controller
      */
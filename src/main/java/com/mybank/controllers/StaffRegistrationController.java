@@ -3,6 +3,7 @@ package com.mybank.controllers;
 import java.io.File;
 
 import com.mybank.Main;
+import com.mybank.services.BackgroundExecutor;
 import com.mybank.services.StaffService;
 import com.mybank.utils.ProfilePictureManager;
 import com.mybank.utils.ProfilePictureManager.ValidationResult;
@@ -173,16 +174,11 @@ public class StaffRegistrationController {
             clearForm();
             
             // Redirect to login after 2 seconds
-            new Thread(() -> {
-                try {
-                    Thread.sleep(2000);
-                    javafx.application.Platform.runLater(() -> {
-                        Main.showStaffLogin();
-                    });
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }).start();
+            BackgroundExecutor.schedule("show-staff-login", () -> {
+                javafx.application.Platform.runLater(() -> {
+                    Main.showStaffLogin();
+                });
+            }, 2000);
             
         } else {
             showError("Registration failed. Username may already exist. Please try a different username.");
@@ -2,6 +2,9 @@ package com.mybank.controllers;
 
 import com.mybank.Main;
 import com.mybank.database.DatabaseHelper;
+import com.mybank.database.TransactionFees;
+import com.mybank.database.TransactionLimits;
+import com.mybank.services.BackgroundExecutor;
 import com.mybank.services.NotificationService;
 
 import javafx.fxml.FXML;
@@ -96,11 +99,20 @@ public class TransferController {
                 return;
             }
             
-            // Check balance
+            // Check balance, including the transfer fee
+            double fee = TransactionFees.getTransferFee();
             double senderBalance = dbHelper.getBalance(fromAccount);
-            if (senderBalance < amount) {
+            if (senderBalance < amount + fee) {
                 showError("Insufficient balance in sender's account!\nCurrent Balance: " + 
-                          String.format("%.2f", senderBalance) + " TAKA");
+                          String.format("%.2f", senderBalance) + " TAKA" +
+                          "\nTransfer Fee: " + String.format("%.2f", fee) + " TAKA");
+                return;
+            }
+            
+            // Check daily and monthly limits
+            String limitError = TransactionLimits.checkTransfer(fromAccount, amount);
+            if (limitError != null) {
+                showError(limitError);
                 return;
             }
             
@@ -117,14 +129,15 @@ public class TransferController {
                 final double amt = amount;
                 final double senderBal = newSenderBalance;
                 final double receiverBal = newReceiverBalance;
-                new Thread(() -> {
+                BackgroundExecutor.execute("transfer-notification", () -> {
                     notificationService.sendTransferNotifications(from, to, amt, senderBal, receiverBal);
-                }).start();
+                });
                 
                 String senderName = dbHelper.getOwnerName(fromAccount);
                 String receiverName = dbHelper.getOwnerName(toAccount);
                 
                 showSuccess("Transfer successful!\nAmount: TAKA " + String.format("%.2f", amount) + 
+                           "\nTransfer Fee: TAKA " + String.format("%.2f", fee) +
                            "\nFrom: " + senderName + " (A/C: " + fromAccount + ")" +
                            "\nTo: " + receiverName + " (A/C: " + toAccount + ")" +
                            "\n\nSender's New Balance: TAKA " + String.format("%.2f", newSenderBalance));
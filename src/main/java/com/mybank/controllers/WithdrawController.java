@@ -2,6 +2,9 @@ package com.mybank.controllers;
 
 import com.mybank.Main;
 import com.mybank.database.DatabaseHelper;
+import com.mybank.database.TransactionFees;
+import com.mybank.database.TransactionLimits;
+import com.mybank.services.BackgroundExecutor;
 import com.mybank.services.NotificationService;
 
 import javafx.fxml.FXML;
@@ -77,10 +80,19 @@ public class WithdrawController {
                 return;
             }
             
-            // Check balance
+            // Check balance, including the withdrawal fee
+            double fee = TransactionFees.getWithdrawalFee();
             double currentBalance = dbHelper.getBalance(accountNumber);
-            if (currentBalance < amount) {
-                showError("Insufficient balance!\nCurrent Balance: " + String.format("%.2f", currentBalance) + " TAKA");
+            if (currentBalance < amount + fee) {
+                showError("Insufficient balance!\nCurrent Balance: " + String.format("%.2f", currentBalance) + " TAKA" +
+                          "\nWithdrawal Fee: " + String.format("%.2f", fee) + " TAKA");
+                return;
+            }
+            
+            // Check daily and monthly limits
+            String limitError = TransactionLimits.checkWithdrawal(accountNumber, amount);
+            if (limitError != null) {
+                showError(limitError);
                 return;
             }
             
@@ -94,11 +106,12 @@ public class WithdrawController {
                 final int accNum = accountNumber;
                 final double amt = amount;
                 final double balance = newBalance;
-                new Thread(() -> {
+                BackgroundExecutor.execute("withdrawal-notification", () -> {
                     notificationService.sendWithdrawalNotification(accNum, amt, balance);
-                }).start();
+                });
                 
                 showSuccess("Withdrawal successful!\nAmount Withdrawn: " + String.format("%.2f", amount) + " TAKA" + 
+                           "\nWithdrawal Fee: " + String.format("%.2f", fee) + " TAKA" +
                            "\nNew Balance: " + String.format("%.2f", newBalance) + " TAKA");
                 clearFields();
             } else {
@@ -1,6 +1,7 @@
 package com.mybank.database;
 
 import com.mybank.models.AuditLog;
+import com.mybank.models.NotificationLog;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -38,6 +39,84 @@ public class AuditLogDAO {
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        
+        createAuditSearchIndex();
+    }
+    
+    /**
+     * Create the FTS5 index over audit log username, action, module and details.
+     * Triggers keep it in step with audit_logs; existing rows are indexed once.
+     */
+    private static void createAuditSearchIndex() {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) return;
+        
+        try (Statement stmt = conn.createStatement()) {
+            boolean existed = tableExists(stmt, "audit_logs_fts");
+            
+            stmt.execute("CREATE VIRTUAL TABLE IF NOT EXISTS audit_logs_fts USING fts5(" +
+                        "username, action, module, details, " +
+                        "content='audit_logs', content_rowid='log_id')");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS audit_logs_fts_ai AFTER INSERT ON audit_logs BEGIN " +
+                        "INSERT INTO audit_logs_fts(rowid, username, action, module, details) " +
+                        "VALUES (new.log_id, new.username, new.action, new.module, new.details); END");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS audit_logs_fts_ad AFTER DELETE ON audit_logs BEGIN " +
+                        "INSERT INTO audit_logs_fts(audit_logs_fts, rowid, username, action, module, details) " +
+                        "VALUES ('delete', old.log_id, old.username, old.action, old.module, old.details); END");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS audit_logs_fts_au AFTER UPDATE ON audit_logs BEGIN " +
+                        "INSERT INTO audit_logs_fts(audit_logs_fts, rowid, username, action, module, details) " +
+                        "VALUES ('delete', old.log_id, old.username, old.action, old.module, old.details); " +
+                        "INSERT INTO audit_logs_fts(rowid, username, action, module, details) " +
+                        "VALUES (new.log_id, new.username, new.action, new.module, new.details); END");
+            
+            if (!existed) {
+                stmt.execute("INSERT INTO audit_logs_fts(audit_logs_fts) VALUES ('rebuild')");
+            }
+        } catch (SQLException e) {
+            System.err.println("Audit log search index unavailable: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Create the FTS5 index over notifications_log eventDetails and recipient.
+     * Called once notifications_log itself exists.
+     */
+    public static void createNotificationSearchIndex() {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) return;
+        
+        try (Statement stmt = conn.createStatement()) {
+            boolean existed = tableExists(stmt, "notifications_log_fts");
+            
+            stmt.execute("CREATE VIRTUAL TABLE IF NOT EXISTS notifications_log_fts USING fts5(" +
+                        "eventDetails, recipient, " +
+                        "content='notifications_log', content_rowid='id')");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS notifications_log_fts_ai AFTER INSERT ON notifications_log BEGIN " +
+                        "INSERT INTO notifications_log_fts(rowid, eventDetails, recipient) " +
+                        "VALUES (new.id, new.eventDetails, new.recipient); END");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS notifications_log_fts_ad AFTER DELETE ON notifications_log BEGIN " +
+                        "INSERT INTO notifications_log_fts(notifications_log_fts, rowid, eventDetails, recipient) " +
+                        "VALUES ('delete', old.id, old.eventDetails, old.recipient); END");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS notifications_log_fts_au " +
+                        "AFTER UPDATE OF eventDetails, recipient ON notifications_log BEGIN " +
+                        "INSERT INTO notifications_log_fts(notifications_log_fts, rowid, eventDetails, recipient) " +
+                        "VALUES ('delete', old.id, old.eventDetails, old.recipient); " +
+                        "INSERT INTO notifications_log_fts(rowid, eventDetails, recipient) " +
+                        "VALUES (new.id, new.eventDetails, new.recipient); END");
+            
+            if (!existed) {
+                stmt.execute("INSERT INTO notifications_log_fts(notifications_log_fts) VALUES ('rebuild')");
+            }
+        } catch (SQLException e) {
+            System.err.println("Notification search index unavailable: " + e.getMessage());
+        }
+    }
+    
+    private static boolean tableExists(Statement stmt, String name) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = '" + name + "'")) {
+            return rs.next();
+        }
     }
     
     /**
@@ -181,6 +260,101 @@ public class AuditLogDAO {
         return logs;
     }
     
+    /**
+     * Search audit logs, newest first, one page at a time.
+     * Every word in searchText must prefix a word in username, action, module or details.
+     * @param searchText Free text, or empty to page through all logs
+     * @param filter Value matched against user type, action or status, or null/"All"
+     * @param offset Rows to skip
+     * @param limit Page size
+     */
+    public static List<AuditLog> searchLogs(String searchText, String filter, int offset, int limit) {
+        List<AuditLog> logs = new ArrayList<>();
+        String matchQuery = FullTextQuery.toPrefixMatch(searchText);
+        boolean hasFilter = filter != null && !filter.equals("All");
+        
+        // FTS5 walks its doclists in rowid order, so newest-first paging stops early
+        String sql = matchQuery != null
+                ? "SELECT a.* FROM audit_logs_fts f JOIN audit_logs a ON a.log_id = f.rowid " +
+                  "WHERE audit_logs_fts MATCH ?"
+                : "SELECT a.* FROM audit_logs a WHERE 1=1";
+        if (hasFilter) {
+            sql += " AND (a.user_type = ? OR a.action = ? OR a.status = ?)";
+        }
+        sql += (matchQuery != null ? " ORDER BY f.rowid DESC" : " ORDER BY a.log_id DESC") + " LIMIT ? OFFSET ?";
+        
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) return logs;
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int paramIndex = 1;
+            if (matchQuery != null) {
+                pstmt.setString(paramIndex++, matchQuery);
+            }
+            if (hasFilter) {
+                pstmt.setString(paramIndex++, filter);
+                pstmt.setString(paramIndex++, filter);
+                pstmt.setString(paramIndex++, filter);
+            }
+            pstmt.setInt(paramIndex++, limit);
+            pstmt.setInt(paramIndex, offset);
+            
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                logs.add(extractLogFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return logs;
+    }
+    
+    /**
+     * Search notification history, newest first, one page at a time.
+     * Every word in searchText must prefix a word in the event details or recipient.
+     * @param searchText Free text, or empty to page through all notifications
+     * @param accountNumber Restrict to one account, or 0 for all accounts
+     * @param offset Rows to skip
+     * @param limit Page size
+     */
+    public static List<NotificationLog> searchNotifications(String searchText, int accountNumber,
+                                                            int offset, int limit) {
+        List<NotificationLog> notifications = new ArrayList<>();
+        String matchQuery = FullTextQuery.toPrefixMatch(searchText);
+        
+        String sql = matchQuery != null
+                ? "SELECT n.* FROM notifications_log_fts f JOIN notifications_log n ON n.id = f.rowid " +
+                  "WHERE notifications_log_fts MATCH ?"
+                : "SELECT n.* FROM notifications_log n WHERE 1=1";
+        if (accountNumber > 0) {
+            sql += " AND n.accountNumber = ?";
+        }
+        sql += (matchQuery != null ? " ORDER BY f.rowid DESC" : " ORDER BY n.id DESC") + " LIMIT ? OFFSET ?";
+        
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) return notifications;
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int paramIndex = 1;
+            if (matchQuery != null) {
+                pstmt.setString(paramIndex++, matchQuery);
+            }
+            if (accountNumber > 0) {
+                pstmt.setInt(paramIndex++, accountNumber);
+            }
+            pstmt.setInt(paramIndex++, limit);
+            pstmt.setInt(paramIndex, offset);
+            
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                notifications.add(extractNotificationFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return notifications;
+    }
+    
     /**
      * Delete old logs (for maintenance)
      */
@@ -222,4 +396,21 @@ public class AuditLogDAO {
         
         return log;
     }
+    
+    /**
+     * Extract NotificationLog from ResultSet
+     */
+    private static NotificationLog extractNotificationFromResultSet(ResultSet rs) throws SQLException {
+        NotificationLog notification = new NotificationLog();
+        notification.setId(rs.getInt("id"));
+        notification.setAccountNumber(rs.getInt("accountNumber"));
+        notification.setNotificationType(rs.getString("notificationType"));
+        notification.setChannel(rs.getString("channel"));
+        notification.setRecipient(rs.getString("recipient"));
+        notification.setMessage(rs.getString("message"));
+        notification.setStatus(rs.getString("status"));
+        notification.setSentTimestamp(rs.getString("sentTimestamp"));
+        notification.setEventDetails(rs.getString("eventDetails"));
+        return notification;
+    }
 }
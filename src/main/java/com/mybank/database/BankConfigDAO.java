@@ -3,6 +3,7 @@ package com.mybank.database;
 import com.mybank.models.BankConfig;
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -24,14 +25,16 @@ public class BankConfigDAO {
                     "last_updated TEXT NOT NULL, " +
                     "updated_by TEXT)";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
-            
-            // Insert default configurations
-            insertDefaultConfigs();
-        } catch (SQLException e) {
-            e.printStackTrace();
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(sql);
+                
+                // Insert default configurations
+                insertDefaultConfigs();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
         }
     }
     
@@ -41,41 +44,107 @@ public class BankConfigDAO {
     private static void insertDefaultConfigs() {
         String checkSql = "SELECT COUNT(*) FROM bank_config";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(checkSql)) {
-            
-            if (rs.next() && rs.getInt(1) == 0) {
-                // Insert default configs
-                insertConfig(new BankConfig("SAVINGS_INTEREST_RATE", "3.5", "INTEREST_RATE", 
-                    "Annual interest rate for savings accounts (%)", "SYSTEM"));
-                insertConfig(new BankConfig("CURRENT_INTEREST_RATE", "0.5", "INTEREST_RATE", 
-                    "Annual interest rate for current accounts (%)", "SYSTEM"));
-                insertConfig(new BankConfig("LOAN_INTEREST_RATE", "8.5", "INTEREST_RATE", 
-                    "Annual interest rate for loans (%)", "SYSTEM"));
-                insertConfig(new BankConfig("MIN_BALANCE_SAVINGS", "1000", "BALANCE", 
-                    "Minimum balance for savings account", "SYSTEM"));
-                insertConfig(new BankConfig("MIN_BALANCE_CURRENT", "5000", "BALANCE", 
-                    "Minimum balance for current account", "SYSTEM"));
-                insertConfig(new BankConfig("DAILY_WITHDRAWAL_LIMIT", "50000", "TRANSACTION_LIMIT", 
-                    "Daily withdrawal limit", "SYSTEM"));
-                insertConfig(new BankConfig("DAILY_TRANSFER_LIMIT", "100000", "TRANSACTION_LIMIT", 
-                    "Daily transfer limit", "SYSTEM"));
-                insertConfig(new BankConfig("MONTHLY_TRANSACTION_LIMIT", "500000", "TRANSACTION_LIMIT", 
-                    "Monthly transaction limit", "SYSTEM"));
-                insertConfig(new BankConfig("WITHDRAWAL_FEE", "10", "FEE", 
-                    "Fee for ATM withdrawal", "SYSTEM"));
-                insertConfig(new BankConfig("TRANSFER_FEE", "5", "FEE", 
-                    "Fee for inter-account transfer", "SYSTEM"));
-                insertConfig(new BankConfig("LOW_BALANCE_PENALTY", "100", "PENALTY", 
-                    "Penalty for maintaining balance below minimum", "SYSTEM"));
-                insertConfig(new BankConfig("SESSION_TIMEOUT_MINUTES", "15", "SECURITY", 
-                    "Session timeout in minutes", "SYSTEM"));
-                insertConfig(new BankConfig("MAX_LOGIN_ATTEMPTS", "3", "SECURITY", 
-                    "Maximum failed login attempts before lockout", "SYSTEM"));
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(checkSql)) {
+                
+                if (rs.next() && rs.getInt(1) == 0) {
+                    // Insert default configs
+                    insertConfig(new BankConfig("SAVINGS_INTEREST_RATE", "3.5", "INTEREST_RATE", 
+                        "Annual interest rate for savings accounts (%)", "SYSTEM"));
+                    insertConfig(new BankConfig("CURRENT_INTEREST_RATE", "0.5", "INTEREST_RATE", 
+                        "Annual interest rate for current accounts (%)", "SYSTEM"));
+                    insertConfig(new BankConfig("LOAN_INTEREST_RATE", "8.5", "INTEREST_RATE", 
+                        "Annual interest rate for loans (%)", "SYSTEM"));
+                    insertConfig(new BankConfig("MIN_BALANCE_SAVINGS", "1000", "BALANCE", 
+                        "Minimum balance for savings account", "SYSTEM"));
+                    insertConfig(new BankConfig("MIN_BALANCE_CURRENT", "5000", "BALANCE", 
+                        "Minimum balance for current account", "SYSTEM"));
+                    insertConfig(new BankConfig("DAILY_WITHDRAWAL_LIMIT", "50000", "TRANSACTION_LIMIT", 
+                        "Daily withdrawal limit", "SYSTEM"));
+                    insertConfig(new BankConfig("DAILY_TRANSFER_LIMIT", "100000", "TRANSACTION_LIMIT", 
+                        "Daily transfer limit", "SYSTEM"));
+                    insertConfig(new BankConfig("MONTHLY_TRANSACTION_LIMIT", "500000", "TRANSACTION_LIMIT", 
+                        "Monthly transaction limit", "SYSTEM"));
+                    insertConfig(new BankConfig("WITHDRAWAL_FEE", "10", "FEE", 
+                        "Fee for ATM withdrawal", "SYSTEM"));
+                    insertConfig(new BankConfig("TRANSFER_FEE", "5", "FEE", 
+                        "Fee for inter-account transfer", "SYSTEM"));
+                    insertConfig(new BankConfig("LOW_BALANCE_PENALTY", "100", "PENALTY", 
+                        "Penalty for maintaining balance below minimum", "SYSTEM"));
+                    insertConfig(new BankConfig("SESSION_TIMEOUT_MINUTES", "15", "SECURITY", 
+                        "Session timeout in minutes", "SYSTEM"));
+                    insertConfig(new BankConfig("MAX_LOGIN_ATTEMPTS", "3", "SECURITY", 
+                        "Maximum failed login attempts before lockout", "SYSTEM"));
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+        
+        // Settings added after the initial release; existing databases get them too
+        // Off until an admin turns it on, so an upgrade never starts clearing unattended
+        insertConfigIfMissing(new BankConfig("AUTO_CLEAR_ENABLED", "false", "CHEQUE_CLEARING", 
+            "Clear deposited cheques automatically when all rules pass", "SYSTEM"));
+        insertConfigIfMissing(new BankConfig("AUTO_CLEAR_MAX_AMOUNT", "50000", "CHEQUE_CLEARING", 
+            "Largest cheque amount cleared without staff review", "SYSTEM"));
+        insertConfigIfMissing(new BankConfig("AUTO_CLEAR_MIN_ACCOUNT_AGE_DAYS", "90", "CHEQUE_CLEARING", 
+            "Minimum age of the issuer's account in days", "SYSTEM"));
+        insertConfigIfMissing(new BankConfig("AUTO_CLEAR_MAX_RECENT_BOUNCES", "0", "CHEQUE_CLEARING", 
+            "Most bounced cheques the issuer may have in the lookback period", "SYSTEM"));
+        insertConfigIfMissing(new BankConfig("AUTO_CLEAR_BOUNCE_LOOKBACK_DAYS", "180", "CHEQUE_CLEARING", 
+            "Days of cheque history checked for bounces", "SYSTEM"));
+        insertConfigIfMissing(new BankConfig("FRAUD_MAX_TRANSFERS", "5", "FRAUD_DETECTION", 
+            "Most outgoing or incoming transfers per account within the velocity window", "SYSTEM"));
+        insertConfigIfMissing(new BankConfig("FRAUD_VELOCITY_WINDOW_MINUTES", "10", "FRAUD_DETECTION", 
+            "Length of the transfer velocity window in minutes", "SYSTEM"));
+        insertConfigIfMissing(new BankConfig("FRAUD_SPIKE_FACTOR", "5", "FRAUD_DETECTION", 
+            "Alert when an amount exceeds this multiple of the account's usual amount", "SYSTEM"));
+        insertConfigIfMissing(new BankConfig("FRAUD_SPIKE_MIN_HISTORY", "5", "FRAUD_DETECTION", 
+            "Postings an account needs before amount spikes are checked", "SYSTEM"));
+        insertConfigIfMissing(new BankConfig("FRAUD_MAX_NEW_COUNTERPARTIES", "3", "FRAUD_DETECTION", 
+            "Most new payees per account within the fan-out window", "SYSTEM"));
+        insertConfigIfMissing(new BankConfig("FRAUD_FAN_OUT_WINDOW_MINUTES", "60", "FRAUD_DETECTION", 
+            "Length of the new-payee fan-out window in minutes", "SYSTEM"));
+        insertConfigIfMissing(new BankConfig("LOGIN_FAILURE_WINDOW_MINUTES", "15", "SECURITY", 
+            "Failed logins older than this many minutes no longer count", "SYSTEM"));
+        insertConfigIfMissing(new BankConfig("LOGIN_SOURCE_MAX_FAILURES", "20", "SECURITY", 
+            "Failed logins from one remote address (HTTP API), across all accounts, before it is refused", "SYSTEM"));
+        insertConfigIfMissing(new BankConfig("PASSWORD_HASH_TARGET_MILLIS", "100", "SECURITY", 
+            "Target time in milliseconds to check one password; sets the hashing cost at startup", "SYSTEM"));
+        // The month the penalty was installed in; months that ended before it are never charged
+        insertConfigIfMissing(new BankConfig("LOW_BALANCE_PENALTY_START_MONTH", YearMonth.now().toString(), "PENALTY", 
+            "First month (yyyy-MM) the low-balance penalty is charged for", "SYSTEM"));
+    }
+    
+    /**
+     * Insert a configuration unless the key already exists
+     */
+    public static boolean insertConfigIfMissing(BankConfig config) {
+        String sql = "INSERT OR IGNORE INTO bank_config (config_key, config_value, category, " +
+                    "description, last_updated, updated_by) VALUES (?, ?, ?, ?, ?, ?)";
+        
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setString(1, config.getConfigKey());
+                pstmt.setString(2, config.getConfigValue());
+                pstmt.setString(3, config.getCategory());
+                pstmt.setString(4, config.getDescription());
+                pstmt.setString(5, LocalDateTime.now().toString());
+                pstmt.setString(6, config.getUpdatedBy());
+                
+                boolean inserted = pstmt.executeUpdate() > 0;
+                if (inserted) {
+                    ConfigRegistry.refresh();
+                }
+                return inserted;
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return false;
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
     }
     
@@ -86,21 +155,24 @@ public class BankConfigDAO {
         String sql = "INSERT OR REPLACE INTO bank_config (config_key, config_value, category, " +
                     "description, last_updated, updated_by) VALUES (?, ?, ?, ?, ?, ?)";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, config.getConfigKey());
-            pstmt.setString(2, config.getConfigValue());
-            pstmt.setString(3, config.getCategory());
-            pstmt.setString(4, config.getDescription());
-            pstmt.setString(5, LocalDateTime.now().toString());
-            pstmt.setString(6, config.getUpdatedBy());
-            
-            pstmt.executeUpdate();
-            return true;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setString(1, config.getConfigKey());
+                pstmt.setString(2, config.getConfigValue());
+                pstmt.setString(3, config.getCategory());
+                pstmt.setString(4, config.getDescription());
+                pstmt.setString(5, LocalDateTime.now().toString());
+                pstmt.setString(6, config.getUpdatedBy());
+                
+                pstmt.executeUpdate();
+                ConfigRegistry.refresh();
+                return true;
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return false;
+            }
         }
     }
     
@@ -110,27 +182,29 @@ public class BankConfigDAO {
     public static BankConfig getConfigByKey(String key) {
         String sql = "SELECT * FROM bank_config WHERE config_key = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, key);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return extractConfigFromResultSet(rs);
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setString(1, key);
+                ResultSet rs = pstmt.executeQuery();
+                
+                if (rs.next()) {
+                    return extractConfigFromResultSet(rs);
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
         return null;
     }
     
     /**
-     * Get configuration value by key
+     * Get configuration value by key.
+     * Served from ConfigRegistry, so it doesn't query the database.
      */
     public static String getConfigValue(String key) {
-        BankConfig config = getConfigByKey(key);
-        return config != null ? config.getConfigValue() : null;
+        return ConfigRegistry.getString(key);
     }
     
     /**
@@ -140,15 +214,17 @@ public class BankConfigDAO {
         List<BankConfig> configs = new ArrayList<>();
         String sql = "SELECT * FROM bank_config ORDER BY category, config_key";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                configs.add(extractConfigFromResultSet(rs));
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                
+                while (rs.next()) {
+                    configs.add(extractConfigFromResultSet(rs));
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
         return configs;
     }
@@ -160,17 +236,19 @@ public class BankConfigDAO {
         List<BankConfig> configs = new ArrayList<>();
         String sql = "SELECT * FROM bank_config WHERE category = ? ORDER BY config_key";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, category);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                configs.add(extractConfigFromResultSet(rs));
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setString(1, category);
+                ResultSet rs = pstmt.executeQuery();
+                
+                while (rs.next()) {
+                    configs.add(extractConfigFromResultSet(rs));
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
         return configs;
     }
@@ -182,19 +260,22 @@ public class BankConfigDAO {
         String sql = "UPDATE bank_config SET config_value = ?, last_updated = ?, " +
                     "updated_by = ? WHERE config_key = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, value);
-            pstmt.setString(2, LocalDateTime.now().toString());
-            pstmt.setString(3, updatedBy);
-            pstmt.setString(4, key);
-            
-            pstmt.executeUpdate();
-            return true;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setString(1, value);
+                pstmt.setString(2, LocalDateTime.now().toString());
+                pstmt.setString(3, updatedBy);
+                pstmt.setString(4, key);
+                
+                pstmt.executeUpdate();
+                ConfigRegistry.refresh();
+                return true;
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return false;
+            }
         }
     }
     
@@ -204,15 +285,18 @@ public class BankConfigDAO {
     public static boolean deleteConfig(String key) {
         String sql = "DELETE FROM bank_config WHERE config_key = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, key);
-            pstmt.executeUpdate();
-            return true;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setString(1, key);
+                pstmt.executeUpdate();
+                ConfigRegistry.refresh();
+                return true;
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return false;
+            }
         }
     }
     
@@ -0,0 +1,637 @@
+package com.mybank.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mybank.models.ChequeBook;
+import com.mybank.models.ChequeStats;
+import com.mybank.utils.BloomFilter;
+
+/**
+ * Data Access Object for cheque module support tables.
+ * The cheque schema itself ships as database/cheque_management_schema_sqlite.sql;
+ * this class layers summary tables and triggers on top of it at startup.
+ */
+public class ChequeDAO {
+
+    // Cheque numbers are 15 digits; the sequence never hands out anything below this
+    private static final long FIRST_CHEQUE_NUMBER = 100000000000000L;
+    private static final int CHEQUE_NUMBER_DIGITS = 15;
+
+    // Every cheque number in the cheques table; lets deposits skip the lookup for unknown numbers.
+    // Only approveChequeBooks issues numbers, and only one process may hold the database
+    // (DatabaseHelper.claimDatabase), so no number can be issued behind the filter's back.
+    private static volatile BloomFilter chequeNumberFilter;
+    private static final double FILTER_FALSE_POSITIVE_RATE = 0.01;
+    private static final long FILTER_MIN_CAPACITY = 100000;
+    private static long filterSize = 0;
+
+    // Counter column -> condition on the row (%1$s is the row alias)
+    private static final String[][] BOOK_COUNTERS = {
+        {"pending_books", "%1$s.status = 'PENDING'"},
+        {"approved_books", "%1$s.status IN ('APPROVED', 'ISSUED')"},
+        {"active_books", "%1$s.status = 'ISSUED'"}
+    };
+
+    // Counter column -> condition, value added while the condition holds
+    private static final String[][] CHEQUE_COUNTERS = {
+        {"cleared_cheques", "%1$s.status = 'CLEARED'", "1"},
+        {"bounced_cheques", "%1$s.status = 'BOUNCED'", "1"},
+        {"pending_clearance", "%1$s.status IN ('DEPOSITED', 'PENDING_CLEARANCE')", "1"},
+        {"cleared_amount", "%1$s.status = 'CLEARED'", "COALESCE(%1$s.amount, 0)"},
+        {"bounced_amount", "%1$s.status = 'BOUNCED'", "COALESCE(%1$s.amount, 0)"}
+    };
+
+    private static final String[] STATS_TRIGGERS = {
+        "cheque_stats_books_ai", "cheque_stats_books_ad", "cheque_stats_books_au",
+        "cheque_stats_cheques_ai", "cheque_stats_cheques_ad", "cheque_stats_cheques_au"
+    };
+
+    // Materialized copies of the vw_cheque_* views. Each select is the view's join,
+    // keyed so a trigger can refresh a single row by the base table's primary key.
+    private static final String BOOK_SUMMARY_SELECT =
+        "SELECT cb.cheque_book_id, cb.accountNumber, a.ownerName, cb.book_number, " +
+        "cb.start_cheque_number, cb.end_cheque_number, cb.total_leaves, cb.remaining_leaves, " +
+        "cb.status, cb.request_date, cb.approval_date, cb.approved_by, s.fullName, a.accountType, cb.remarks " +
+        "FROM cheque_books cb JOIN accounts a ON cb.accountNumber = a.accountNumber " +
+        "LEFT JOIN staff s ON cb.approved_by = s.staffId";
+
+    private static final String CHEQUE_DETAILS_SELECT =
+        "SELECT c.cheque_id, c.cheque_number, c.cheque_book_id, cb.book_number, c.accountNumber, " +
+        "a.ownerName, c.amount, c.payee_name, c.issue_date, c.deposit_date, c.clearance_date, " +
+        "c.status, c.signature_verified, c.bounce_reason, c.deposited_to_account, c.processed_by, " +
+        "s.fullName, c.remarks " +
+        "FROM cheques c JOIN cheque_books cb ON c.cheque_book_id = cb.cheque_book_id " +
+        "JOIN accounts a ON c.accountNumber = a.accountNumber " +
+        "LEFT JOIN staff s ON c.processed_by = s.staffId";
+
+    private static final String TRANSACTION_HISTORY_SELECT =
+        "SELECT ct.transaction_id, ct.cheque_id, ct.cheque_number, ct.accountNumber, a.ownerName, " +
+        "ct.transaction_type, ct.old_status, ct.new_status, ct.amount, ct.performed_by, ct.user_type, " +
+        "ct.performed_by_name, ct.transaction_date, ct.remarks, ct.bounce_reason " +
+        "FROM cheque_transactions ct JOIN accounts a ON ct.accountNumber = a.accountNumber";
+
+    private static final String[] VIEW_TABLES = {
+        "mv_cheque_book_summary", "mv_cheque_details", "mv_cheque_transaction_history"
+    };
+
+    private static final String[] VIEW_TRIGGERS = {
+        "mv_cheque_books_ai", "mv_cheque_books_au", "mv_cheque_books_ad",
+        "mv_cheques_ai", "mv_cheques_au", "mv_cheques_ad",
+        "mv_cheque_transactions_ai", "mv_cheque_transactions_au", "mv_cheque_transactions_ad",
+        "mv_cheque_book_number_au", "mv_cheque_accounts_au", "mv_cheque_accounts_ad", "mv_cheque_staff_au"
+    };
+
+    /**
+     * Create cheque support tables if the cheque schema is installed
+     */
+    public static void createTables() {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) return;
+
+        try (Statement stmt = conn.createStatement()) {
+            if (!objectExists(stmt, "table", "cheques") || !objectExists(stmt, "table", "cheque_books")) {
+                System.out.println("Cheque schema not installed; skipping cheque support tables.");
+                return;
+            }
+
+            createStatsTable(stmt);
+            if (objectExists(stmt, "table", "cheque_transactions")) {
+                createMaterializedViews(stmt);
+            }
+            createReviewQueue(stmt);
+            createNumberSequence(stmt);
+            ensureUniqueChequeNumbers(stmt);
+            warmChequeNumberFilter(stmt);
+        } catch (SQLException e) {
+            System.err.println("Error creating cheque support tables: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Create the single-row cheque_stats table and the triggers that keep it current.
+     * Counts are rebuilt from scratch only when the table or a trigger was missing,
+     * e.g. on first run or after the cheque schema script recreated the base tables.
+     */
+    private static void createStatsTable(Statement stmt) throws SQLException {
+        boolean complete = objectExists(stmt, "table", "cheque_stats");
+        for (String trigger : STATS_TRIGGERS) {
+            complete = complete && objectExists(stmt, "trigger", trigger);
+        }
+
+        stmt.execute("CREATE TABLE IF NOT EXISTS cheque_stats (" +
+                    "id INTEGER PRIMARY KEY CHECK (id = 1), " +
+                    "total_books INTEGER NOT NULL DEFAULT 0, " +
+                    "pending_books INTEGER NOT NULL DEFAULT 0, " +
+                    "approved_books INTEGER NOT NULL DEFAULT 0, " +
+                    "active_books INTEGER NOT NULL DEFAULT 0, " +
+                    "total_cheques INTEGER NOT NULL DEFAULT 0, " +
+                    "cleared_cheques INTEGER NOT NULL DEFAULT 0, " +
+                    "bounced_cheques INTEGER NOT NULL DEFAULT 0, " +
+                    "pending_clearance INTEGER NOT NULL DEFAULT 0, " +
+                    "cleared_amount REAL NOT NULL DEFAULT 0, " +
+                    "bounced_amount REAL NOT NULL DEFAULT 0)");
+
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS cheque_stats_books_ai AFTER INSERT ON cheque_books BEGIN " +
+                    "UPDATE cheque_stats SET total_books = total_books + 1, " +
+                    counterDeltas(BOOK_COUNTERS, "new", null) + " WHERE id = 1; END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS cheque_stats_books_ad AFTER DELETE ON cheque_books BEGIN " +
+                    "UPDATE cheque_stats SET total_books = total_books - 1, " +
+                    counterDeltas(BOOK_COUNTERS, null, "old") + " WHERE id = 1; END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS cheque_stats_books_au " +
+                    "AFTER UPDATE OF status ON cheque_books WHEN old.status IS NOT new.status BEGIN " +
+                    "UPDATE cheque_stats SET " +
+                    counterDeltas(BOOK_COUNTERS, "new", "old") + " WHERE id = 1; END");
+
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS cheque_stats_cheques_ai AFTER INSERT ON cheques BEGIN " +
+                    "UPDATE cheque_stats SET total_cheques = total_cheques + 1, " +
+                    counterDeltas(CHEQUE_COUNTERS, "new", null) + " WHERE id = 1; END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS cheque_stats_cheques_ad AFTER DELETE ON cheques BEGIN " +
+                    "UPDATE cheque_stats SET total_cheques = total_cheques - 1, " +
+                    counterDeltas(CHEQUE_COUNTERS, null, "old") + " WHERE id = 1; END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS cheque_stats_cheques_au " +
+                    "AFTER UPDATE OF status, amount ON cheques " +
+                    "WHEN old.status IS NOT new.status OR old.amount IS NOT new.amount BEGIN " +
+                    "UPDATE cheque_stats SET " +
+                    counterDeltas(CHEQUE_COUNTERS, "new", "old") + " WHERE id = 1; END");
+
+        if (!complete) {
+            rebuildChequeStats(stmt);
+        }
+    }
+
+    /**
+     * Create the mv_cheque_* tables that back the cheque screens.
+     * They hold the same rows as the vw_cheque_* views, kept current by triggers on
+     * cheques, cheque_books and cheque_transactions, and indexed on the columns the
+     * screens filter and sort by so a load reads only the rows it shows.
+     * Account balances are not copied; balance postings never touch these tables.
+     */
+    private static void createMaterializedViews(Statement stmt) throws SQLException {
+        boolean complete = true;
+        for (String table : VIEW_TABLES) {
+            complete = complete && objectExists(stmt, "table", table);
+        }
+        for (String trigger : VIEW_TRIGGERS) {
+            complete = complete && objectExists(stmt, "trigger", trigger);
+        }
+
+        stmt.execute("CREATE TABLE IF NOT EXISTS mv_cheque_book_summary (" +
+                    "cheque_book_id INTEGER PRIMARY KEY, " +
+                    "accountNumber INTEGER, " +
+                    "customer_name TEXT, " +
+                    "book_number TEXT, " +
+                    "start_cheque_number TEXT, " +
+                    "end_cheque_number TEXT, " +
+                    "total_leaves INTEGER, " +
+                    "remaining_leaves INTEGER, " +
+                    "status TEXT, " +
+                    "request_date DATETIME, " +
+                    "approval_date DATETIME, " +
+                    "approved_by INTEGER, " +
+                    "approved_by_name TEXT, " +
+                    "account_type TEXT, " +
+                    "remarks TEXT)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_mv_books_request_date ON mv_cheque_book_summary(request_date)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_mv_books_status ON mv_cheque_book_summary(status, request_date)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_mv_books_account ON mv_cheque_book_summary(accountNumber, request_date)");
+
+        stmt.execute("CREATE TABLE IF NOT EXISTS mv_cheque_details (" +
+                    "cheque_id INTEGER PRIMARY KEY, " +
+                    "cheque_number TEXT, " +
+                    "cheque_book_id INTEGER, " +
+                    "book_number TEXT, " +
+                    "accountNumber INTEGER, " +
+                    "account_holder TEXT, " +
+                    "amount REAL, " +
+                    "payee_name TEXT, " +
+                    "issue_date DATE, " +
+                    "deposit_date DATETIME, " +
+                    "clearance_date DATETIME, " +
+                    "status TEXT, " +
+                    "signature_verified INTEGER, " +
+                    "bounce_reason TEXT, " +
+                    "deposited_to_account INTEGER, " +
+                    "processed_by INTEGER, " +
+                    "processed_by_name TEXT, " +
+                    "remarks TEXT)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_mv_cheques_issue_date ON mv_cheque_details(issue_date)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_mv_cheques_status ON mv_cheque_details(status, deposit_date)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_mv_cheques_account ON mv_cheque_details(accountNumber, issue_date)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_mv_cheques_book ON mv_cheque_details(cheque_book_id)");
+
+        stmt.execute("CREATE TABLE IF NOT EXISTS mv_cheque_transaction_history (" +
+                    "transaction_id INTEGER PRIMARY KEY, " +
+                    "cheque_id INTEGER, " +
+                    "cheque_number TEXT, " +
+                    "accountNumber INTEGER, " +
+                    "account_holder TEXT, " +
+                    "transaction_type TEXT, " +
+                    "old_status TEXT, " +
+                    "new_status TEXT, " +
+                    "amount REAL, " +
+                    "performed_by INTEGER, " +
+                    "user_type TEXT, " +
+                    "performed_by_name TEXT, " +
+                    "transaction_date DATETIME, " +
+                    "remarks TEXT, " +
+                    "bounce_reason TEXT)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_mv_cheque_txn_date ON mv_cheque_transaction_history(transaction_date)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_mv_cheque_txn_account ON mv_cheque_transaction_history(accountNumber, transaction_date)");
+
+        // Base table rows: re-materialize the one affected row
+        createRowTriggers(stmt, "mv_cheque_books", "cheque_books", "mv_cheque_book_summary",
+                          "cheque_book_id", BOOK_SUMMARY_SELECT, "cb");
+        createRowTriggers(stmt, "mv_cheques", "cheques", "mv_cheque_details",
+                          "cheque_id", CHEQUE_DETAILS_SELECT, "c");
+        createRowTriggers(stmt, "mv_cheque_transactions", "cheque_transactions", "mv_cheque_transaction_history",
+                          "transaction_id", TRANSACTION_HISTORY_SELECT, "ct");
+
+        // Joined columns: only fire on the columns the views copy
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS mv_cheque_book_number_au " +
+                    "AFTER UPDATE OF book_number ON cheque_books BEGIN " +
+                    "UPDATE mv_cheque_details SET book_number = new.book_number " +
+                    "WHERE cheque_book_id = new.cheque_book_id; END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS mv_cheque_accounts_au " +
+                    "AFTER UPDATE OF ownerName, accountType ON accounts BEGIN " +
+                    "UPDATE mv_cheque_book_summary SET customer_name = new.ownerName, account_type = new.accountType " +
+                    "WHERE accountNumber = new.accountNumber; " +
+                    "UPDATE mv_cheque_details SET account_holder = new.ownerName WHERE accountNumber = new.accountNumber; " +
+                    "UPDATE mv_cheque_transaction_history SET account_holder = new.ownerName " +
+                    "WHERE accountNumber = new.accountNumber; END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS mv_cheque_accounts_ad AFTER DELETE ON accounts BEGIN " +
+                    "DELETE FROM mv_cheque_book_summary WHERE accountNumber = old.accountNumber; " +
+                    "DELETE FROM mv_cheque_details WHERE accountNumber = old.accountNumber; " +
+                    "DELETE FROM mv_cheque_transaction_history WHERE accountNumber = old.accountNumber; END");
+        // Staff renames are rare, so these updates are left unindexed
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS mv_cheque_staff_au AFTER UPDATE OF fullName ON staff BEGIN " +
+                    "UPDATE mv_cheque_book_summary SET approved_by_name = new.fullName WHERE approved_by = new.staffId; " +
+                    "UPDATE mv_cheque_details SET processed_by_name = new.fullName WHERE processed_by = new.staffId; END");
+
+        if (!complete) {
+            rebuildMaterializedViews(stmt);
+        }
+    }
+
+    /**
+     * Create insert/update/delete triggers that copy one base row into its materialized table
+     */
+    private static void createRowTriggers(Statement stmt, String prefix, String baseTable, String viewTable,
+                                          String key, String select, String alias) throws SQLException {
+        String refresh = "INSERT OR REPLACE INTO " + viewTable + " " + select +
+                        " WHERE " + alias + "." + key + " = new." + key + "; ";
+
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS " + prefix + "_ai AFTER INSERT ON " + baseTable + " BEGIN " +
+                    refresh + "END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS " + prefix + "_au AFTER UPDATE ON " + baseTable + " BEGIN " +
+                    "DELETE FROM " + viewTable + " WHERE " + key + " = old." + key + "; " +
+                    refresh + "END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS " + prefix + "_ad AFTER DELETE ON " + baseTable + " BEGIN " +
+                    "DELETE FROM " + viewTable + " WHERE " + key + " = old." + key + "; END");
+    }
+
+    /**
+     * Repopulate the mv_cheque_* tables from the base tables
+     */
+    public static void rebuildMaterializedViews() {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) return;
+
+        try (Statement stmt = conn.createStatement()) {
+            rebuildMaterializedViews(stmt);
+        } catch (SQLException e) {
+            System.err.println("Error rebuilding cheque views: " + e.getMessage());
+        }
+    }
+
+    private static void rebuildMaterializedViews(Statement stmt) throws SQLException {
+        stmt.execute("DELETE FROM mv_cheque_book_summary");
+        stmt.execute("INSERT INTO mv_cheque_book_summary " + BOOK_SUMMARY_SELECT);
+        stmt.execute("DELETE FROM mv_cheque_details");
+        stmt.execute("INSERT INTO mv_cheque_details " + CHEQUE_DETAILS_SELECT);
+        stmt.execute("DELETE FROM mv_cheque_transaction_history");
+        stmt.execute("INSERT INTO mv_cheque_transaction_history " + TRANSACTION_HISTORY_SELECT);
+    }
+
+    /**
+     * Create the cheque_review_queue table.
+     * Deposited cheques the auto-clearance rules could not pass are parked here
+     * with the reason, and leave the queue once staff clear or bounce them.
+     */
+    private static void createReviewQueue(Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE IF NOT EXISTS cheque_review_queue (" +
+                    "cheque_id INTEGER PRIMARY KEY, " +
+                    "reason TEXT NOT NULL, " +
+                    "evaluated_at DATETIME DEFAULT CURRENT_TIMESTAMP)");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS cheque_review_queue_au " +
+                    "AFTER UPDATE OF status ON cheques " +
+                    "WHEN new.status NOT IN ('DEPOSITED', 'PENDING_CLEARANCE') BEGIN " +
+                    "DELETE FROM cheque_review_queue WHERE cheque_id = new.cheque_id; END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS cheque_review_queue_ad AFTER DELETE ON cheques BEGIN " +
+                    "DELETE FROM cheque_review_queue WHERE cheque_id = old.cheque_id; END");
+    }
+
+    /**
+     * Create the cheque_number_sequence table.
+     * On first run the sequence starts above every number already handed out,
+     * so reserved ranges can't collide with books requested before it existed.
+     */
+    private static void createNumberSequence(Statement stmt) throws SQLException {
+        if (objectExists(stmt, "table", "cheque_number_sequence")) return;
+
+        stmt.execute("CREATE TABLE cheque_number_sequence (" +
+                    "name TEXT PRIMARY KEY, " +
+                    "next_value INTEGER NOT NULL)");
+        stmt.execute("INSERT INTO cheque_number_sequence (name, next_value) VALUES ('cheque_number', MAX(" +
+                    FIRST_CHEQUE_NUMBER + ", " +
+                    "COALESCE((SELECT MAX(CAST(end_cheque_number AS INTEGER)) FROM cheque_books), 0) + 1, " +
+                    "COALESCE((SELECT MAX(CAST(cheque_number AS INTEGER)) FROM cheques), 0) + 1))");
+    }
+
+    /**
+     * Make sure cheque_number is backed by a unique index.
+     * The shipped schema declares it UNIQUE; older databases only had a plain index.
+     */
+    private static void ensureUniqueChequeNumbers(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(
+                "SELECT 1 FROM pragma_index_list('cheques') l, pragma_index_info(l.name) i " +
+                "WHERE l.\"unique\" = 1 AND i.name = 'cheque_number' " +
+                "AND (SELECT COUNT(*) FROM pragma_index_info(l.name)) = 1")) {
+            if (rs.next()) return;
+        }
+
+        try {
+            stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_cheques_number_unique ON cheques(cheque_number)");
+        } catch (SQLException e) {
+            System.err.println("Duplicate cheque numbers exist; unique index not created: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Load every cheque number into the in-memory filter
+     */
+    private static void warmChequeNumberFilter(Statement stmt) throws SQLException {
+        long count;
+        try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM cheques")) {
+            count = rs.next() ? rs.getLong(1) : 0;
+        }
+
+        // Room to grow so the filter isn't rebuilt after every approval
+        BloomFilter filter = new BloomFilter(Math.max(FILTER_MIN_CAPACITY, count * 2), FILTER_FALSE_POSITIVE_RATE);
+        long loaded = 0;
+        try (ResultSet rs = stmt.executeQuery("SELECT cheque_number FROM cheques")) {
+            while (rs.next()) {
+                filter.add(rs.getString(1));
+                loaded++;
+            }
+        }
+
+        synchronized (ChequeDAO.class) {
+            chequeNumberFilter = filter;
+            filterSize = loaded;
+        }
+    }
+
+    /**
+     * Check whether a cheque number may exist
+     * @return false only when the number is definitely not in the cheques table
+     */
+    public static boolean mightHaveChequeNumber(String chequeNumber) {
+        BloomFilter filter = chequeNumberFilter;
+        return filter == null || filter.mightContain(chequeNumber);
+    }
+
+    /**
+     * Add newly created cheque numbers to the filter, rebuilding it larger when full
+     */
+    private static void rememberChequeNumbers(List<String> chequeNumbers) {
+        boolean full;
+        synchronized (ChequeDAO.class) {
+            BloomFilter filter = chequeNumberFilter;
+            if (filter == null) return;
+            for (String number : chequeNumbers) {
+                filter.add(number);
+            }
+            filterSize += chequeNumbers.size();
+            full = filterSize > filter.getCapacity();
+        }
+
+        if (full) {
+            Connection conn = DatabaseConnection.getConnection();
+            try (Statement stmt = conn.createStatement()) {
+                warmChequeNumberFilter(stmt);
+            } catch (SQLException e) {
+                System.err.println("Error rebuilding cheque number filter: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reserve a contiguous block of cheque numbers
+     * @param count Number of leaves to reserve
+     * @return The first number of the block, or -1 if the sequence is unavailable
+     */
+    public static long reserveChequeNumbers(int count) {
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseConnection.getConnection();
+            if (conn == null) return -1;
+
+            // Single statement, so the read and the bump can't be split by another caller
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "UPDATE cheque_number_sequence SET next_value = next_value + ? " +
+                    "WHERE name = 'cheque_number' RETURNING next_value - ?")) {
+                pstmt.setInt(1, count);
+                pstmt.setInt(2, count);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        return rs.getLong(1);
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Error reserving cheque numbers: " + e.getMessage());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Format a cheque number as its zero-padded 15 digit string
+     */
+    public static String formatChequeNumber(long number) {
+        String digits = Long.toString(number);
+        if (digits.length() >= CHEQUE_NUMBER_DIGITS) return digits;
+
+        StringBuilder padded = new StringBuilder(CHEQUE_NUMBER_DIGITS);
+        for (int i = digits.length(); i < CHEQUE_NUMBER_DIGITS; i++) {
+            padded.append('0');
+        }
+        return padded.append(digits).toString();
+    }
+
+    /**
+     * Approve and issue pending cheque books in one transaction.
+     * Every leaf of every book goes through a single batched insert.
+     * @param books Pending books to approve
+     * @param staffId Approving staff member
+     * @param remarks Approval remarks, stored on each book when not empty
+     * @return The books that were issued; books no longer PENDING are left alone
+     * @throws SQLException if the transaction fails; nothing is written in that case
+     */
+    public static List<ChequeBook> approveChequeBooks(List<ChequeBook> books, int staffId, String remarks)
+            throws SQLException {
+        List<ChequeBook> issued = new ArrayList<>();
+        List<String> leafNumbers = new ArrayList<>();
+        if (books.isEmpty()) return issued;
+
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement bookStmt = conn.prepareStatement(
+                     "UPDATE cheque_books SET status = 'ISSUED', approval_date = CURRENT_TIMESTAMP, " +
+                     "approved_by = ?, remarks = COALESCE(NULLIF(?, ''), remarks) " +
+                     "WHERE cheque_book_id = ? AND status = 'PENDING'");
+                 PreparedStatement leafStmt = conn.prepareStatement(
+                     "INSERT INTO cheques (cheque_book_id, accountNumber, cheque_number, status) " +
+                     "VALUES (?, ?, ?, 'ISSUED')")) {
+
+                for (ChequeBook book : books) {
+                    bookStmt.setInt(1, staffId);
+                    bookStmt.setString(2, remarks);
+                    bookStmt.setInt(3, book.getChequeBookId());
+                    bookStmt.addBatch();
+                }
+                int[] counts = bookStmt.executeBatch();
+
+                for (int i = 0; i < books.size(); i++) {
+                    if (counts[i] <= 0) continue;
+
+                    ChequeBook book = books.get(i);
+                    long start = Long.parseLong(book.getStartChequeNumber());
+                    for (int leaf = 0; leaf < book.getTotalLeaves(); leaf++) {
+                        leafStmt.setInt(1, book.getChequeBookId());
+                        leafStmt.setInt(2, book.getAccountId());
+                        String leafNumber = formatChequeNumber(start + leaf);
+                        leafStmt.setString(3, leafNumber);
+                        leafStmt.addBatch();
+                        leafNumbers.add(leafNumber);
+                    }
+                    issued.add(book);
+                }
+                if (!issued.isEmpty()) {
+                    leafStmt.executeBatch();
+                }
+
+                conn.commit();
+                rememberChequeNumbers(leafNumbers);
+            } catch (SQLException | NumberFormatException e) {
+                conn.rollback();
+                issued.clear();
+                if (e instanceof SQLException) throw (SQLException) e;
+                throw new SQLException("Invalid cheque number range: " + e.getMessage(), e);
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return issued;
+    }
+
+    /**
+     * Recount cheque_stats from the base tables
+     */
+    public static void rebuildChequeStats() {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) return;
+
+        try (Statement stmt = conn.createStatement()) {
+            rebuildChequeStats(stmt);
+        } catch (SQLException e) {
+            System.err.println("Error rebuilding cheque statistics: " + e.getMessage());
+        }
+    }
+
+    private static void rebuildChequeStats(Statement stmt) throws SQLException {
+        StringBuilder columns = new StringBuilder("id, total_books, total_cheques");
+        StringBuilder values = new StringBuilder("1, (SELECT COUNT(*) FROM cheque_books), (SELECT COUNT(*) FROM cheques)");
+        for (String[] counter : BOOK_COUNTERS) {
+            columns.append(", ").append(counter[0]);
+            values.append(", (SELECT ").append(sumWhen(counter[1], "1", "cb")).append(" FROM cheque_books cb)");
+        }
+        for (String[] counter : CHEQUE_COUNTERS) {
+            columns.append(", ").append(counter[0]);
+            values.append(", (SELECT ").append(sumWhen(counter[1], counter[2], "c")).append(" FROM cheques c)");
+        }
+
+        stmt.execute("INSERT OR REPLACE INTO cheque_stats (" + columns + ") VALUES (" + values + ")");
+    }
+
+    /**
+     * Get dashboard counters in a single row lookup
+     * @return The counters, or null if the summary table is unavailable
+     */
+    public static ChequeStats getChequeStats() {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) return null;
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM cheque_stats WHERE id = 1")) {
+
+            if (rs.next()) {
+                ChequeStats stats = new ChequeStats();
+                stats.setTotalBooks(rs.getInt("total_books"));
+                stats.setPendingBooks(rs.getInt("pending_books"));
+                stats.setApprovedBooks(rs.getInt("approved_books"));
+                stats.setActiveBooks(rs.getInt("active_books"));
+                stats.setTotalCheques(rs.getInt("total_cheques"));
+                stats.setClearedCheques(rs.getInt("cleared_cheques"));
+                stats.setBouncedCheques(rs.getInt("bounced_cheques"));
+                stats.setPendingClearance(rs.getInt("pending_clearance"));
+                stats.setClearedAmount(rs.getDouble("cleared_amount"));
+                stats.setBouncedAmount(rs.getDouble("bounced_amount"));
+                return stats;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading cheque statistics: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Build "col = col + (value if plusRow matches) - (value if minusRow matches)" for each counter
+     */
+    private static String counterDeltas(String[][] counters, String plusRow, String minusRow) {
+        StringBuilder sql = new StringBuilder();
+        for (String[] counter : counters) {
+            String value = counter.length > 2 ? counter[2] : "1";
+            if (sql.length() > 0) sql.append(", ");
+            sql.append(counter[0]).append(" = ").append(counter[0]);
+            if (plusRow != null) {
+                sql.append(" + ").append(caseWhen(counter[1], value, plusRow));
+            }
+            if (minusRow != null) {
+                sql.append(" - ").append(caseWhen(counter[1], value, minusRow));
+            }
+        }
+        return sql.toString();
+    }
+
+    private static String caseWhen(String condition, String value, String row) {
+        return "(CASE WHEN " + String.format(condition, row) + " THEN " + String.format(value, row) + " ELSE 0 END)";
+    }
+
+    private static String sumWhen(String condition, String value, String row) {
+        return "COALESCE(SUM" + caseWhen(condition, value, row) + ", 0)";
+    }
+
+    static boolean objectExists(Statement stmt, String type, String name) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("SELECT 1 FROM sqlite_master WHERE type = '" + type +
+                                             "' AND name = '" + name + "'")) {
+            return rs.next();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.mybank.database;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Config Registry
+ * In-memory copy of bank_config with values parsed once into typed form.
+ * Reads never touch the database. BankConfigDAO refreshes the registry after every
+ * write; the whole table is re-read and swapped in as one immutable snapshot, so a
+ * reader never sees half an update. Listeners are told which keys changed.
+ */
+public class ConfigRegistry {
+
+    /**
+     * Receives the keys whose values changed in a refresh
+     */
+    public interface Listener {
+        void configChanged(Set<String> changedKeys);
+    }
+
+    /**
+     * One config value, parsed when the snapshot is built
+     */
+    private static final class Value {
+        final String raw;
+        final BigDecimal decimal;
+        final Boolean bool;
+        final Duration duration;
+
+        Value(String key, String raw) {
+            this.raw = raw;
+            this.decimal = parseDecimal(raw);
+            this.bool = "true".equalsIgnoreCase(raw) ? Boolean.TRUE
+                      : "false".equalsIgnoreCase(raw) ? Boolean.FALSE : null;
+            this.duration = decimal != null ? parseDuration(key, decimal) : null;
+        }
+    }
+
+    private static volatile Map<String, Value> snapshot = Collections.emptyMap();
+    private static volatile boolean loaded;
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Register a listener for config changes
+     */
+    public static void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove a listener
+     */
+    public static void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Re-read bank_config after a write and notify listeners of the keys that changed.
+     * Does nothing until the registry has been read once, since there is nothing cached yet.
+     */
+    public static void refresh() {
+        if (loaded) {
+            load();
+        }
+    }
+
+    /**
+     * Read bank_config into a new snapshot and swap it in
+     */
+    static void load() {
+        Set<String> changed;
+        // Built under the connection lock: the read can't land inside another thread's
+        // transaction, and callers already holding the lock can load without deadlocking
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Map<String, Value> next = new HashMap<>();
+            Connection conn = DatabaseHelper.getConnection();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT config_key, config_value FROM bank_config")) {
+                while (rs.next()) {
+                    String key = rs.getString("config_key");
+                    next.put(key, new Value(key, rs.getString("config_value")));
+                }
+            } catch (SQLException e) {
+                System.err.println("Error loading bank config: " + e.getMessage());
+                return;
+            }
+
+            Map<String, Value> previous = snapshot;
+            changed = new HashSet<>();
+            for (Map.Entry<String, Value> entry : next.entrySet()) {
+                Value old = previous.get(entry.getKey());
+                if (old == null || !Objects.equals(old.raw, entry.getValue().raw)) {
+                    changed.add(entry.getKey());
+                }
+            }
+            for (String key : previous.keySet()) {
+                if (!next.containsKey(key)) changed.add(key);
+            }
+
+            snapshot = Collections.unmodifiableMap(next);
+            loaded = true;
+        }
+
+        if (!changed.isEmpty()) {
+            Set<String> keys = Collections.unmodifiableSet(changed);
+            for (Listener listener : listeners) {
+                try {
+                    listener.configChanged(keys);
+                } catch (Exception e) {
+                    System.err.println("Config listener failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Get a value as stored
+     * @return The value, or null if the key is absent
+     */
+    public static String getString(String key) {
+        Value value = get(key);
+        return value != null ? value.raw : null;
+    }
+
+    /**
+     * Get a numeric value
+     * @return The value, or the default if the key is absent or not a number
+     */
+    public static BigDecimal getDecimal(String key, BigDecimal defaultValue) {
+        Value value = get(key);
+        return value != null && value.decimal != null ? value.decimal : defaultValue;
+    }
+
+    /**
+     * Get a numeric value as a double
+     * @return The value, or the default if the key is absent or not a number
+     */
+    public static double getDouble(String key, double defaultValue) {
+        Value value = get(key);
+        return value != null && value.decimal != null ? value.decimal.doubleValue() : defaultValue;
+    }
+
+    /**
+     * Get a whole-number value; fractions are truncated
+     * @return The value, or the default if the key is absent or not a number
+     */
+    public static int getInt(String key, int defaultValue) {
+        Value value = get(key);
+        return value != null && value.decimal != null ? value.decimal.intValue() : defaultValue;
+    }
+
+    /**
+     * Get a true/false value
+     * @return The value, or the default if the key is absent or not true/false
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        Value value = get(key);
+        return value != null && value.bool != null ? value.bool : defaultValue;
+    }
+
+    /**
+     * Get a duration for keys ending in _SECONDS, _MINUTES, _HOURS or _DAYS
+     * @return The value, or the default if the key is absent or not a duration
+     */
+    public static Duration getDuration(String key, Duration defaultValue) {
+        Value value = get(key);
+        return value != null && value.duration != null ? value.duration : defaultValue;
+    }
+
+    /**
+     * Check a new value before it is saved: a key that holds a number or a
+     * true/false flag must keep holding one
+     * @return null if the value is acceptable, otherwise the reason it isn't
+     */
+    public static String validate(String key, String newValue) {
+        Value current = get(key);
+        if (current == null) return null;
+
+        Value proposed = new Value(key, newValue.trim());
+        if (current.decimal != null && proposed.decimal == null) {
+            return key + " must be a number";
+        }
+        if (current.bool != null && proposed.bool == null) {
+            return key + " must be true or false";
+        }
+        return null;
+    }
+
+    private static Value get(String key) {
+        if (!loaded) load();
+        return snapshot.get(key);
+    }
+
+    private static BigDecimal parseDecimal(String raw) {
+        if (raw == null) return null;
+        try {
+            return new BigDecimal(raw.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Duration parseDuration(String key, BigDecimal amount) {
+        long whole = amount.longValue();
+        if (key.endsWith("_SECONDS")) return Duration.ofSeconds(whole);
+        if (key.endsWith("_MINUTES")) return Duration.ofMinutes(whole);
+        if (key.endsWith("_HOURS")) return Duration.ofHours(whole);
+        if (key.endsWith("_DAYS")) return Duration.ofDays(whole);
+        return null;
+    }
+}
@@ -0,0 +1,138 @@
+package com.mybank.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mybank.models.Account;
+
+/**
+ * Data Access Object for customer search.
+ * Maintains an FTS5 index over account name, phone, email and number so
+ * staff search is an index lookup instead of a LIKE scan of accounts.
+ */
+public class CustomerSearchDAO {
+
+    private static final int DEFAULT_LIMIT = 200;
+
+    // False when the SQLite build lacks FTS5; callers fall back to LIKE search
+    private static volatile boolean available = false;
+
+    /**
+     * Create the accounts_fts index and its sync triggers if they don't exist
+     */
+    public static void createIndex() {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) return;
+
+        try (Statement stmt = conn.createStatement()) {
+            boolean existed;
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'accounts_fts'")) {
+                existed = rs.next();
+            }
+
+            // External-content table: the text lives in accounts, only the index is stored here
+            stmt.execute("CREATE VIRTUAL TABLE IF NOT EXISTS accounts_fts USING fts5(" +
+                        "ownerName, phoneNumber, email, accountNumber, " +
+                        "content='accounts', content_rowid='accountNumber', prefix='2 3')");
+
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS accounts_fts_ai AFTER INSERT ON accounts BEGIN " +
+                        "INSERT INTO accounts_fts(rowid, ownerName, phoneNumber, email, accountNumber) " +
+                        "VALUES (new.accountNumber, new.ownerName, new.phoneNumber, new.email, new.accountNumber); END");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS accounts_fts_ad AFTER DELETE ON accounts BEGIN " +
+                        "INSERT INTO accounts_fts(accounts_fts, rowid, ownerName, phoneNumber, email, accountNumber) " +
+                        "VALUES ('delete', old.accountNumber, old.ownerName, old.phoneNumber, old.email, old.accountNumber); END");
+            // Only searchable columns re-index; balance updates never touch the index
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS accounts_fts_au " +
+                        "AFTER UPDATE OF ownerName, phoneNumber, email, accountNumber ON accounts BEGIN " +
+                        "INSERT INTO accounts_fts(accounts_fts, rowid, ownerName, phoneNumber, email, accountNumber) " +
+                        "VALUES ('delete', old.accountNumber, old.ownerName, old.phoneNumber, old.email, old.accountNumber); " +
+                        "INSERT INTO accounts_fts(rowid, ownerName, phoneNumber, email, accountNumber) " +
+                        "VALUES (new.accountNumber, new.ownerName, new.phoneNumber, new.email, new.accountNumber); END");
+
+            // Index rows that predate the index
+            if (!existed) {
+                stmt.execute("INSERT INTO accounts_fts(accounts_fts) VALUES ('rebuild')");
+            }
+
+            available = true;
+        } catch (SQLException e) {
+            System.err.println("Customer search index unavailable: " + e.getMessage());
+            available = false;
+        }
+    }
+
+    /**
+     * Check whether the full-text index can be used
+     */
+    public static boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Search accounts by prefix over name, phone, email and account number, best match first
+     * @param searchText Free text typed by staff; every word must match the start of a term
+     * @param status Account status to restrict to, or null/"All" for any
+     * @return Matching accounts, at most 200
+     */
+    public static List<Account> searchAccounts(String searchText, String status) {
+        return searchAccounts(searchText, status, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Search accounts by prefix over name, phone, email and account number, best match first
+     */
+    public static List<Account> searchAccounts(String searchText, String status, int limit) {
+        List<Account> accounts = new ArrayList<>();
+        String matchQuery = FullTextQuery.toPrefixMatch(searchText);
+        if (matchQuery == null) return accounts;
+
+        boolean filterStatus = status != null && !status.equals("All");
+        String sql = "SELECT a.* FROM accounts_fts f " +
+                    "JOIN accounts a ON a.accountNumber = f.rowid " +
+                    "WHERE accounts_fts MATCH ?" +
+                    (filterStatus ? " AND a.status = ?" : "") +
+                    " ORDER BY f.rank LIMIT ?";
+
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) return accounts;
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int paramIndex = 1;
+            pstmt.setString(paramIndex++, matchQuery);
+            if (filterStatus) {
+                pstmt.setString(paramIndex++, status);
+            }
+            pstmt.setInt(paramIndex, limit);
+
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                accounts.add(extractAccountFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error searching customers: " + e.getMessage());
+        }
+        return accounts;
+    }
+
+    /**
+     * Extract Account from ResultSet
+     */
+    private static Account extractAccountFromResultSet(ResultSet rs) throws SQLException {
+        Account account = new Account();
+        account.setAccountNumber(rs.getInt("accountNumber"));
+        account.setCustomerName(rs.getString("ownerName"));
+        account.setEmail(rs.getString("email"));
+        account.setPhoneNumber(rs.getString("phoneNumber"));
+        account.setAccountType(rs.getString("accountType"));
+        account.setBalance(rs.getDouble("balance"));
+        account.setAccountStatus(rs.getString("status"));
+        account.setCreatedDate(rs.getString("createdDate"));
+        return account;
+    }
+}
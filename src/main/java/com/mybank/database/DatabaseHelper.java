@@ -1,7 +1,12 @@
 package com.mybank.database;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
@@ -10,10 +15,21 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mybank.models.CredentialRecord;
+import com.mybank.models.Transaction;
+import com.mybank.utils.PasswordHasher;
 
 /**
  * DatabaseHelper - Manages all SQLite database operations
  * Provides methods for account and transaction management with authentication
+ *
+ * Only one process may use the database at a time: limit totals, fraud windows and
+ * login failures are kept in this process's memory and would not see postings made
+ * by another. Entry points call claimDatabase() before anything else and refuse to
+ * start when the desktop app or the API server already holds it.
  */
 public class DatabaseHelper {
     
@@ -21,6 +37,13 @@ public class DatabaseHelper {
     private static Connection sharedConnection;
     private static final Object connectionLock = new Object();
     
+    private static final Path PROCESS_LOCK_FILE = Paths.get("database", "mybank.lock");
+    private static FileLock processLock;
+    
+    private static final String INSERT_TRANSACTION_SQL =
+        "INSERT INTO transactions (accountNumber, type, amount, timestamp) VALUES (?, ?, ?, ?)";
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
     // Default password for new accounts (to be changed on first login)
     public static final String DEFAULT_PASSWORD = "bank@123";
     
@@ -47,6 +70,10 @@ public class DatabaseHelper {
                     createTables();
                     System.out.println("Database connected successfully with WAL mode!");
                 }
+                
+                // Load limit totals and fees the first time any helper is created
+                TransactionLimits.load(sharedConnection);
+                TransactionFees.load();
             }
         } catch (Exception e) {
             System.err.println("Database connection error: " + e.getMessage());
@@ -83,6 +110,42 @@ public class DatabaseHelper {
         ensureConnection();
         return sharedConnection;
     }
+
+    /**
+     * Gets the lock guarding the shared connection.
+     * Hold it while running a multi-statement transaction so postings from
+     * other threads don't land inside it.
+     * @return Lock object
+     */
+    public static Object getConnectionLock() {
+        return connectionLock;
+    }
+
+    /**
+     * Claims the database for this process with a lock on database/mybank.lock.
+     * The lock is released by the operating system when the process exits.
+     * @return true if this process holds the database, false if another one does
+     */
+    public static boolean claimDatabase() {
+        synchronized (connectionLock) {
+            if (processLock != null) return true;
+            try {
+                Files.createDirectories(PROCESS_LOCK_FILE.getParent());
+                FileChannel channel = FileChannel.open(PROCESS_LOCK_FILE,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock lock = channel.tryLock();
+                if (lock == null) {
+                    channel.close();
+                    return false;
+                }
+                processLock = lock;
+                return true;
+            } catch (IOException e) {
+                System.err.println("Error locking the database: " + e.getMessage());
+                return false;
+            }
+        }
+    }
     
     /**
      * Creates database tables if they don't exist
@@ -166,6 +229,9 @@ public class DatabaseHelper {
                 // Column already exists, ignore
             }
             
+            // Low-balance sweeps read accounts one type at a time
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_accounts_type_balance ON accounts(accountType, balance)");
+            
             // Create transactions table
             String transactionsTable = "CREATE TABLE IF NOT EXISTS transactions (" +
                     "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
@@ -176,6 +242,9 @@ public class DatabaseHelper {
                     "FOREIGN KEY (accountNumber) REFERENCES accounts(accountNumber))";
             stmt.execute(transactionsTable);
             
+            // Limit totals are rebuilt from the current month of the ledger at startup
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_transactions_timestamp ON transactions(timestamp)");
+            
             // Create notifications_log table
             String notificationsTable = "CREATE TABLE IF NOT EXISTS notifications_log (" +
                     "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
@@ -189,6 +258,7 @@ public class DatabaseHelper {
                     "eventDetails TEXT, " +
                     "FOREIGN KEY (accountNumber) REFERENCES accounts(accountNumber))";
             stmt.execute(notificationsTable);
+            AuditLogDAO.createNotificationSearchIndex();
             
             // Create loans table for loan account management
             String loansTable = "CREATE TABLE IF NOT EXISTS loans (" +
@@ -206,6 +276,72 @@ public class DatabaseHelper {
                     "FOREIGN KEY (accountNumber) REFERENCES accounts(accountNumber))";
             stmt.execute(loansTable);
             
+            // Loan servicing scans due loans by next due date
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_loans_next_due ON loans(nextDueDate)");
+            
+            // Create loan_schedule table: precomputed amortization schedule, one row per installment
+            String loanScheduleTable = "CREATE TABLE IF NOT EXISTS loan_schedule (" +
+                    "loanId INTEGER NOT NULL, " +
+                    "installmentNumber INTEGER NOT NULL, " +
+                    "dueDate DATE NOT NULL, " +
+                    "amount REAL NOT NULL, " +
+                    "principal REAL NOT NULL, " +
+                    "interest REAL NOT NULL, " +
+                    "balanceAfter REAL NOT NULL, " +
+                    "status TEXT NOT NULL DEFAULT 'DUE', " +
+                    "paidDate DATE, " +
+                    "PRIMARY KEY (loanId, installmentNumber), " +
+                    "FOREIGN KEY (loanId) REFERENCES loans(loanId))";
+            stmt.execute(loanScheduleTable);
+            
+            // Create interest_accruals table: one row per account per accrual date,
+            // so a rerun of the same date never credits an account twice
+            String interestAccrualsTable = "CREATE TABLE IF NOT EXISTS interest_accruals (" +
+                    "accountNumber INTEGER NOT NULL, " +
+                    "accrualDate DATE NOT NULL, " +
+                    "balance REAL NOT NULL, " +
+                    "rate REAL NOT NULL, " +
+                    "amount REAL NOT NULL, " +
+                    "postedTimestamp DATETIME DEFAULT CURRENT_TIMESTAMP, " +
+                    "PRIMARY KEY (accountNumber, accrualDate), " +
+                    "FOREIGN KEY (accountNumber) REFERENCES accounts(accountNumber))";
+            stmt.execute(interestAccrualsTable);
+            
+            // Create interest_accrual_runs table: progress checkpoint for each accrual date
+            String interestRunsTable = "CREATE TABLE IF NOT EXISTS interest_accrual_runs (" +
+                    "accrualDate DATE PRIMARY KEY, " +
+                    "status TEXT NOT NULL DEFAULT 'RUNNING', " +
+                    "lastAccountNumber INTEGER NOT NULL DEFAULT 0, " +
+                    "accountsProcessed INTEGER NOT NULL DEFAULT 0, " +
+                    "accountsCredited INTEGER NOT NULL DEFAULT 0, " +
+                    "totalInterest REAL NOT NULL DEFAULT 0, " +
+                    "startedTimestamp DATETIME DEFAULT CURRENT_TIMESTAMP, " +
+                    "finishedTimestamp DATETIME)";
+            stmt.execute(interestRunsTable);
+            
+            // Create low_balance_penalties table: one row per account per month,
+            // so a rerun of the same month never charges an account twice
+            String penaltiesTable = "CREATE TABLE IF NOT EXISTS low_balance_penalties (" +
+                    "accountNumber INTEGER NOT NULL, " +
+                    "penaltyMonth TEXT NOT NULL, " +
+                    "balance REAL NOT NULL, " +
+                    "minimumBalance REAL NOT NULL, " +
+                    "amount REAL NOT NULL, " +
+                    "postedTimestamp DATETIME DEFAULT CURRENT_TIMESTAMP, " +
+                    "PRIMARY KEY (accountNumber, penaltyMonth), " +
+                    "FOREIGN KEY (accountNumber) REFERENCES accounts(accountNumber))";
+            stmt.execute(penaltiesTable);
+            
+            // Create low_balance_penalty_runs table: one row per month swept
+            String penaltyRunsTable = "CREATE TABLE IF NOT EXISTS low_balance_penalty_runs (" +
+                    "penaltyMonth TEXT PRIMARY KEY, " +
+                    "status TEXT NOT NULL DEFAULT 'RUNNING', " +
+                    "accountsPenalized INTEGER NOT NULL DEFAULT 0, " +
+                    "totalPenalty REAL NOT NULL DEFAULT 0, " +
+                    "startedTimestamp DATETIME DEFAULT CURRENT_TIMESTAMP, " +
+                    "finishedTimestamp DATETIME)";
+            stmt.execute(penaltyRunsTable);
+            
             // Create staff table for bank staff management
             String staffTable = "CREATE TABLE IF NOT EXISTS staff (" +
                     "staffId INTEGER PRIMARY KEY AUTOINCREMENT, " +
@@ -252,9 +388,15 @@ public class DatabaseHelper {
                     "FOREIGN KEY (staffId) REFERENCES staff(staffId))";
             stmt.execute(staffActivityTable);
             
+            // Full-text index for staff customer search
+            CustomerSearchDAO.createIndex();
+            
             // Initialize Admin Module tables
             initializeAdminTables();
             
+            // Cheque module summary tables (the cheque schema itself ships as SQL scripts)
+            ChequeDAO.createTables();
+            
             stmt.close();
         } catch (SQLException e) {
             System.err.println("Error creating tables: " + e.getMessage());
@@ -276,25 +418,12 @@ public class DatabaseHelper {
     }
     
     /**
-     * Hashes a password using SHA-256
+     * Hashes a password with a fresh salt (PBKDF2, see PasswordHasher)
      * @param password The plain text password
-     * @return The hashed password
+     * @return The encoded hash
      */
     public static String hashPassword(String password) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(password.getBytes());
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            System.err.println("Error hashing password: " + e.getMessage());
-            return null;
-        }
+        return PasswordHasher.hash(password);
     }
     
     /**
@@ -304,87 +433,143 @@ public class DatabaseHelper {
      * @return true if authentication successful, false otherwise
      */
     public boolean authenticateLogin(int accountNumber, String password) {
-        Connection conn = getConnection();
-        if (conn == null) return false;
+        return authenticateLogin(accountNumber, password, null);
+    }
+    
+    /**
+     * Authenticates a user login, counting failures against the account and the source.
+     * Attempts refused by LoginThrottle never reach the database.
+     * @param accountNumber The account number
+     * @param password The plain text password
+     * @param source Remote address the attempt came from, or null for a desktop login
+     * @return true if authentication successful, false otherwise
+     */
+    public boolean authenticateLogin(int accountNumber, String password, String source) {
+        if (LoginThrottle.check(accountNumber, source) != null) {
+            return false;
+        }
         
-        String sql = "SELECT passwordHash, status, failedAttempts FROM accounts WHERE accountNumber = ?";
+        CredentialRecord record = getCredentialRecord(accountNumber);
+        return record != null && authenticate(record, password, source);
+    }
+    
+    /**
+     * Authenticates a desktop login against a record already read with getCredentialRecord
+     * @param record The account's credentials
+     * @param password The plain text password
+     * @return true if authentication successful, false otherwise
+     */
+    public boolean authenticate(CredentialRecord record, String password) {
+        return authenticate(record, password, null);
+    }
+    
+    /**
+     * Authenticates a login against a record already read with getCredentialRecord,
+     * without reading the account again. The only writes are blocking the account
+     * on its last allowed failure or replacing an outdated hash on success.
+     * The record is updated with the outcome: failed attempts, status, and whether
+     * the default password was used.
+     * @param record The account's credentials
+     * @param password The plain text password
+     * @param source Remote address the attempt came from, or null for a desktop login
+     * @return true if authentication successful, false otherwise
+     */
+    public boolean authenticate(CredentialRecord record, String password, String source) {
+        int accountNumber = record.getAccountNumber();
+        if (LoginThrottle.check(accountNumber, source) != null) {
+            return false;
+        }
         
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, accountNumber);
-            ResultSet rs = pstmt.executeQuery();
+        // Check if account is blocked, or is an old account without password
+        if (record.isBlocked() || !record.hasPassword()) {
+            return false;
+        }
+        
+        String storedHash = record.getPasswordHash();
+        if (PasswordHasher.verify(password, storedHash)) {
+            // Failed attempts are cleared in memory and saved with the next flush
+            LoginThrottle.recordSuccess(accountNumber, record.getFailedAttempts());
+            record.setFailedAttempts(0);
+            record.setUsingDefaultPassword(DEFAULT_PASSWORD.equals(password));
             
-            if (rs.next()) {
-                String storedHash = rs.getString("passwordHash");
-                String status = rs.getString("status");
-                
-                // Check if account is blocked
-                if ("BLOCKED".equals(status)) {
-                    return false;
-                }
-                
-                // Check if password hash is empty (old account without password)
-                if (storedHash == null || storedHash.isEmpty()) {
-                    return false;
-                }
-                
-                // Verify password
-                String inputHash = hashPassword(password);
-                if (storedHash.equals(inputHash)) {
-                    // Reset failed attempts on successful login
-                    resetFailedAttempts(accountNumber);
-                    return true;
-                } else {
-                    // Increment failed attempts
-                    incrementFailedAttempts(accountNumber);
-                    return false;
-                }
+            // Replace a legacy or outdated hash now that the password is known
+            if (PasswordHasher.needsRehash(storedHash)) {
+                updatePassword(accountNumber, password);
             }
-        } catch (SQLException e) {
-            System.err.println("Error authenticating login: " + e.getMessage());
+            return true;
         }
+        
+        // Only reaching MAX_LOGIN_ATTEMPTS writes straight away
+        if (LoginThrottle.recordFailure(accountNumber, source, record.getFailedAttempts())) {
+            blockAccount(accountNumber);
+            record.setStatus("BLOCKED");
+        }
+        record.setFailedAttempts(LoginThrottle.getFailures(accountNumber));
         return false;
     }
     
     /**
-     * Increments failed login attempts and blocks account if necessary
+     * Reads everything a login needs about an account in one query
      * @param accountNumber The account number
+     * @return The credentials, or null if the account doesn't exist
      */
-    private void incrementFailedAttempts(int accountNumber) {
+    public CredentialRecord getCredentialRecord(int accountNumber) {
+        return readCredentialRecord("accountNumber = ?", accountNumber);
+    }
+    
+    /**
+     * Reads everything a login needs about the account with a phone number in one query
+     * @param phoneNumber The phone number
+     * @return The credentials, or null if no account has that phone number
+     */
+    public CredentialRecord getCredentialRecordByPhone(String phoneNumber) {
+        if (phoneNumber == null) return null;
+        return readCredentialRecord("phoneNumber = ?", phoneNumber.trim());
+    }
+    
+    private CredentialRecord readCredentialRecord(String condition, Object value) {
         Connection conn = getConnection();
-        if (conn == null) return;
+        if (conn == null) return null;
         
-        String sql = "UPDATE accounts SET failedAttempts = failedAttempts + 1 WHERE accountNumber = ?";
-        String blockSql = "UPDATE accounts SET status = 'BLOCKED' WHERE accountNumber = ? AND failedAttempts >= 3";
+        String sql = "SELECT accountNumber, passwordHash, status, failedAttempts FROM accounts WHERE " + condition;
         
-        try (PreparedStatement pstmt = conn.prepareStatement(sql);
-             PreparedStatement blockStmt = conn.prepareStatement(blockSql)) {
-            
-            pstmt.setInt(1, accountNumber);
-            pstmt.executeUpdate();
-            
-            blockStmt.setInt(1, accountNumber);
-            blockStmt.executeUpdate();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setObject(1, value);
+            ResultSet rs = pstmt.executeQuery();
             
+            if (rs.next()) {
+                int accountNumber = rs.getInt("accountNumber");
+                // Failures not yet flushed are newer than the stored count
+                int failures = LoginThrottle.getFailures(accountNumber);
+                return new CredentialRecord(
+                    accountNumber,
+                    rs.getString("passwordHash"),
+                    rs.getString("status"),
+                    failures >= 0 ? failures : rs.getInt("failedAttempts")
+                );
+            }
         } catch (SQLException e) {
-            System.err.println("Error incrementing failed attempts: " + e.getMessage());
+            System.err.println("Error reading login credentials: " + e.getMessage());
         }
+        return null;
     }
     
     /**
-     * Resets failed login attempts on successful login
+     * Blocks an account that has reached MAX_LOGIN_ATTEMPTS failed logins
      * @param accountNumber The account number
      */
-    private void resetFailedAttempts(int accountNumber) {
+    private void blockAccount(int accountNumber) {
         Connection conn = getConnection();
         if (conn == null) return;
         
-        String sql = "UPDATE accounts SET failedAttempts = 0 WHERE accountNumber = ?";
+        String sql = "UPDATE accounts SET status = 'BLOCKED', failedAttempts = ? WHERE accountNumber = ?";
         
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, accountNumber);
+            pstmt.setInt(1, LoginThrottle.getMaxAttempts());
+            pstmt.setInt(2, accountNumber);
             pstmt.executeUpdate();
         } catch (SQLException e) {
-            System.err.println("Error resetting failed attempts: " + e.getMessage());
+            System.err.println("Error blocking account: " + e.getMessage());
         }
     }
     
@@ -418,6 +603,10 @@ public class DatabaseHelper {
      * @return Number of failed attempts
      */
     public int getFailedAttempts(int accountNumber) {
+        // Counts not yet flushed are only in memory
+        int tracked = LoginThrottle.getFailures(accountNumber);
+        if (tracked >= 0) return tracked;
+        
         Connection conn = getConnection();
         if (conn == null) return 0;
         
@@ -564,8 +753,7 @@ public class DatabaseHelper {
             
             if (rs.next()) {
                 String passwordHash = rs.getString("passwordHash");
-                String defaultHash = hashPassword(DEFAULT_PASSWORD);
-                return passwordHash != null && passwordHash.equals(defaultHash);
+                return PasswordHasher.verify(DEFAULT_PASSWORD, passwordHash);
             }
         } catch (SQLException e) {
             System.err.println("Error checking default password: " + e.getMessage());
@@ -581,16 +769,21 @@ public class DatabaseHelper {
      */
     public boolean updatePassword(int accountNumber, String newPassword) {
         String sql = "UPDATE accounts SET passwordHash = ? WHERE accountNumber = ?";
-        ensureConnection();
+        // Hash before taking the lock; it is the slow part and needs no connection
+        String passwordHash = hashPassword(newPassword);
         
-        try (PreparedStatement pstmt = sharedConnection.prepareStatement(sql)) {
-            pstmt.setString(1, hashPassword(newPassword));
-            pstmt.setInt(2, accountNumber);
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
-        } catch (SQLException e) {
-            System.err.println("Error updating password: " + e.getMessage());
-            return false;
+        synchronized (connectionLock) {
+            ensureConnection();
+            
+            try (PreparedStatement pstmt = sharedConnection.prepareStatement(sql)) {
+                pstmt.setString(1, passwordHash);
+                pstmt.setInt(2, accountNumber);
+                int rowsAffected = pstmt.executeUpdate();
+                return rowsAffected > 0;
+            } catch (SQLException e) {
+                System.err.println("Error updating password: " + e.getMessage());
+                return false;
+            }
         }
     }
     
@@ -612,6 +805,9 @@ public class DatabaseHelper {
      * @return true if successful, false otherwise
      */
     public boolean createAccount(int accountNumber, String ownerName, String password, double initialDeposit) {
+        // Hash before taking the lock; it is the slow part and needs no connection
+        String passwordHash = hashPassword(password);
+        
         synchronized (connectionLock) {
             ensureConnection();
             String sql = "INSERT INTO accounts (accountNumber, ownerName, passwordHash, balance, status, failedAttempts) VALUES (?, ?, ?, ?, 'ACTIVE', 0)";
@@ -619,7 +815,7 @@ public class DatabaseHelper {
             try (PreparedStatement pstmt = sharedConnection.prepareStatement(sql)) {
                 pstmt.setInt(1, accountNumber);
                 pstmt.setString(2, ownerName);
-                pstmt.setString(3, hashPassword(password));
+                pstmt.setString(3, passwordHash);
                 pstmt.setDouble(4, initialDeposit);
                 pstmt.executeUpdate();
                 
@@ -681,6 +877,9 @@ public class DatabaseHelper {
     public static boolean createAccount(String ownerName, String password, double initialDeposit,
                                        String email, String phoneNumber, boolean smsEnabled,
                                        boolean emailEnabled, String accountType) {
+        // Hash before taking the lock; it is the slow part and needs no connection
+        String passwordHash = hashPassword(password);
+        
         synchronized (connectionLock) {
             try {
                 ensureConnection();
@@ -695,7 +894,7 @@ public class DatabaseHelper {
                 try (PreparedStatement pstmt = sharedConnection.prepareStatement(sql)) {
                     pstmt.setInt(1, newAccountNumber);
                     pstmt.setString(2, ownerName);
-                    pstmt.setString(3, hashPassword(password));
+                    pstmt.setString(3, passwordHash);
                     pstmt.setDouble(4, initialDeposit);
                     pstmt.setString(5, email);
                     pstmt.setString(6, phoneNumber);
@@ -724,8 +923,9 @@ public class DatabaseHelper {
     
     /**
      * Create a new bank account using provided connection (for transactions)
+     * @param passwordHash Hash from hashPassword(), computed before the transaction was opened
      */
-    public static int createAccountWithConnection(Connection conn, String ownerName, String password, 
+    public static int createAccountWithConnection(Connection conn, String ownerName, String passwordHash, 
                                                   double initialDeposit, String email, String phoneNumber, 
                                                   boolean smsEnabled, boolean emailEnabled, String accountType,
                                                   String profilePicturePath) throws SQLException {
@@ -740,7 +940,7 @@ public class DatabaseHelper {
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, newAccountNumber);
             pstmt.setString(2, ownerName);
-            pstmt.setString(3, hashPassword(password));
+            pstmt.setString(3, passwordHash);
             pstmt.setDouble(4, initialDeposit);
             pstmt.setString(5, email);
             pstmt.setString(6, phoneNumber);
@@ -825,6 +1025,33 @@ public class DatabaseHelper {
         }
     }
     
+    /**
+     * Checks if any account, account request, staff member or admin uses a profile picture.
+     * Pictures are stored by content, so one file can belong to several of them.
+     * @param profilePicturePath Path to profile picture
+     * @return true if still used, or if it couldn't be checked
+     */
+    public static boolean isProfilePictureInUse(String profilePicturePath) {
+        String sql = "SELECT 1 FROM accounts WHERE profilePicturePath = ? " +
+                     "UNION ALL SELECT 1 FROM account_requests WHERE profilePicturePath = ? " +
+                     "UNION ALL SELECT 1 FROM staff WHERE profilePicturePath = ? " +
+                     "UNION ALL SELECT 1 FROM admins WHERE profile_picture_path = ? LIMIT 1";
+        ensureConnection();
+        
+        synchronized (connectionLock) {
+            try (PreparedStatement pstmt = sharedConnection.prepareStatement(sql)) {
+                for (int i = 1; i <= 4; i++) {
+                    pstmt.setString(i, profilePicturePath);
+                }
+                ResultSet rs = pstmt.executeQuery();
+                return rs.next();
+            } catch (SQLException e) {
+                System.err.println("Error checking profile picture use: " + e.getMessage());
+                return true;
+            }
+        }
+    }
+    
     /**
      * Gets the current balance of an account
      * @param accountNumber The account number
@@ -891,6 +1118,7 @@ public class DatabaseHelper {
                 
                 // Record transaction
                 recordTransaction(accountNumber, "Deposit", amount);
+                FraudMonitor.onDeposit(accountNumber, amount);
                 
                 return true;
             } catch (SQLException e) {
@@ -902,6 +1130,7 @@ public class DatabaseHelper {
     
     /**
      * Withdraws money from an account
+     * The WITHDRAWAL_FEE is debited and recorded in the same transaction
      * @param accountNumber The account number
      * @param amount The amount to withdraw
      * @return true if successful, false otherwise
@@ -912,24 +1141,53 @@ public class DatabaseHelper {
                 return false;
             }
             
+            double fee = TransactionFees.getWithdrawalFee();
             double currentBalance = getBalance(accountNumber);
-            if (currentBalance < amount) {
-                return false; // Insufficient balance
+            if (currentBalance < amount + fee) {
+                return false; // Insufficient balance for the amount and fee
             }
             
-            ensureConnection();
-            String sql = "UPDATE accounts SET balance = balance - ? WHERE accountNumber = ?";
+            if (TransactionLimits.checkWithdrawal(accountNumber, amount) != null) {
+                return false; // Over the daily or monthly limit
+            }
             
-            try (PreparedStatement pstmt = sharedConnection.prepareStatement(sql)) {
-                pstmt.setDouble(1, amount);
-                pstmt.setInt(2, accountNumber);
-                pstmt.executeUpdate();
+            ensureConnection();
+            try {
+                // Start transaction
+                sharedConnection.setAutoCommit(false);
                 
-                // Record transaction
-                recordTransaction(accountNumber, "Withdraw", amount);
+                // Deduct the amount and fee together
+                String sql = "UPDATE accounts SET balance = balance - ? WHERE accountNumber = ?";
+                try (PreparedStatement pstmt = sharedConnection.prepareStatement(sql)) {
+                    pstmt.setDouble(1, amount + fee);
+                    pstmt.setInt(2, accountNumber);
+                    pstmt.executeUpdate();
+                }
+                
+                // Record the withdrawal and its fee in one batch
+                try (PreparedStatement pstmt = sharedConnection.prepareStatement(INSERT_TRANSACTION_SQL)) {
+                    String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
+                    addTransaction(pstmt, accountNumber, "Withdraw", amount, timestamp);
+                    if (fee > 0) {
+                        addTransaction(pstmt, accountNumber, TransactionFees.WITHDRAWAL_FEE_TYPE, fee, timestamp);
+                    }
+                    pstmt.executeBatch();
+                }
+                
+                // Commit transaction
+                sharedConnection.commit();
+                sharedConnection.setAutoCommit(true);
+                TransactionLimits.recordWithdrawal(accountNumber, amount);
+                FraudMonitor.onWithdrawal(accountNumber, amount);
                 
                 return true;
             } catch (SQLException e) {
+                try {
+                    sharedConnection.rollback();
+                    sharedConnection.setAutoCommit(true);
+                } catch (SQLException ex) {
+                    System.err.println("Rollback error: " + ex.getMessage());
+                }
                 System.err.println("Error withdrawing money: " + e.getMessage());
                 return false;
             }
@@ -938,6 +1196,7 @@ public class DatabaseHelper {
     
     /**
      * Transfers money between two accounts
+     * The sender also pays the TRANSFER_FEE, debited and recorded in the same transaction
      * @param fromAccount The sender's account number
      * @param toAccount The receiver's account number
      * @param amount The amount to transfer
@@ -953,9 +1212,14 @@ public class DatabaseHelper {
                 return false; // Cannot transfer to same account
             }
             
+            double fee = TransactionFees.getTransferFee();
             double senderBalance = getBalance(fromAccount);
-            if (senderBalance < amount) {
-                return false; // Insufficient balance
+            if (senderBalance < amount + fee) {
+                return false; // Insufficient balance for the amount and fee
+            }
+            
+            if (TransactionLimits.checkTransfer(fromAccount, amount) != null) {
+                return false; // Over the daily or monthly limit
             }
             
             ensureConnection();
@@ -963,10 +1227,10 @@ public class DatabaseHelper {
                 // Start transaction
                 sharedConnection.setAutoCommit(false);
             
-            // Deduct from sender
+            // Deduct amount and fee from sender
             String deductSql = "UPDATE accounts SET balance = balance - ? WHERE accountNumber = ?";
             try (PreparedStatement pstmt = sharedConnection.prepareStatement(deductSql)) {
-                pstmt.setDouble(1, amount);
+                pstmt.setDouble(1, amount + fee);
                 pstmt.setInt(2, fromAccount);
                 pstmt.executeUpdate();
             }
@@ -979,13 +1243,22 @@ public class DatabaseHelper {
                 pstmt.executeUpdate();
             }
             
-            // Record transactions
-            recordTransaction(fromAccount, "Transfer Out to " + toAccount, amount);
-            recordTransaction(toAccount, "Transfer In from " + fromAccount, amount);
+            // Record both sides and the fee in one batch
+            try (PreparedStatement pstmt = sharedConnection.prepareStatement(INSERT_TRANSACTION_SQL)) {
+                String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
+                addTransaction(pstmt, fromAccount, "Transfer Out to " + toAccount, amount, timestamp);
+                addTransaction(pstmt, toAccount, "Transfer In from " + fromAccount, amount, timestamp);
+                if (fee > 0) {
+                    addTransaction(pstmt, fromAccount, TransactionFees.TRANSFER_FEE_TYPE, fee, timestamp);
+                }
+                pstmt.executeBatch();
+            }
             
             // Commit transaction
             sharedConnection.commit();
             sharedConnection.setAutoCommit(true);
+            TransactionLimits.recordTransfer(fromAccount, amount);
+            FraudMonitor.onTransfer(fromAccount, toAccount, amount);
             
             return true;
         } catch (SQLException e) {
@@ -1001,6 +1274,18 @@ public class DatabaseHelper {
         }
     }
     
+    /**
+     * Adds a transaction row to a batch on INSERT_TRANSACTION_SQL
+     */
+    private static void addTransaction(PreparedStatement pstmt, int accountNumber, String type,
+                                       double amount, String timestamp) throws SQLException {
+        pstmt.setInt(1, accountNumber);
+        pstmt.setString(2, type);
+        pstmt.setDouble(3, amount);
+        pstmt.setString(4, timestamp);
+        pstmt.addBatch();
+    }
+    
     /**
      * Records a transaction in the database
      * @param accountNumber The account number
@@ -1048,6 +1333,41 @@ public class DatabaseHelper {
         }
     }
     
+    /**
+     * Gets the most recent transactions of an account, newest first.
+     * Read into a list under the connection lock, so it is safe from any thread.
+     * @param accountNumber The account number
+     * @param limit Most transactions to return
+     * @return The transactions, empty on error
+     */
+    public List<Transaction> getTransactions(int accountNumber, int limit) {
+        List<Transaction> transactions = new ArrayList<>();
+        String sql = "SELECT id, accountNumber, type, amount, timestamp FROM transactions " +
+                    "WHERE accountNumber = ? ORDER BY id DESC LIMIT ?";
+        
+        synchronized (connectionLock) {
+            ensureConnection();
+            try (PreparedStatement pstmt = sharedConnection.prepareStatement(sql)) {
+                pstmt.setInt(1, accountNumber);
+                pstmt.setInt(2, limit);
+                ResultSet rs = pstmt.executeQuery();
+                
+                while (rs.next()) {
+                    transactions.add(new Transaction(
+                        rs.getInt("id"),
+                        rs.getInt("accountNumber"),
+                        rs.getString("type"),
+                        rs.getDouble("amount"),
+                        rs.getString("timestamp")
+                    ));
+                }
+            } catch (SQLException e) {
+                System.err.println("Error getting transactions: " + e.getMessage());
+            }
+        }
+        return transactions;
+    }
+    
     /**
      * Closes the database connection
      */
@@ -0,0 +1,263 @@
+package com.mybank.database;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.mybank.models.FraudAlert;
+import com.mybank.utils.TimeRing;
+
+/**
+ * Fraud Monitor
+ * Streaming rules over every posting DatabaseHelper commits. Each account keeps a
+ * small sliding window of its own activity, so a posting is checked in memory
+ * without querying the ledger:
+ *   VELOCITY     - more than FRAUD_MAX_TRANSFERS outgoing transfers in FRAUD_VELOCITY_WINDOW_MINUTES
+ *   FAN_IN       - the same count of incoming transfers, for accounts collecting from many senders
+ *   AMOUNT_SPIKE - an amount over FRAUD_SPIKE_FACTOR times the account's rolling mean
+ *   FAN_OUT      - more than FRAUD_MAX_NEW_COUNTERPARTIES new payees in FRAUD_FAN_OUT_WINDOW_MINUTES
+ *
+ * Memory is bounded: at most MAX_TRACKED_ACCOUNTS windows are kept (least recently
+ * active dropped first) and each window has a fixed size. Alerts wait in a bounded
+ * queue for FraudAlertService to write them to the audit log.
+ */
+public class FraudMonitor {
+
+    public static final String RULE_VELOCITY = "VELOCITY";
+    public static final String RULE_FAN_IN = "FAN_IN";
+    public static final String RULE_AMOUNT_SPIKE = "AMOUNT_SPIKE";
+    public static final String RULE_FAN_OUT = "FAN_OUT";
+
+    private static final int MAX_TRACKED_ACCOUNTS = 20000;
+    private static final int KNOWN_COUNTERPARTIES = 32;
+    private static final int RECENT_ALERTS = 200;
+    private static final int MAX_PENDING_ALERTS = 1000;
+
+    // Weight of the newest amount in the rolling mean once an account has some history
+    private static final double MEAN_WEIGHT = 0.1;
+
+    /**
+     * Rule thresholds, read from the config registry
+     */
+    private static final class Rules {
+        int maxTransfers;
+        long velocityWindowMillis;
+        double spikeFactor;
+        int spikeMinHistory;
+        int maxNewCounterparties;
+        long fanOutWindowMillis;
+    }
+
+    /**
+     * Sliding-window state for one account
+     */
+    private static final class AccountWindow {
+        final TimeRing outgoing = new TimeRing();
+        final TimeRing incoming = new TimeRing();
+        final TimeRing newCounterparties = new TimeRing();
+        final int[] counterparties = new int[KNOWN_COUNTERPARTIES];
+        int counterpartyCount;
+        int counterpartyNext;
+        double debitMean;
+        int debitCount;
+        double creditMean;
+        int creditCount;
+        final long[] lastAlert = new long[4];
+
+        boolean knowsCounterparty(int accountNumber) {
+            for (int i = 0; i < counterpartyCount; i++) {
+                if (counterparties[i] == accountNumber) return true;
+            }
+            return false;
+        }
+
+        void addCounterparty(int accountNumber) {
+            counterparties[counterpartyNext] = accountNumber;
+            counterpartyNext = (counterpartyNext + 1) % KNOWN_COUNTERPARTIES;
+            if (counterpartyCount < KNOWN_COUNTERPARTIES) counterpartyCount++;
+        }
+    }
+
+    private static final Object lock = new Object();
+
+    private static final Map<Integer, AccountWindow> windows =
+        new LinkedHashMap<Integer, AccountWindow>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, AccountWindow> eldest) {
+                return size() > MAX_TRACKED_ACCOUNTS;
+            }
+        };
+
+    private static final ArrayDeque<FraudAlert> recentAlerts = new ArrayDeque<>();
+    private static final ArrayDeque<FraudAlert> pendingAlerts = new ArrayDeque<>();
+    private static long alertSequence;
+
+    private static volatile Rules rules;
+    private static final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * Feed a committed deposit
+     */
+    public static void onDeposit(int accountNumber, double amount) {
+        Rules r = rules();
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            AccountWindow window = window(accountNumber);
+            checkCreditSpike(r, window, accountNumber, amount, now);
+        }
+    }
+
+    /**
+     * Feed a committed withdrawal
+     */
+    public static void onWithdrawal(int accountNumber, double amount) {
+        Rules r = rules();
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            AccountWindow window = window(accountNumber);
+            checkDebitSpike(r, window, accountNumber, amount, now);
+        }
+    }
+
+    /**
+     * Feed a committed transfer; both the sender and the receiver are checked
+     */
+    public static void onTransfer(int fromAccount, int toAccount, double amount) {
+        Rules r = rules();
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            AccountWindow sender = window(fromAccount);
+            if (sender.outgoing.add(now, r.maxTransfers, r.velocityWindowMillis)) {
+                raise(r, sender, fromAccount, 0, RULE_VELOCITY, now, String.format(
+                    "More than %d outgoing transfers within %d minutes",
+                    r.maxTransfers, r.velocityWindowMillis / 60000));
+            }
+            if (!sender.knowsCounterparty(toAccount)) {
+                sender.addCounterparty(toAccount);
+                if (sender.newCounterparties.add(now, r.maxNewCounterparties, r.fanOutWindowMillis)) {
+                    raise(r, sender, fromAccount, 3, RULE_FAN_OUT, now, String.format(
+                        "Paid more than %d new accounts within %d minutes (latest %d)",
+                        r.maxNewCounterparties, r.fanOutWindowMillis / 60000, toAccount));
+                }
+            }
+            checkDebitSpike(r, sender, fromAccount, amount, now);
+
+            AccountWindow receiver = window(toAccount);
+            if (receiver.incoming.add(now, r.maxTransfers, r.velocityWindowMillis)) {
+                raise(r, receiver, toAccount, 1, RULE_FAN_IN, now, String.format(
+                    "More than %d incoming transfers within %d minutes (latest from %d)",
+                    r.maxTransfers, r.velocityWindowMillis / 60000, fromAccount));
+            }
+            checkCreditSpike(r, receiver, toAccount, amount, now);
+        }
+    }
+
+    /**
+     * Get the alerts raised after a given sequence number, oldest first.
+     * Only the last RECENT_ALERTS alerts are kept.
+     * @param afterSequence Sequence of the last alert already seen, or 0 for all
+     */
+    public static List<FraudAlert> getAlertsAfter(long afterSequence) {
+        List<FraudAlert> alerts = new ArrayList<>();
+        synchronized (lock) {
+            for (FraudAlert alert : recentAlerts) {
+                if (alert.getSequence() > afterSequence) {
+                    alerts.add(alert);
+                }
+            }
+        }
+        return alerts;
+    }
+
+    /**
+     * Take the alerts not yet written to the audit log
+     */
+    public static List<FraudAlert> drainPendingAlerts() {
+        synchronized (lock) {
+            List<FraudAlert> alerts = new ArrayList<>(pendingAlerts);
+            pendingAlerts.clear();
+            return alerts;
+        }
+    }
+
+    private static void checkDebitSpike(Rules r, AccountWindow window, int accountNumber, double amount, long now) {
+        if (window.debitCount >= r.spikeMinHistory && amount > r.spikeFactor * window.debitMean) {
+            raise(r, window, accountNumber, 2, RULE_AMOUNT_SPIKE, now, String.format(
+                "Debit of %.2f TAKA is %.1fx the usual %.2f TAKA",
+                amount, amount / window.debitMean, window.debitMean));
+        }
+        window.debitCount++;
+        window.debitMean += (amount - window.debitMean) * Math.max(MEAN_WEIGHT, 1.0 / window.debitCount);
+    }
+
+    private static void checkCreditSpike(Rules r, AccountWindow window, int accountNumber, double amount, long now) {
+        if (window.creditCount >= r.spikeMinHistory && amount > r.spikeFactor * window.creditMean) {
+            raise(r, window, accountNumber, 2, RULE_AMOUNT_SPIKE, now, String.format(
+                "Credit of %.2f TAKA is %.1fx the usual %.2f TAKA",
+                amount, amount / window.creditMean, window.creditMean));
+        }
+        window.creditCount++;
+        window.creditMean += (amount - window.creditMean) * Math.max(MEAN_WEIGHT, 1.0 / window.creditCount);
+    }
+
+    // Raise an alert unless the same rule fired for this account within the velocity window
+    private static void raise(Rules r, AccountWindow window, int accountNumber, int ruleIndex,
+                              String rule, long now, String details) {
+        if (window.lastAlert[ruleIndex] != 0 && now - window.lastAlert[ruleIndex] < r.velocityWindowMillis) {
+            return;
+        }
+        window.lastAlert[ruleIndex] = now;
+
+        FraudAlert alert = new FraudAlert(++alertSequence, accountNumber, rule, details);
+        recentAlerts.addLast(alert);
+        if (recentAlerts.size() > RECENT_ALERTS) recentAlerts.removeFirst();
+        pendingAlerts.addLast(alert);
+        if (pendingAlerts.size() > MAX_PENDING_ALERTS) pendingAlerts.removeFirst();
+    }
+
+    private static AccountWindow window(int accountNumber) {
+        AccountWindow window = windows.get(accountNumber);
+        if (window == null) {
+            window = new AccountWindow();
+            windows.put(accountNumber, window);
+        }
+        return window;
+    }
+
+    // Loaded on first use rather than in a static initializer, since loading takes the connection lock
+    private static Rules rules() {
+        Rules r = rules;
+        if (r == null) {
+            r = loadRules();
+            rules = r;
+            if (subscribed.compareAndSet(false, true)) {
+                ConfigRegistry.subscribe(changedKeys -> {
+                    for (String key : changedKeys) {
+                        if (key.startsWith("FRAUD_")) {
+                            rules = loadRules();
+                            return;
+                        }
+                    }
+                });
+            }
+        }
+        return r;
+    }
+
+    private static Rules loadRules() {
+        Rules r = new Rules();
+        r.maxTransfers = Math.max(1, ConfigRegistry.getInt("FRAUD_MAX_TRANSFERS", 5));
+        r.velocityWindowMillis = ConfigRegistry.getDuration("FRAUD_VELOCITY_WINDOW_MINUTES",
+                                                            Duration.ofMinutes(10)).toMillis();
+        r.spikeFactor = Math.max(1, ConfigRegistry.getDouble("FRAUD_SPIKE_FACTOR", 5));
+        r.spikeMinHistory = Math.max(1, ConfigRegistry.getInt("FRAUD_SPIKE_MIN_HISTORY", 5));
+        r.maxNewCounterparties = Math.max(1, ConfigRegistry.getInt("FRAUD_MAX_NEW_COUNTERPARTIES", 3));
+        r.fanOutWindowMillis = ConfigRegistry.getDuration("FRAUD_FAN_OUT_WINDOW_MINUTES",
+                                                          Duration.ofMinutes(60)).toMillis();
+        return r;
+    }
+}
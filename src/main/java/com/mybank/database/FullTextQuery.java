@@ -0,0 +1,28 @@
+package com.mybank.database;
+
+/**
+ * Builds FTS5 MATCH expressions from free text typed into search boxes.
+ */
+final class FullTextQuery {
+
+    private FullTextQuery() {
+    }
+
+    /**
+     * Turn free text into an FTS5 query: each word becomes a quoted prefix term, all required.
+     * Punctuation (as in emails and phone numbers) separates words, matching the tokenizer.
+     * @param searchText The text typed by the user
+     * @return The MATCH expression, or null if the text has no searchable words
+     */
+    static String toPrefixMatch(String searchText) {
+        if (searchText == null) return null;
+
+        StringBuilder query = new StringBuilder();
+        for (String token : searchText.split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty()) continue;
+            if (query.length() > 0) query.append(' ');
+            query.append('"').append(token).append("\"*");
+        }
+        return query.length() > 0 ? query.toString() : null;
+    }
+}
@@ -0,0 +1,248 @@
+package com.mybank.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.mybank.utils.TimeRing;
+
+/**
+ * Login Throttle
+ * Tracks failed logins in memory, per customer account and per source, over a
+ * sliding LOGIN_FAILURE_WINDOW_MINUTES window. An account is blocked once it
+ * reaches MAX_LOGIN_ATTEMPTS failures; a source is refused for the rest of the
+ * window once it reaches LOGIN_SOURCE_MAX_FAILURES across all accounts.
+ *
+ * The source is the caller's remote address, so the per-source rule only applies
+ * where one is known (the HTTP API, which also counts failed staff sign-ins against
+ * it with recordSourceFailure). Desktop logins pass no source: every customer
+ * at a terminal shares it, and limiting it would let a few wrong passwords lock
+ * everyone out of that terminal. They are limited per account only.
+ *
+ * A refused attempt costs no database access. Failure counts are written to
+ * accounts.failedAttempts in one batch by flush(); only the BLOCKED status is
+ * written straight away, so staff see the lockout at once.
+ */
+public class LoginThrottle {
+
+    public static final String MAX_LOGIN_ATTEMPTS = "MAX_LOGIN_ATTEMPTS";
+
+    private static final int MAX_TRACKED = 20000;
+
+    /**
+     * Failures for one account, seeded from the stored count when first seen
+     */
+    private static final class AccountState {
+        final TimeRing failures = new TimeRing();
+        boolean blocked;
+    }
+
+    private static final Object lock = new Object();
+
+    private static final Map<Integer, AccountState> accounts =
+        new LinkedHashMap<Integer, AccountState>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, AccountState> eldest) {
+                return size() > MAX_TRACKED;
+            }
+        };
+
+    private static final Map<String, TimeRing> sources =
+        new LinkedHashMap<String, TimeRing>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TimeRing> eldest) {
+                return size() > MAX_TRACKED;
+            }
+        };
+
+    // Failure counts not yet written to accounts.failedAttempts
+    private static final Map<Integer, Integer> unsaved = new HashMap<>();
+
+    /**
+     * Get the number of failures that blocks an account
+     */
+    public static int getMaxAttempts() {
+        return Math.max(1, ConfigRegistry.getInt(MAX_LOGIN_ATTEMPTS, 3));
+    }
+
+    /**
+     * Check whether a desktop login may be attempted at all, before the password is read
+     * @return null if allowed, otherwise the reason it is refused
+     */
+    public static String check(int accountNumber) {
+        return check(accountNumber, null);
+    }
+
+    /**
+     * Check whether a login may be attempted at all, before the password is read
+     * @param source Remote address, or null if there is none
+     * @return null if allowed, otherwise the reason it is refused
+     */
+    public static String check(int accountNumber, String source) {
+        synchronized (lock) {
+            AccountState state = accounts.get(accountNumber);
+            if (state != null && state.blocked) {
+                return "Account is blocked after too many failed login attempts";
+            }
+        }
+        return source != null ? checkSource(source) : null;
+    }
+
+    /**
+     * Check whether a remote address may attempt a login, e.g. a staff sign-in over the API
+     * @param source Remote address
+     * @return null if allowed, otherwise the reason it is refused
+     */
+    public static String checkSource(String source) {
+        long now = System.currentTimeMillis();
+        long window = windowMillis();
+        int sourceMax = sourceMaxFailures();
+        synchronized (lock) {
+            TimeRing sourceFailures = sources.get(source);
+            if (sourceFailures != null && sourceFailures.count(now, window) >= sourceMax) {
+                return String.format("Too many failed logins from this device. Try again in %d minutes.",
+                                    Math.max(1, window / 60000));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Count a failed login against a remote address only, for sign-ins that have no
+     * customer account behind them (staff over the API)
+     * @param source Remote address
+     */
+    public static void recordSourceFailure(String source) {
+        long now = System.currentTimeMillis();
+        long window = windowMillis();
+        int sourceMax = sourceMaxFailures();
+        synchronized (lock) {
+            addSourceFailure(source, now, sourceMax, window);
+        }
+    }
+
+    /**
+     * Count a failed login
+     * @param source Remote address, or null if there is none
+     * @param storedFailures accounts.failedAttempts as read for this login, used the first time the account is seen
+     * @return true if the account has now reached MAX_LOGIN_ATTEMPTS and must be blocked
+     */
+    static boolean recordFailure(int accountNumber, String source, int storedFailures) {
+        long now = System.currentTimeMillis();
+        long window = windowMillis();
+        int max = getMaxAttempts();
+        int sourceMax = sourceMaxFailures();
+        synchronized (lock) {
+            if (source != null) {
+                addSourceFailure(source, now, sourceMax, window);
+            }
+
+            AccountState state = accounts.get(accountNumber);
+            if (state == null) {
+                state = new AccountState();
+                accounts.put(accountNumber, state);
+                for (int i = 0; i < Math.min(storedFailures, max - 1); i++) {
+                    state.failures.add(now, max - 1, window);
+                }
+            }
+            state.blocked = state.failures.add(now, max - 1, window);
+            unsaved.put(accountNumber, state.failures.count(now, window));
+            return state.blocked;
+        }
+    }
+
+    /**
+     * Clear an account's failures after a successful login
+     * @param storedFailures accounts.failedAttempts as read for this login
+     */
+    static void recordSuccess(int accountNumber, int storedFailures) {
+        synchronized (lock) {
+            // Kept with no failures so the stored count is not read back before the flush
+            AccountState previous = accounts.put(accountNumber, new AccountState());
+            if (storedFailures > 0 || previous != null) {
+                unsaved.put(accountNumber, 0);
+            }
+        }
+    }
+
+    /**
+     * Get an account's failures within the window
+     * @return The count, or -1 if the account isn't tracked
+     */
+    public static int getFailures(int accountNumber) {
+        long now = System.currentTimeMillis();
+        long window = windowMillis();
+        int max = getMaxAttempts();
+        synchronized (lock) {
+            AccountState state = accounts.get(accountNumber);
+            if (state == null) return -1;
+            return state.blocked ? max : state.failures.count(now, window);
+        }
+    }
+
+    /**
+     * Forget an account's failures, e.g. after staff unblock it
+     */
+    public static void reset(int accountNumber) {
+        synchronized (lock) {
+            accounts.remove(accountNumber);
+            unsaved.remove(accountNumber);
+        }
+    }
+
+    /**
+     * Write the failure counts changed since the last flush in one batch
+     * @param conn Open connection
+     * @return Number of accounts written
+     */
+    public static int flush(Connection conn) {
+        Map<Integer, Integer> batch;
+        synchronized (lock) {
+            if (unsaved.isEmpty()) return 0;
+            batch = new HashMap<>(unsaved);
+            unsaved.clear();
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "UPDATE accounts SET failedAttempts = ? WHERE accountNumber = ?")) {
+            for (Map.Entry<Integer, Integer> entry : batch.entrySet()) {
+                pstmt.setInt(1, entry.getValue());
+                pstmt.setInt(2, entry.getKey());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            return batch.size();
+        } catch (SQLException e) {
+            System.err.println("Error saving failed login counts: " + e.getMessage());
+            // Keep them for the next flush unless newer counts have arrived
+            synchronized (lock) {
+                for (Map.Entry<Integer, Integer> entry : batch.entrySet()) {
+                    unsaved.putIfAbsent(entry.getKey(), entry.getValue());
+                }
+            }
+            return 0;
+        }
+    }
+
+    // Callers hold lock
+    private static void addSourceFailure(String source, long now, int sourceMax, long window) {
+        TimeRing sourceFailures = sources.get(source);
+        if (sourceFailures == null) {
+            sourceFailures = new TimeRing();
+            sources.put(source, sourceFailures);
+        }
+        sourceFailures.add(now, sourceMax - 1, window);
+    }
+
+    private static long windowMillis() {
+        return ConfigRegistry.getDuration("LOGIN_FAILURE_WINDOW_MINUTES", Duration.ofMinutes(15)).toMillis();
+    }
+
+    private static int sourceMaxFailures() {
+        return Math.max(1, ConfigRegistry.getInt("LOGIN_SOURCE_MAX_FAILURES", 20));
+    }
+}
@@ -0,0 +1,68 @@
+package com.mybank.database;
+
+/**
+ * Transaction Fees
+ * Holds WITHDRAWAL_FEE and TRANSFER_FEE for DatabaseHelper, which posts the fee in
+ * the same transaction and batch as the withdrawal or transfer it belongs to.
+ * Values come from ConfigRegistry and are updated when an admin edits them.
+ */
+public class TransactionFees {
+
+    public static final String WITHDRAWAL_FEE = "WITHDRAWAL_FEE";
+    public static final String TRANSFER_FEE = "TRANSFER_FEE";
+
+    public static final String WITHDRAWAL_FEE_TYPE = "Withdrawal Fee";
+    public static final String TRANSFER_FEE_TYPE = "Transfer Fee";
+
+    private static volatile double withdrawalFee = 10;
+    private static volatile double transferFee = 5;
+    private static volatile boolean loaded;
+
+    /**
+     * Check whether a config key is one of the fees kept here
+     */
+    public static boolean isFeeKey(String key) {
+        return WITHDRAWAL_FEE.equals(key) || TRANSFER_FEE.equals(key);
+    }
+
+    /**
+     * Read the fees the first time they are needed and follow later edits
+     */
+    static void load() {
+        if (loaded) return;
+        loaded = true;
+        reloadFees();
+        ConfigRegistry.subscribe(changedKeys -> {
+            if (changedKeys.contains(WITHDRAWAL_FEE) || changedKeys.contains(TRANSFER_FEE)) {
+                reloadFees();
+            }
+        });
+    }
+
+    /**
+     * Re-read the fee values from the config registry
+     */
+    public static void reloadFees() {
+        withdrawalFee = readFee(WITHDRAWAL_FEE, withdrawalFee);
+        transferFee = readFee(TRANSFER_FEE, transferFee);
+    }
+
+    /**
+     * Get the fee charged on each withdrawal
+     */
+    public static double getWithdrawalFee() {
+        return withdrawalFee;
+    }
+
+    /**
+     * Get the fee charged to the sender of each transfer
+     */
+    public static double getTransferFee() {
+        return transferFee;
+    }
+
+    private static double readFee(String key, double current) {
+        double fee = ConfigRegistry.getDouble(key, current);
+        return fee >= 0 ? fee : current;
+    }
+}
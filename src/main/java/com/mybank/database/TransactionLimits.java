@@ -0,0 +1,210 @@
+package com.mybank.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+
+import com.mybank.utils.IntDoubleMap;
+
+/**
+ * Transaction Limits
+ * Enforces DAILY_WITHDRAWAL_LIMIT, DAILY_TRANSFER_LIMIT and MONTHLY_TRANSACTION_LIMIT.
+ * Each account's withdrawals and outgoing transfers for the current day and month
+ * are kept in memory, rebuilt from the transactions ledger once at startup and
+ * updated by DatabaseHelper as postings commit, so a limit check never queries
+ * the database. Day totals reset at midnight and month totals on the 1st.
+ */
+public class TransactionLimits {
+
+    public static final String DAILY_WITHDRAWAL_LIMIT = "DAILY_WITHDRAWAL_LIMIT";
+    public static final String DAILY_TRANSFER_LIMIT = "DAILY_TRANSFER_LIMIT";
+    public static final String MONTHLY_TRANSACTION_LIMIT = "MONTHLY_TRANSACTION_LIMIT";
+
+    private static final Object lock = new Object();
+
+    private static final IntDoubleMap dailyWithdrawals = new IntDoubleMap(1024);
+    private static final IntDoubleMap dailyTransfers = new IntDoubleMap(1024);
+    private static final IntDoubleMap monthlyDebits = new IntDoubleMap(1024);
+    private static LocalDate currentDay = LocalDate.now();
+    private static YearMonth currentMonth = YearMonth.now();
+    private static long dayEndsAt = endOfDay(currentDay);
+    private static boolean loaded;
+
+    private static volatile double dailyWithdrawalLimit = 50000;
+    private static volatile double dailyTransferLimit = 100000;
+    private static volatile double monthlyTransactionLimit = 500000;
+
+    /**
+     * Check whether a config key is one of the limits kept here
+     */
+    public static boolean isLimitKey(String key) {
+        return DAILY_WITHDRAWAL_LIMIT.equals(key) || DAILY_TRANSFER_LIMIT.equals(key)
+            || MONTHLY_TRANSACTION_LIMIT.equals(key);
+    }
+
+    /**
+     * Load the limits and the ledger totals, once per run of the application.
+     * Must be called outside an open transaction.
+     * @param conn Open connection
+     */
+    static void load(Connection conn) {
+        synchronized (lock) {
+            if (loaded) return;
+            rebuild(conn);
+            loaded = true;
+        }
+        reloadLimits();
+        ConfigRegistry.subscribe(changedKeys -> {
+            for (String key : changedKeys) {
+                if (isLimitKey(key)) {
+                    reloadLimits();
+                    return;
+                }
+            }
+        });
+    }
+
+    /**
+     * Re-read the totals of the current day and month from the ledger
+     * @param conn Open connection
+     */
+    public static void rebuild(Connection conn) {
+        synchronized (lock) {
+            currentDay = LocalDate.now();
+            currentMonth = YearMonth.from(currentDay);
+            dayEndsAt = endOfDay(currentDay);
+            dailyWithdrawals.clear();
+            dailyTransfers.clear();
+            monthlyDebits.clear();
+
+            String dayStart = currentDay + " 00:00:00";
+            String monthStart = currentMonth.atDay(1) + " 00:00:00";
+            String sql = "SELECT accountNumber, " +
+                        "SUM(CASE WHEN type = 'Withdraw' AND timestamp >= ? THEN amount ELSE 0 END) AS withdrawals, " +
+                        "SUM(CASE WHEN type LIKE 'Transfer Out%' AND timestamp >= ? THEN amount ELSE 0 END) AS transfers, " +
+                        "SUM(amount) AS debits " +
+                        "FROM transactions " +
+                        "WHERE timestamp >= ? AND (type = 'Withdraw' OR type LIKE 'Transfer Out%') " +
+                        "GROUP BY accountNumber";
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, dayStart);
+                pstmt.setString(2, dayStart);
+                pstmt.setString(3, monthStart);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        int accountNumber = rs.getInt("accountNumber");
+                        double withdrawals = rs.getDouble("withdrawals");
+                        double transfers = rs.getDouble("transfers");
+                        if (withdrawals > 0) dailyWithdrawals.put(accountNumber, withdrawals);
+                        if (transfers > 0) dailyTransfers.put(accountNumber, transfers);
+                        monthlyDebits.put(accountNumber, rs.getDouble("debits"));
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Error loading transaction limit totals: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Re-read the limit values from the config registry
+     */
+    public static void reloadLimits() {
+        dailyWithdrawalLimit = readLimit(DAILY_WITHDRAWAL_LIMIT, dailyWithdrawalLimit);
+        dailyTransferLimit = readLimit(DAILY_TRANSFER_LIMIT, dailyTransferLimit);
+        monthlyTransactionLimit = readLimit(MONTHLY_TRANSACTION_LIMIT, monthlyTransactionLimit);
+    }
+
+    /**
+     * Check a withdrawal against the daily withdrawal and monthly limits
+     * @return null if allowed, otherwise the reason it is refused
+     */
+    public static String checkWithdrawal(int accountNumber, double amount) {
+        synchronized (lock) {
+            rollOver();
+            double today = dailyWithdrawals.get(accountNumber);
+            if (today + amount > dailyWithdrawalLimit) {
+                return String.format("Daily withdrawal limit of %.2f TAKA exceeded (%.2f TAKA remaining today)",
+                                    dailyWithdrawalLimit, Math.max(0, dailyWithdrawalLimit - today));
+            }
+            return checkMonthly(accountNumber, amount);
+        }
+    }
+
+    /**
+     * Check an outgoing transfer against the daily transfer and monthly limits
+     * @return null if allowed, otherwise the reason it is refused
+     */
+    public static String checkTransfer(int accountNumber, double amount) {
+        synchronized (lock) {
+            rollOver();
+            double today = dailyTransfers.get(accountNumber);
+            if (today + amount > dailyTransferLimit) {
+                return String.format("Daily transfer limit of %.2f TAKA exceeded (%.2f TAKA remaining today)",
+                                    dailyTransferLimit, Math.max(0, dailyTransferLimit - today));
+            }
+            return checkMonthly(accountNumber, amount);
+        }
+    }
+
+    /**
+     * Count a committed withdrawal
+     */
+    public static void recordWithdrawal(int accountNumber, double amount) {
+        synchronized (lock) {
+            rollOver();
+            dailyWithdrawals.add(accountNumber, amount);
+            monthlyDebits.add(accountNumber, amount);
+        }
+    }
+
+    /**
+     * Count a committed outgoing transfer
+     */
+    public static void recordTransfer(int accountNumber, double amount) {
+        synchronized (lock) {
+            rollOver();
+            dailyTransfers.add(accountNumber, amount);
+            monthlyDebits.add(accountNumber, amount);
+        }
+    }
+
+    private static String checkMonthly(int accountNumber, double amount) {
+        double month = monthlyDebits.get(accountNumber);
+        if (month + amount > monthlyTransactionLimit) {
+            return String.format("Monthly transaction limit of %.2f TAKA exceeded (%.2f TAKA remaining this month)",
+                                monthlyTransactionLimit, Math.max(0, monthlyTransactionLimit - month));
+        }
+        return null;
+    }
+
+    // Start fresh totals when the day or month has changed since the last posting.
+    // Compares against the end of the day in millis so the common case is one clock read
+    private static void rollOver() {
+        if (System.currentTimeMillis() < dayEndsAt) return;
+
+        LocalDate today = LocalDate.now();
+        currentDay = today;
+        dayEndsAt = endOfDay(today);
+        dailyWithdrawals.clear();
+        dailyTransfers.clear();
+        YearMonth month = YearMonth.from(today);
+        if (!month.equals(currentMonth)) {
+            currentMonth = month;
+            monthlyDebits.clear();
+        }
+    }
+
+    private static long endOfDay(LocalDate day) {
+        return day.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static double readLimit(String key, double current) {
+        return ConfigRegistry.getDouble(key, current);
+    }
+}
@@ -0,0 +1,82 @@
+package com.mybank.models;
+
+/**
+ * Summary of one interest accrual run for a single accrual date.
+ */
+public class AccrualReport {
+    private String accrualDate;
+    private boolean resumed;
+    private long accountsProcessed;
+    private long accountsCredited;
+    private double totalInterest;
+    private long elapsedMillis;
+
+    public AccrualReport() {
+    }
+
+    public AccrualReport(String accrualDate) {
+        this.accrualDate = accrualDate;
+    }
+
+    // Getters and Setters
+    public String getAccrualDate() {
+        return accrualDate;
+    }
+
+    public void setAccrualDate(String accrualDate) {
+        this.accrualDate = accrualDate;
+    }
+
+    /** True when the run picked up from a checkpoint left by an interrupted run */
+    public boolean isResumed() {
+        return resumed;
+    }
+
+    public void setResumed(boolean resumed) {
+        this.resumed = resumed;
+    }
+
+    public long getAccountsProcessed() {
+        return accountsProcessed;
+    }
+
+    public void addAccountsProcessed(long count) {
+        this.accountsProcessed += count;
+    }
+
+    public long getAccountsCredited() {
+        return accountsCredited;
+    }
+
+    public void addCredited(long count, double interest) {
+        this.accountsCredited += count;
+        this.totalInterest += interest;
+    }
+
+    public double getTotalInterest() {
+        return totalInterest;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Accounts processed per second of this run
+     */
+    public double getAccountsPerSecond() {
+        return elapsedMillis > 0 ? accountsProcessed * 1000.0 / elapsedMillis : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Interest accrual %s%s: %d accounts processed, %d credited, TAKA %.2f in %.1f s (%.0f accounts/s)",
+                           accrualDate, resumed ? " (resumed)" : "",
+                           accountsProcessed, accountsCredited, totalInterest,
+                           elapsedMillis / 1000.0, getAccountsPerSecond());
+    }
+}
@@ -31,6 +31,7 @@ public class Cheque {
     private double currentBalance;
     private String depositedByName;
     private String depositedToAccount;
+    private String reviewReason;
 
     public Cheque() {
     }
@@ -244,4 +245,12 @@ public class Cheque {
     public void setDepositedToAccount(String depositedToAccount) {
         this.depositedToAccount = depositedToAccount;
     }
+
+    public String getReviewReason() {
+        return reviewReason;
+    }
+
+    public void setReviewReason(String reviewReason) {
+        this.reviewReason = reviewReason;
+    }
 }
@@ -0,0 +1,116 @@
+package com.mybank.models;
+
+/**
+ * Dashboard counters for cheque books and cheques, read from the cheque_stats summary row.
+ */
+public class ChequeStats {
+    private int totalBooks;
+    private int pendingBooks;
+    private int approvedBooks;
+    private int activeBooks;
+    private int totalCheques;
+    private int clearedCheques;
+    private int bouncedCheques;
+    private int pendingClearance;
+    private double clearedAmount;
+    private double bouncedAmount;
+
+    public ChequeStats() {
+    }
+
+    // Getters and Setters
+    public int getTotalBooks() {
+        return totalBooks;
+    }
+
+    public void setTotalBooks(int totalBooks) {
+        this.totalBooks = totalBooks;
+    }
+
+    public int getPendingBooks() {
+        return pendingBooks;
+    }
+
+    public void setPendingBooks(int pendingBooks) {
+        this.pendingBooks = pendingBooks;
+    }
+
+    /** Books in APPROVED or ISSUED status */
+    public int getApprovedBooks() {
+        return approvedBooks;
+    }
+
+    public void setApprovedBooks(int approvedBooks) {
+        this.approvedBooks = approvedBooks;
+    }
+
+    /** Books in ISSUED status */
+    public int getActiveBooks() {
+        return activeBooks;
+    }
+
+    public void setActiveBooks(int activeBooks) {
+        this.activeBooks = activeBooks;
+    }
+
+    public int getTotalCheques() {
+        return totalCheques;
+    }
+
+    public void setTotalCheques(int totalCheques) {
+        this.totalCheques = totalCheques;
+    }
+
+    public int getClearedCheques() {
+        return clearedCheques;
+    }
+
+    public void setClearedCheques(int clearedCheques) {
+        this.clearedCheques = clearedCheques;
+    }
+
+    public int getBouncedCheques() {
+        return bouncedCheques;
+    }
+
+    public void setBouncedCheques(int bouncedCheques) {
+        this.bouncedCheques = bouncedCheques;
+    }
+
+    /** Cheques in DEPOSITED or PENDING_CLEARANCE status */
+    public int getPendingClearance() {
+        return pendingClearance;
+    }
+
+    public void setPendingClearance(int pendingClearance) {
+        this.pendingClearance = pendingClearance;
+    }
+
+    public double getClearedAmount() {
+        return clearedAmount;
+    }
+
+    public void setClearedAmount(double clearedAmount) {
+        this.clearedAmount = clearedAmount;
+    }
+
+    public double getBouncedAmount() {
+        return bouncedAmount;
+    }
+
+    public void setBouncedAmount(double bouncedAmount) {
+        this.bouncedAmount = bouncedAmount;
+    }
+
+    @Override
+    public String toString() {
+        return "ChequeStats{" +
+                "totalBooks=" + totalBooks +
+                ", pendingBooks=" + pendingBooks +
+                ", totalCheques=" + totalCheques +
+                ", clearedCheques=" + clearedCheques +
+                ", bouncedCheques=" + bouncedCheques +
+                ", pendingClearance=" + pendingClearance +
+                '}';
+    }
+}
@@ -0,0 +1,92 @@
+package com.mybank.models;
+
+/**
+ * Summary of one cheque clearing batch run.
+ */
+public class ClearingReport {
+    private int candidates;
+    private int cleared;
+    private int bounced;
+    private int skipped;
+    private int failed;
+    private double clearedAmount;
+    private double bouncedAmount;
+    private long elapsedMillis;
+
+    public ClearingReport() {
+    }
+
+    // Getters and Setters
+    /** Cheques picked up for the run */
+    public int getCandidates() {
+        return candidates;
+    }
+
+    public void setCandidates(int candidates) {
+        this.candidates = candidates;
+    }
+
+    public int getCleared() {
+        return cleared;
+    }
+
+    public void addCleared(double amount) {
+        this.cleared++;
+        this.clearedAmount += amount;
+    }
+
+    public int getBounced() {
+        return bounced;
+    }
+
+    public void addBounced(double amount) {
+        this.bounced++;
+        this.bouncedAmount += amount;
+    }
+
+    /** Cheques another user processed while the batch was running */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public void addSkipped(int count) {
+        this.skipped += count;
+    }
+
+    /** Cheques in chunks that were rolled back */
+    public int getFailed() {
+        return failed;
+    }
+
+    public void addFailed(int count) {
+        this.failed += count;
+    }
+
+    public double getClearedAmount() {
+        return clearedAmount;
+    }
+
+    public double getBouncedAmount() {
+        return bouncedAmount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Processed %d cheque(s) in %.1f s%n" +
+                           "Cleared: %d (TAKA %.2f)%n" +
+                           "Bounced: %d (TAKA %.2f)%n" +
+                           "Skipped: %d, Failed: %d",
+                           candidates, elapsedMillis / 1000.0,
+                           cleared, clearedAmount,
+                           bounced, bouncedAmount,
+                           skipped, failed);
+    }
+}
@@ -0,0 +1,76 @@
+package com.mybank.models;
+
+/**
+ * Login credentials of one customer account, read in a single query.
+ */
+public class CredentialRecord {
+    private int accountNumber;
+    private String passwordHash;
+    private String status;
+    private int failedAttempts;
+    private boolean usingDefaultPassword;
+
+    public CredentialRecord() {
+    }
+
+    public CredentialRecord(int accountNumber, String passwordHash, String status, int failedAttempts) {
+        this.accountNumber = accountNumber;
+        this.passwordHash = passwordHash;
+        this.status = status;
+        this.failedAttempts = failedAttempts;
+    }
+
+    // Getters and Setters
+    public int getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(int accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public String getPasswordHash() {
+        return passwordHash;
+    }
+
+    public void setPasswordHash(String passwordHash) {
+        this.passwordHash = passwordHash;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getFailedAttempts() {
+        return failedAttempts;
+    }
+
+    public void setFailedAttempts(int failedAttempts) {
+        this.failedAttempts = failedAttempts;
+    }
+
+    /**
+     * Whether the account still has the default password.
+     * Hashes are salted, so this is only known once a login with it has succeeded.
+     */
+    public boolean isUsingDefaultPassword() {
+        return usingDefaultPassword;
+    }
+
+    public void setUsingDefaultPassword(boolean usingDefaultPassword) {
+        this.usingDefaultPassword = usingDefaultPassword;
+    }
+
+    // Utility methods
+    public boolean hasPassword() {
+        return passwordHash != null && !passwordHash.isEmpty();
+    }
+
+    public boolean isBlocked() {
+        return "BLOCKED".equals(status);
+    }
+}
@@ -0,0 +1,72 @@
+package com.mybank.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * An alert raised by the fraud monitor for one account.
+ */
+public class FraudAlert {
+    private long sequence;
+    private int accountNumber;
+    private String rule; // VELOCITY, FAN_IN, AMOUNT_SPIKE, FAN_OUT
+    private String details;
+    private LocalDateTime timestamp;
+
+    public FraudAlert() {
+    }
+
+    public FraudAlert(long sequence, int accountNumber, String rule, String details) {
+        this.sequence = sequence;
+        this.accountNumber = accountNumber;
+        this.rule = rule;
+        this.details = details;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    /** Increases by one for each alert raised since startup */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public int getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(int accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public String getRule() {
+        return rule;
+    }
+
+    public void setRule(String rule) {
+        this.rule = rule;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+
+    public void setDetails(String details) {
+        this.details = details;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%s] Account %d: %s", rule, accountNumber, details);
+    }
+}
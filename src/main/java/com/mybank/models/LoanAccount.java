@@ -1,5 +1,8 @@
 package com.mybank.models;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Loan Account Model
  * Represents loan-specific information for loan accounts
@@ -17,6 +20,7 @@ public class LoanAccount {
     private int loanTerm;              // in months
     private String disbursementDate;
     private String lastPaymentDate;
+    private List<LoanInstallment> schedule = new ArrayList<>();
     
     // Constructors
     public LoanAccount() {
@@ -152,6 +156,18 @@ public class LoanAccount {
         return String.format("%.2f%%", interestRate);
     }
     
+    /**
+     * Counts installments of the precomputed schedule that have been collected
+     * @return Number of paid installments
+     */
+    public int getInstallmentsPaid() {
+        int paid = 0;
+        for (LoanInstallment installment : schedule) {
+            if (installment.isPaid()) paid++;
+        }
+        return paid;
+    }
+    
     // Getters and Setters
     public int getLoanId() {
         return loanId;
@@ -241,6 +257,14 @@ public class LoanAccount {
         this.lastPaymentDate = lastPaymentDate;
     }
     
+    public List<LoanInstallment> getSchedule() {
+        return schedule;
+    }
+    
+    public void setSchedule(List<LoanInstallment> schedule) {
+        this.schedule = schedule;
+    }
+    
     @Override
     public String toString() {
         return "LoanAccount{" +
@@ -0,0 +1,115 @@
+package com.mybank.models;
+
+/**
+ * Loan Installment Model
+ * One row of a loan's precomputed amortization schedule
+ */
+public class LoanInstallment {
+
+    private int loanId;
+    private int installmentNumber;
+    private String dueDate;
+    private double amount;
+    private double principal;
+    private double interest;
+    private double balanceAfter;
+    private String status;             // DUE, PAID
+    private String paidDate;
+
+    // Constructors
+    public LoanInstallment() {
+    }
+
+    public LoanInstallment(int loanId, int installmentNumber, String dueDate, double amount,
+                          double principal, double interest, double balanceAfter) {
+        this.loanId = loanId;
+        this.installmentNumber = installmentNumber;
+        this.dueDate = dueDate;
+        this.amount = amount;
+        this.principal = principal;
+        this.interest = interest;
+        this.balanceAfter = balanceAfter;
+        this.status = "DUE";
+    }
+
+    /**
+     * Checks if the installment has been collected
+     * @return true if paid, false otherwise
+     */
+    public boolean isPaid() {
+        return "PAID".equals(status);
+    }
+
+    // Getters and Setters
+    public int getLoanId() {
+        return loanId;
+    }
+
+    public void setLoanId(int loanId) {
+        this.loanId = loanId;
+    }
+
+    public int getInstallmentNumber() {
+        return installmentNumber;
+    }
+
+    public void setInstallmentNumber(int installmentNumber) {
+        this.installmentNumber = installmentNumber;
+    }
+
+    public String getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(String dueDate) {
+        this.dueDate = dueDate;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(double amount) {
+        this.amount = amount;
+    }
+
+    public double getPrincipal() {
+        return principal;
+    }
+
+    public void setPrincipal(double principal) {
+        this.principal = principal;
+    }
+
+    public double getInterest() {
+        return interest;
+    }
+
+    public void setInterest(double interest) {
+        this.interest = interest;
+    }
+
+    public double getBalanceAfter() {
+        return balanceAfter;
+    }
+
+    public void setBalanceAfter(double balanceAfter) {
+        this.balanceAfter = balanceAfter;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getPaidDate() {
+        return paidDate;
+    }
+
+    public void setPaidDate(String paidDate) {
+        this.paidDate = paidDate;
+    }
+}
@@ -0,0 +1,92 @@
+package com.mybank.models;
+
+/**
+ * Summary of one loan servicing run.
+ */
+public class LoanServicingReport {
+    private String runDate;
+    private int schedulesBuilt;
+    private int loansDue;
+    private int installmentsCollected;
+    private double amountCollected;
+    private int loansPaidOff;
+    private int loansOverdue;
+    private long elapsedMillis;
+
+    public LoanServicingReport() {
+    }
+
+    public LoanServicingReport(String runDate) {
+        this.runDate = runDate;
+    }
+
+    // Getters and Setters
+    public String getRunDate() {
+        return runDate;
+    }
+
+    public void setRunDate(String runDate) {
+        this.runDate = runDate;
+    }
+
+    public int getSchedulesBuilt() {
+        return schedulesBuilt;
+    }
+
+    public void addSchedulesBuilt(int count) {
+        this.schedulesBuilt += count;
+    }
+
+    public int getLoansDue() {
+        return loansDue;
+    }
+
+    public void setLoansDue(int loansDue) {
+        this.loansDue = loansDue;
+    }
+
+    public int getInstallmentsCollected() {
+        return installmentsCollected;
+    }
+
+    public double getAmountCollected() {
+        return amountCollected;
+    }
+
+    public void addCollected(int installments, double amount) {
+        this.installmentsCollected += installments;
+        this.amountCollected += amount;
+    }
+
+    public int getLoansPaidOff() {
+        return loansPaidOff;
+    }
+
+    public void addPaidOff(int count) {
+        this.loansPaidOff += count;
+    }
+
+    public int getLoansOverdue() {
+        return loansOverdue;
+    }
+
+    public void addOverdue(int count) {
+        this.loansOverdue += count;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Loan servicing %s: %d schedules built, %d loans due, %d installments collected " +
+                           "(TAKA %.2f), %d paid off, %d overdue in %d ms",
+                           runDate, schedulesBuilt, loansDue, installmentsCollected, amountCollected,
+                           loansPaidOff, loansOverdue, elapsedMillis);
+    }
+}
@@ -0,0 +1,105 @@
+package com.mybank.models;
+
+/**
+ * NotificationLog model class
+ * Represents one email or SMS notification recorded in notifications_log
+ */
+public class NotificationLog {
+    private int id;
+    private int accountNumber;
+    private String notificationType;
+    private String channel;
+    private String recipient;
+    private String message;
+    private String status;
+    private String sentTimestamp;
+    private String eventDetails;
+    
+    // Constructors
+    public NotificationLog() {
+    }
+    
+    // Getters and Setters
+    public int getId() {
+        return id;
+    }
+    
+    public void setId(int id) {
+        this.id = id;
+    }
+    
+    public int getAccountNumber() {
+        return accountNumber;
+    }
+    
+    public void setAccountNumber(int accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+    
+    public String getNotificationType() {
+        return notificationType;
+    }
+    
+    public void setNotificationType(String notificationType) {
+        this.notificationType = notificationType;
+    }
+    
+    public String getChannel() {
+        return channel;
+    }
+    
+    public void setChannel(String channel) {
+        this.channel = channel;
+    }
+    
+    public String getRecipient() {
+        return recipient;
+    }
+    
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getSentTimestamp() {
+        return sentTimestamp;
+    }
+    
+    public void setSentTimestamp(String sentTimestamp) {
+        this.sentTimestamp = sentTimestamp;
+    }
+    
+    public String getEventDetails() {
+        return eventDetails;
+    }
+    
+    public void setEventDetails(String eventDetails) {
+        this.eventDetails = eventDetails;
+    }
+    
+    @Override
+    public String toString() {
+        return "NotificationLog{" +
+                "id=" + id +
+                ", accountNumber=" + accountNumber +
+                ", notificationType='" + notificationType + '\'' +
+                ", channel='" + channel + '\'' +
+                ", status='" + status + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,64 @@
+package com.mybank.models;
+
+/**
+ * Summary of one month-end low-balance penalty sweep.
+ */
+public class PenaltyReport {
+    private String penaltyMonth;
+    private int offenders;
+    private int accountsPenalized;
+    private double totalPenalty;
+    private long elapsedMillis;
+
+    public PenaltyReport() {
+    }
+
+    public PenaltyReport(String penaltyMonth) {
+        this.penaltyMonth = penaltyMonth;
+    }
+
+    // Getters and Setters
+    public String getPenaltyMonth() {
+        return penaltyMonth;
+    }
+
+    public void setPenaltyMonth(String penaltyMonth) {
+        this.penaltyMonth = penaltyMonth;
+    }
+
+    /** Accounts found below their minimum balance */
+    public int getOffenders() {
+        return offenders;
+    }
+
+    public void addOffenders(int count) {
+        this.offenders += count;
+    }
+
+    public int getAccountsPenalized() {
+        return accountsPenalized;
+    }
+
+    public double getTotalPenalty() {
+        return totalPenalty;
+    }
+
+    public void addPenalized(int count, double amount) {
+        this.accountsPenalized += count;
+        this.totalPenalty += amount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Low-balance sweep %s: %d below minimum, %d penalized, TAKA %.2f in %d ms",
+                           penaltyMonth, offenders, accountsPenalized, totalPenalty, elapsedMillis);
+    }
+}
@@ -0,0 +1,84 @@
+package com.mybank.models;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * A signed-in customer, staff member or admin, identified by a random token.
+ * Activity is recorded with a single volatile write, so touching a session never locks.
+ */
+public class Session {
+    public static final String CUSTOMER = "CUSTOMER";
+    public static final String STAFF = "STAFF";
+    public static final String ADMIN = "ADMIN";
+
+    private final String token;
+    private final String userType; // CUSTOMER, STAFF, ADMIN
+    private final int userId;
+    private final String username;
+    private final Object principal;
+    private final long createdAt;
+    private volatile long lastActivity;
+    private volatile boolean closed;
+
+    public Session(String token, String userType, int userId, String username, Object principal) {
+        this.token = token;
+        this.userType = userType;
+        this.userId = userId;
+        this.username = username;
+        this.principal = principal;
+        this.createdAt = System.currentTimeMillis();
+        this.lastActivity = createdAt;
+    }
+
+    // Getters
+    public String getToken() {
+        return token;
+    }
+
+    public String getUserType() {
+        return userType;
+    }
+
+    /** Account number for customers, staff or admin ID otherwise */
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    /** The Staff or Admin object signed in, or null for customers */
+    public Object getPrincipal() {
+        return principal;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(createdAt), ZoneId.systemDefault());
+    }
+
+    /** Time of the last activity in millis */
+    public long getLastActivity() {
+        return lastActivity;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    // Utility methods
+    public void touch() {
+        lastActivity = System.currentTimeMillis();
+    }
+
+    public void close() {
+        closed = true;
+    }
+
+    @Override
+    public String toString() {
+        return userType + " " + username + " (" + userId + ")";
+    }
+}
@@ -10,6 +10,7 @@ import java.util.List;
 import com.mybank.database.DatabaseHelper;
 import com.mybank.models.AccountOverview;
 import com.mybank.models.LoanAccount;
+import com.mybank.models.LoanInstallment;
 
 /**
  * Account Overview Service
@@ -139,6 +140,7 @@ public class AccountOverviewService {
                 loan.setLoanTerm(rs.getInt("loanTerm"));
                 loan.setDisbursementDate(rs.getString("disbursementDate"));
                 loan.setLastPaymentDate(rs.getString("lastPaymentDate"));
+                loan.setSchedule(getLoanSchedule(conn, loan.getLoanId()));
                 
                 return loan;
             }
@@ -149,6 +151,43 @@ public class AccountOverviewService {
         return null;
     }
     
+    /**
+     * Reads the precomputed amortization schedule of a loan
+     * The schedule is built by LoanServicingService; it is empty until the first servicing run
+     * 
+     * @param conn Open connection
+     * @param loanId The loan ID
+     * @return Installments in order
+     */
+    private List<LoanInstallment> getLoanSchedule(Connection conn, int loanId) throws SQLException {
+        List<LoanInstallment> schedule = new ArrayList<>();
+        String sql = "SELECT loanId, installmentNumber, dueDate, amount, principal, interest, " +
+                     "balanceAfter, status, paidDate " +
+                     "FROM loan_schedule WHERE loanId = ? ORDER BY installmentNumber";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, loanId);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                LoanInstallment installment = new LoanInstallment(
+                    rs.getInt("loanId"),
+                    rs.getInt("installmentNumber"),
+                    rs.getString("dueDate"),
+                    rs.getDouble("amount"),
+                    rs.getDouble("principal"),
+                    rs.getDouble("interest"),
+                    rs.getDouble("balanceAfter")
+                );
+                installment.setStatus(rs.getString("status"));
+                installment.setPaidDate(rs.getString("paidDate"));
+                schedule.add(installment);
+            }
+        }
+        
+        return schedule;
+    }
+        
     /**
      * Gets summary statistics for an account
      * 
@@ -185,6 +185,9 @@ public class AccountRequestService {
             return false;
         }
         
+        // Hash before the transaction opens; it is the slow part and needs no connection
+        String passwordHash = DatabaseHelper.hashPassword(initialPassword);
+        
         try (Connection conn = DatabaseHelper.getConnection()) {
             conn.setAutoCommit(false);
             
@@ -193,7 +196,7 @@ public class AccountRequestService {
                 int accountNumber = DatabaseHelper.createAccountWithConnection(
                     conn,
                     request.getCustomerName(),
-                    initialPassword,
+                    passwordHash,
                     request.getInitialDeposit(),
                     request.getEmail(),
                     request.getPhoneNumber(),
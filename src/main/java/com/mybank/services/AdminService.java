@@ -2,13 +2,11 @@ package com.mybank.services;
 
 import com.mybank.models.Admin;
 import com.mybank.models.AuditLog;
+import com.mybank.models.Session;
 import com.mybank.database.AdminDAO;
 import com.mybank.database.AuditLogDAO;
+import com.mybank.utils.PasswordHasher;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.time.LocalDateTime;
-import java.util.Base64;
 import java.util.List;
 
 /**
@@ -17,8 +15,7 @@ import java.util.List;
 public class AdminService {
     
     private static Admin currentAdmin = null;
-    private static LocalDateTime lastActivity = null;
-    private static final int SESSION_TIMEOUT_MINUTES = 15;
+    private static String sessionToken = null;
     
     /**
      * Initialize admin tables
@@ -69,16 +66,22 @@ public class AdminService {
                 return false;
             }
             
-            String hashedPassword = hashPassword(password);
-            if (!admin.getPassword().equals(hashedPassword)) {
+            if (!PasswordHasher.verify(password, admin.getPassword())) {
                 logAuditEvent("ADMIN", admin.getAdminId(), username, "LOGIN", "ADMIN", 
                     "Failed login attempt - incorrect password", "FAILED");
                 return false;
             }
             
+            // Replace a legacy or outdated hash now that the password is known
+            if (PasswordHasher.needsRehash(admin.getPassword())) {
+                admin.setPassword(hashPassword(password));
+                AdminDAO.updatePassword(admin.getAdminId(), admin.getPassword());
+            }
+            
             // Successful login
+            SessionRegistry.close(sessionToken);
             currentAdmin = admin;
-            lastActivity = LocalDateTime.now();
+            sessionToken = SessionRegistry.open(Session.ADMIN, admin.getAdminId(), admin.getUsername(), admin).getToken();
             AdminDAO.updateLastLogin(admin.getAdminId());
             
             logAuditEvent("ADMIN", admin.getAdminId(), username, "LOGIN", "ADMIN", 
@@ -98,8 +101,9 @@ public class AdminService {
         if (currentAdmin != null) {
             logAuditEvent("ADMIN", currentAdmin.getAdminId(), currentAdmin.getUsername(), 
                 "LOGOUT", "ADMIN", "Admin logged out", "SUCCESS");
+            SessionRegistry.close(sessionToken);
             currentAdmin = null;
-            lastActivity = null;
+            sessionToken = null;
         }
     }
     
@@ -107,20 +111,15 @@ public class AdminService {
      * Check if session is active
      */
     public static boolean isSessionActive() {
-        if (currentAdmin == null || lastActivity == null) {
+        if (currentAdmin == null) {
             return false;
         }
         
-        LocalDateTime now = LocalDateTime.now();
-        long minutesInactive = java.time.Duration.between(lastActivity, now).toMinutes();
-        
-        if (minutesInactive >= SESSION_TIMEOUT_MINUTES) {
+        // Records the activity, or finds the session timed out after SESSION_TIMEOUT_MINUTES
+        if (SessionRegistry.touch(sessionToken) == null) {
             logout();
             return false;
         }
-        
-        // Update last activity
-        lastActivity = now;
         return true;
     }
     
@@ -209,8 +208,7 @@ public class AdminService {
         }
         
         // Verify old password
-        String hashedOldPassword = hashPassword(oldPassword);
-        if (!admin.getPassword().equals(hashedOldPassword)) {
+        if (!PasswordHasher.verify(oldPassword, admin.getPassword())) {
             logAuditEvent("ADMIN", currentAdmin.getAdminId(), currentAdmin.getUsername(), 
                 "PASSWORD_CHANGE", "ADMIN", "Failed password change - incorrect old password", "FAILED");
             return false;
@@ -314,17 +312,10 @@ public class AdminService {
     }
     
     /**
-     * Hash password using SHA-256
+     * Hash password with a fresh salt (PBKDF2, see PasswordHasher)
      */
     private static String hashPassword(String password) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hash = md.digest(password.getBytes());
-            return Base64.getEncoder().encodeToString(hash);
-        } catch (NoSuchAlgorithmException e) {
-            e.printStackTrace();
-            return password; // Fallback (not recommended for production)
-        }
+        return PasswordHasher.hash(password);
     }
     
     /**
@@ -0,0 +1,298 @@
+package com.mybank.services;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background Executor
+ * One executor for the application's fire-and-forget work: notifications, delayed
+ * page changes, long runs started from a screen and the services' periodic jobs. On a JDK with virtual threads
+ * each task gets its own virtual thread; otherwise tasks share a bounded pool of
+ * daemon threads and wait in an unbounded queue, so a burst delays notifications
+ * and audit writes instead of dropping them. Either way a burst of logins can't
+ * start an unbounded number of platform threads. Tasks are only refused once the
+ * executor has been shut down, and every refusal is counted and logged.
+ *
+ * Each task runs under a name of its own for thread dumps, and counts of submitted,
+ * completed, failed and refused tasks are kept for getStats().
+ */
+public class BackgroundExecutor {
+
+    private static final String THREAD_PREFIX = "background-";
+
+    private static ExecutorService executor;
+    private static ScheduledExecutorService timer;
+    private static boolean virtualThreads;
+
+    private static final AtomicLong submitted = new AtomicLong();
+    private static final AtomicLong completed = new AtomicLong();
+    private static final AtomicLong failed = new AtomicLong();
+    private static final AtomicLong rejected = new AtomicLong();
+    private static final AtomicInteger active = new AtomicInteger();
+
+    /**
+     * A job run again and again, with a fixed delay between the end of one run and
+     * the start of the next. The timer only hands each run to the executor, so a long
+     * run never holds up other timed tasks, and runs of one job never overlap.
+     */
+    public static final class Periodic {
+        private final String name;
+        private final Runnable task;
+        private final long delayMillis;
+
+        // All guarded by this
+        private ScheduledFuture<?> next;
+        private Thread runner;
+        private boolean running;
+        private boolean runAgain;
+        private boolean cancelled;
+
+        private Periodic(String name, Runnable task, long delayMillis) {
+            this.name = name;
+            this.task = task;
+            this.delayMillis = delayMillis;
+        }
+
+        /**
+         * Run now instead of waiting for the next interval; if a run is in progress,
+         * another follows as soon as it ends
+         */
+        public synchronized void runNow() {
+            if (cancelled) return;
+            if (running) {
+                runAgain = true;
+                return;
+            }
+            if (next != null) {
+                next.cancel(false);
+            }
+            start();
+        }
+
+        /**
+         * Stop scheduling runs and interrupt one in progress
+         */
+        public synchronized void cancel() {
+            cancelled = true;
+            if (next != null) {
+                next.cancel(false);
+                next = null;
+            }
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
+
+        private synchronized void schedule(long delay) {
+            if (cancelled) return;
+            try {
+                next = timer().schedule(this::start, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Shut down; nothing more to run
+                cancelled = true;
+            }
+        }
+
+        private synchronized void start() {
+            if (cancelled || running) return;
+            next = null;
+            running = true;
+            submitted.incrementAndGet();
+            try {
+                executor().execute(this::runOnce);
+            } catch (RejectedExecutionException e) {
+                running = false;
+                cancelled = true;
+                rejected.incrementAndGet();
+                System.err.println("Background task refused (" + name + "): executor is stopped");
+            }
+        }
+
+        private void runOnce() {
+            synchronized (this) {
+                runner = Thread.currentThread();
+            }
+            try {
+                run(name, task);
+            } finally {
+                boolean again;
+                synchronized (this) {
+                    runner = null;
+                    running = false;
+                    again = runAgain;
+                    runAgain = false;
+                    // Don't hand an interrupt from cancel() on to the next task on this thread
+                    Thread.interrupted();
+                }
+                schedule(again ? 0 : delayMillis);
+            }
+        }
+    }
+
+    /**
+     * Run a task in the background
+     * @param name Short name shown on the thread while the task runs
+     * @param task The work
+     */
+    public static void execute(String name, Runnable task) {
+        submitted.incrementAndGet();
+        try {
+            executor().execute(() -> run(name, task));
+        } catch (RejectedExecutionException e) {
+            // Logged now and then, so a storm of refusals doesn't become a storm of log lines
+            long count = rejected.incrementAndGet();
+            if (count == 1 || count % 100 == 0) {
+                System.err.println("Background task refused (" + name + "): executor is stopped; "
+                                  + count + " refused so far");
+            }
+        }
+    }
+
+    /**
+     * Run a short task after a delay, such as handing a page change to the FX thread.
+     * It runs on the timer thread itself, so it isn't refused when the executor is busy;
+     * anything slow should call execute() from there.
+     * @param name Short name shown on the thread while the task runs
+     * @param task The work
+     * @param delayMillis Delay in milliseconds
+     */
+    public static void schedule(String name, Runnable task, long delayMillis) {
+        submitted.incrementAndGet();
+        try {
+            timer().schedule(() -> run(name, task), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            System.err.println("Background task refused (" + name + "): executor is stopped");
+        }
+    }
+
+    /**
+     * Run a job periodically on the executor, e.g. a service's background sweep
+     * @param name Short name shown on the thread while a run is in progress
+     * @param task The work; runs of it never overlap
+     * @param initialDelay Delay before the first run
+     * @param delay Delay between the end of one run and the start of the next
+     * @param unit Unit of both delays
+     * @return Handle to run the job early or cancel it
+     */
+    public static Periodic scheduleWithFixedDelay(String name, Runnable task, long initialDelay,
+                                                  long delay, TimeUnit unit) {
+        Periodic periodic = new Periodic(name, task, unit.toMillis(delay));
+        periodic.schedule(unit.toMillis(initialDelay));
+        return periodic;
+    }
+
+    /**
+     * Whether tasks run on virtual threads
+     */
+    public static synchronized boolean isUsingVirtualThreads() {
+        executor();
+        return virtualThreads;
+    }
+
+    /**
+     * Get task counts, e.g. for logging
+     */
+    public static String getStats() {
+        return String.format("%d submitted, %d running, %d completed, %d failed, %d refused",
+                            submitted.get(), active.get(), completed.get(), failed.get(), rejected.get());
+    }
+
+    /**
+     * Stop taking tasks and give running ones a moment to finish
+     * @param timeoutMillis How long to wait for running tasks
+     */
+    public static void shutdown(long timeoutMillis) {
+        ExecutorService stopping;
+        synchronized (BackgroundExecutor.class) {
+            if (timer != null) {
+                timer.shutdownNow();
+            }
+            stopping = executor;
+            if (stopping == null) return;
+            stopping.shutdown();
+        }
+        try {
+            if (!stopping.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                System.err.println("Background tasks still running at shutdown: " + active.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println("Background tasks: " + getStats());
+    }
+
+    private static void run(String name, Runnable task) {
+        Thread thread = Thread.currentThread();
+        String threadName = thread.getName();
+        thread.setName(THREAD_PREFIX + name);
+        active.incrementAndGet();
+        try {
+            task.run();
+            completed.incrementAndGet();
+        } catch (Throwable e) {
+            failed.incrementAndGet();
+            System.err.println("Background task failed (" + name + "): " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            active.decrementAndGet();
+            thread.setName(threadName);
+        }
+    }
+
+    private static synchronized ExecutorService executor() {
+        if (executor == null) {
+            executor = newVirtualThreadExecutor();
+            virtualThreads = executor != null;
+            if (executor == null) {
+                int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+                ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), daemonFactory(THREAD_PREFIX + "worker-"));
+                pool.allowCoreThreadTimeOut(true);
+                executor = pool;
+            }
+        }
+        return executor;
+    }
+
+    private static synchronized ScheduledExecutorService timer() {
+        if (timer == null) {
+            timer = Executors.newSingleThreadScheduledExecutor(daemonFactory(THREAD_PREFIX + "timer-"));
+        }
+        return timer;
+    }
+
+    // The project compiles for Java 11, so virtual threads are looked up at runtime (JDK 21+)
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            builder = ofVirtual.getMethod("name", String.class, long.class).invoke(builder, THREAD_PREFIX, 0L);
+            ThreadFactory factory = (ThreadFactory) Class.forName("java.lang.Thread$Builder")
+                .getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class
+                .getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Not available, or still a preview feature on this JDK
+            return null;
+        }
+    }
+
+    private static ThreadFactory daemonFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
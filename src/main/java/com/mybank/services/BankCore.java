@@ -0,0 +1,68 @@
+package com.mybank.services;
+
+import com.mybank.database.DatabaseHelper;
+
+/**
+ * Bank Core
+ * The startup graph and shutdown list shared by the desktop app and the headless
+ * API server, so the two entry points always open and close the same services.
+ * Screens, session listeners and the HTTP server stay with their own entry point.
+ */
+public class BankCore {
+
+    /**
+     * Add the core startup tasks: "database", "default-admins",
+     * "password-calibration" and "background-services"
+     */
+    public static void startCore(StartupOrchestrator startup) {
+        // Open the database, create missing tables and read the bank config
+        startup.task("database", () -> new DatabaseHelper());
+
+        // Initialize default admin accounts
+        startup.task("default-admins", () -> {
+            StaffService.initializeDefaultAdmin();
+            AdminService.initialize();
+        }, "database");
+
+        // Pick the password hashing cost for this machine
+        startup.task("password-calibration", CredentialService::calibrate, "database");
+
+        startup.task("background-services", () -> {
+            // Start clearing deposited cheques that pass the auto-clearance rules
+            ChequeAutoClearanceService.start();
+
+            // Accrue daily interest for any days not yet accrued
+            InterestAccrualService.start();
+
+            // Collect due loan installments and mark overdue loans
+            LoanServicingService.start();
+
+            // Charge the low-balance penalty once a month has ended
+            LowBalancePenaltyService.start();
+
+            // Write fraud monitor alerts to the audit log
+            FraudAlertService.start();
+
+            // Save failed login counts kept in memory by the login throttle
+            LoginThrottleService.start();
+
+            // Expire idle sessions
+            SessionRegistry.start();
+        }, "database");
+    }
+
+    /**
+     * Stop the background services and wait briefly for queued work to finish
+     */
+    public static void stopCore() {
+        ChequeAutoClearanceService.stop();
+        InterestAccrualService.stop();
+        LoanServicingService.stop();
+        LowBalancePenaltyService.stop();
+        FraudAlertService.stop();
+        LoginThrottleService.stop();
+        SessionRegistry.stop();
+        CredentialService.stop();
+        BackgroundExecutor.shutdown(2000);
+    }
+}
@@ -0,0 +1,271 @@
+package com.mybank.services;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.mybank.database.ConfigRegistry;
+import com.mybank.database.DatabaseHelper;
+import com.mybank.models.ClearingReport;
+import com.mybank.services.ChequeClearingService.Decision;
+
+/**
+ * Service class for automatic cheque clearance.
+ * Deposited cheques are checked against the CHEQUE_CLEARING rules in bank_config;
+ * cheques passing every rule are cleared straight away and the rest are parked in
+ * cheque_review_queue, which is what staff see on the clearance tab.
+ * Off unless AUTO_CLEAR_ENABLED is set.
+ *
+ * The balance rule works on balances read with the queue, so it is only a first
+ * filter: clearing debits the issuer only if the balance at posting time still
+ * covers the cheque, and bounces it otherwise (see ChequeClearingService). That is
+ * the one case in which this service bounces a cheque.
+ */
+public class ChequeAutoClearanceService {
+
+    private static final long INTERVAL_SECONDS = 30;
+    private static final String PERFORMER_NAME = "Auto-clearance";
+
+    private static BackgroundExecutor.Periodic job;
+
+    /**
+     * Rule thresholds, read from bank_config at the start of each run
+     */
+    private static class Rules {
+        boolean enabled;
+        double maxAmount;
+        int minAccountAgeDays;
+        int maxRecentBounces;
+        int bounceLookbackDays;
+    }
+
+    /**
+     * A deposited cheque with the issuer facts the rules look at
+     */
+    private static class Candidate {
+        Decision decision = new Decision();
+        boolean issuerFound;
+        double issuerBalance;
+        Integer accountAgeDays;
+        int recentBounces;
+        String reviewReason;
+    }
+
+    /**
+     * Start evaluating newly deposited cheques in the background
+     */
+    public static synchronized void start() {
+        if (job != null) return;
+
+        job = BackgroundExecutor.scheduleWithFixedDelay("cheque-auto-clearance",
+            ChequeAutoClearanceService::runSafely, 5, INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop the background evaluation
+     */
+    public static synchronized void stop() {
+        if (job != null) {
+            job.cancel();
+            job = null;
+        }
+    }
+
+    /**
+     * Evaluate the queue now instead of waiting for the next interval, e.g. right after a deposit
+     */
+    public static synchronized void requestRun() {
+        if (job != null) {
+            job.runNow();
+        }
+    }
+
+    /**
+     * Check whether deposited cheques go through the rules before reaching staff
+     */
+    public static boolean isEnabled() {
+        return ConfigRegistry.getBoolean("AUTO_CLEAR_ENABLED", false);
+    }
+
+    private static void runSafely() {
+        try {
+            runAutoClearance();
+        } catch (Exception e) {
+            System.err.println("Auto-clearance run failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Evaluate every deposited cheque that is not already waiting for staff review
+     * @return Summary of the cheques cleared; those routed to staff are counted as skipped
+     */
+    public static ClearingReport runAutoClearance() {
+        long start = System.currentTimeMillis();
+        ClearingReport report = new ClearingReport();
+
+        Rules rules = loadRules();
+        if (!rules.enabled) return report;
+
+        List<Candidate> candidates = loadCandidates(rules);
+        report.setCandidates(candidates.size());
+        if (candidates.isEmpty()) return report;
+
+        // Balance cover depends on the issuer's earlier cheques, so each issuer's
+        // cheques are evaluated in deposit order while issuers run in parallel
+        Map<Integer, List<Candidate>> byIssuer = candidates.stream()
+            .collect(Collectors.groupingBy(c -> c.decision.accountNumber, LinkedHashMap::new, Collectors.toList()));
+        byIssuer.values().parallelStream().forEach(issuerCheques -> evaluate(issuerCheques, rules));
+
+        List<Decision> clears = new ArrayList<>();
+        List<Candidate> exceptions = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (candidate.reviewReason == null) {
+                clears.add(candidate.decision);
+            } else {
+                exceptions.add(candidate);
+            }
+        }
+
+        ChequeClearingService.apply(clears, null, PERFORMER_NAME, false, "Cleared automatically", report);
+        routeToReview(exceptions);
+        report.addSkipped(exceptions.size());
+
+        report.setElapsedMillis(System.currentTimeMillis() - start);
+        System.out.println("Auto-clearance: " + report.getCleared() + " cleared, " +
+                          report.getBounced() + " bounced, " +
+                          exceptions.size() + " sent for review in " + report.getElapsedMillis() + " ms");
+        return report;
+    }
+
+    /**
+     * Apply the rules to one issuer's cheques, oldest deposit first
+     */
+    private static void evaluate(List<Candidate> issuerCheques, Rules rules) {
+        double committed = 0;
+        for (Candidate candidate : issuerCheques) {
+            double amount = candidate.decision.amount;
+
+            if (!candidate.issuerFound) {
+                candidate.reviewReason = "Issuer account not found";
+            } else if (amount > rules.maxAmount) {
+                candidate.reviewReason = String.format("Amount above auto-clear limit of %.2f", rules.maxAmount);
+            } else if (candidate.issuerBalance - committed < amount) {
+                candidate.reviewReason = "Issuer balance does not cover the cheque";
+            } else if (candidate.accountAgeDays == null || candidate.accountAgeDays < rules.minAccountAgeDays) {
+                candidate.reviewReason = "Issuer account younger than " + rules.minAccountAgeDays + " days";
+            } else if (candidate.recentBounces > rules.maxRecentBounces) {
+                candidate.reviewReason = candidate.recentBounces + " bounced cheque(s) in the last " +
+                                         rules.bounceLookbackDays + " days";
+            }
+
+            if (candidate.reviewReason == null) {
+                committed += amount;
+                candidate.decision.clear = true;
+            }
+        }
+    }
+
+    private static Rules loadRules() {
+        Rules rules = new Rules();
+        rules.enabled = isEnabled();
+        rules.maxAmount = ConfigRegistry.getDouble("AUTO_CLEAR_MAX_AMOUNT", 0);
+        rules.minAccountAgeDays = ConfigRegistry.getInt("AUTO_CLEAR_MIN_ACCOUNT_AGE_DAYS", 90);
+        rules.maxRecentBounces = ConfigRegistry.getInt("AUTO_CLEAR_MAX_RECENT_BOUNCES", 0);
+        rules.bounceLookbackDays = ConfigRegistry.getInt("AUTO_CLEAR_BOUNCE_LOOKBACK_DAYS", 180);
+        return rules;
+    }
+
+    /**
+     * Load unreviewed deposited cheques and their issuer facts in one query
+     */
+    private static List<Candidate> loadCandidates(Rules rules) {
+        List<Candidate> candidates = new ArrayList<>();
+
+        String query = "SELECT c.cheque_id, c.cheque_number, c.accountNumber, c.amount, c.status, " +
+                      "c.deposited_to_account, a.accountNumber AS issuer, a.balance, " +
+                      "CAST(julianday('now') - julianday(a.createdDate) AS INTEGER) AS account_age_days, " +
+                      "COALESCE(b.bounces, 0) AS recent_bounces " +
+                      "FROM cheques c " +
+                      "LEFT JOIN accounts a ON a.accountNumber = c.accountNumber " +
+                      "LEFT JOIN (SELECT accountNumber, COUNT(*) AS bounces FROM cheques " +
+                      "           WHERE status = 'BOUNCED' AND clearance_date >= datetime('now', ?) " +
+                      "           GROUP BY accountNumber) b ON b.accountNumber = c.accountNumber " +
+                      "WHERE c.status IN ('DEPOSITED', 'PENDING_CLEARANCE') " +
+                      "AND c.cheque_id NOT IN (SELECT cheque_id FROM cheque_review_queue) " +
+                      "ORDER BY c.deposit_date, c.cheque_id";
+
+        Connection conn = DatabaseHelper.getConnection();
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setString(1, "-" + rules.bounceLookbackDays + " days");
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                Candidate candidate = new Candidate();
+                Decision decision = candidate.decision;
+                decision.chequeId = rs.getInt("cheque_id");
+                decision.chequeNumber = rs.getString("cheque_number");
+                decision.accountNumber = rs.getInt("accountNumber");
+                decision.amount = rs.getDouble("amount");
+                decision.oldStatus = rs.getString("status");
+                int depositedTo = rs.getInt("deposited_to_account");
+                decision.depositedTo = rs.wasNull() ? null : depositedTo;
+
+                rs.getInt("issuer");
+                candidate.issuerFound = !rs.wasNull();
+                candidate.issuerBalance = rs.getDouble("balance");
+                int age = rs.getInt("account_age_days");
+                candidate.accountAgeDays = rs.wasNull() ? null : age;
+                candidate.recentBounces = rs.getInt("recent_bounces");
+
+                candidates.add(candidate);
+            }
+            rs.close();
+        } catch (SQLException e) {
+            System.err.println("Error loading cheques for auto-clearance: " + e.getMessage());
+        }
+        return candidates;
+    }
+
+    /**
+     * Park cheques that failed a rule for staff review, with the reason
+     */
+    private static void routeToReview(Collection<Candidate> exceptions) {
+        if (exceptions.isEmpty()) return;
+
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT OR REPLACE INTO cheque_review_queue (cheque_id, reason) VALUES (?, ?)")) {
+                conn.setAutoCommit(false);
+                for (Candidate candidate : exceptions) {
+                    pstmt.setInt(1, candidate.decision.chequeId);
+                    pstmt.setString(2, candidate.reviewReason);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                System.err.println("Error routing cheques for review: " + e.getMessage());
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    System.err.println("Rollback failed: " + ex.getMessage());
+                }
+            } finally {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException e) {
+                    System.err.println("Error restoring auto-commit: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
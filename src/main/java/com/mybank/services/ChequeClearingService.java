@@ -0,0 +1,342 @@
+package com.mybank.services;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.mybank.database.DatabaseHelper;
+import com.mybank.database.FraudMonitor;
+import com.mybank.models.ClearingReport;
+
+/**
+ * Service class for the cheque clearing cycle.
+ * Clears or bounces deposited cheques in bulk: the queue is read in one pass,
+ * postings are written in chunked transactions, and customer notifications are
+ * sent in the background once the run is done.
+ *
+ * Cover is checked when the issuer is debited, inside the chunk's transaction and
+ * under the connection lock, so a withdrawal, transfer or other clearing run that
+ * commits after the queue was read can't lead to an overdrawn issuer.
+ */
+public class ChequeClearingService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final String INSUFFICIENT_FUNDS = "Insufficient funds";
+    private static final String ACCOUNT_NOT_FOUND = "Issuer account not found";
+
+    private static NotificationService notificationService;
+
+    /**
+     * One cheque's clearing outcome, decided before anything is written
+     */
+    static class Decision {
+        int chequeId;
+        String chequeNumber;
+        int accountNumber;
+        Integer depositedTo;
+        double amount;
+        String oldStatus;
+        boolean clear;
+        String bounceReason;
+        double balanceAfter;
+    }
+
+    /**
+     * Run the clearing cycle over deposited cheques.
+     * Cheques are taken in deposit order; each clears if the issuer's balance at the
+     * moment it is posted covers it, and bounces otherwise.
+     * @param chequeIds Cheques to process, or null for the whole pending queue
+     * @param staffId Staff member running the cycle
+     * @param remarks Remarks stored on cleared cheques
+     * @return Summary of the run
+     */
+    public static ClearingReport runClearingCycle(Collection<Integer> chequeIds, int staffId, String remarks) {
+        long start = System.currentTimeMillis();
+        ClearingReport report = new ClearingReport();
+
+        List<Decision> decisions = decide(chequeIds);
+        report.setCandidates(decisions.size());
+        apply(decisions, staffId, null, true, remarks, report);
+
+        report.setElapsedMillis(System.currentTimeMillis() - start);
+        System.out.println("Cheque clearing cycle: " + report.getCleared() + " cleared, " +
+                          report.getBounced() + " bounced in " + report.getElapsedMillis() + " ms");
+        return report;
+    }
+
+    /**
+     * Bounce deposited cheques chosen by staff, whatever the issuer's balance.
+     * Cheques cleared or bounced since the caller read them are skipped.
+     * @param chequeIds Cheques to bounce
+     * @param staffId Staff member bouncing them
+     * @param bounceReason Reason stored on the cheques and sent to the issuer
+     * @return Summary of the run
+     */
+    public static ClearingReport bounceCheques(Collection<Integer> chequeIds, int staffId, String bounceReason) {
+        long start = System.currentTimeMillis();
+        ClearingReport report = new ClearingReport();
+
+        List<Decision> decisions = decide(chequeIds);
+        for (Decision decision : decisions) {
+            decision.clear = false;
+            decision.bounceReason = bounceReason;
+        }
+        report.setCandidates(decisions.size());
+        apply(decisions, staffId, null, false, null, report);
+
+        report.setElapsedMillis(System.currentTimeMillis() - start);
+        return report;
+    }
+
+    /**
+     * Write decisions in chunked transactions, then queue the customer notifications
+     * @param staffId Staff member processing the cheques, or null for an automated run
+     * @param performerName Name logged with automated runs, null for staff
+     * @param signatureVerified Whether cleared cheques had their signature checked
+     */
+    static void apply(List<Decision> decisions, Integer staffId, String performerName,
+                      boolean signatureVerified, String remarks, ClearingReport report) {
+        List<Decision> applied = new ArrayList<>();
+        for (int from = 0; from < decisions.size(); from += CHUNK_SIZE) {
+            List<Decision> chunk = decisions.subList(from, Math.min(from + CHUNK_SIZE, decisions.size()));
+            try {
+                List<Decision> done = applyChunk(chunk, staffId, performerName, signatureVerified, remarks);
+                for (Decision decision : done) {
+                    if (decision.clear) {
+                        report.addCleared(decision.amount);
+                    } else {
+                        report.addBounced(decision.amount);
+                    }
+                }
+                report.addSkipped(chunk.size() - done.size());
+                applied.addAll(done);
+            } catch (SQLException e) {
+                System.err.println("Error applying clearing chunk: " + e.getMessage());
+                report.addFailed(chunk.size());
+            }
+        }
+
+        for (Decision decision : applied) {
+            if (decision.clear) {
+                notifyChequeCleared(decision.accountNumber, decision.chequeNumber,
+                                    decision.amount, decision.balanceAfter);
+            } else {
+                notifyChequeBounced(decision.accountNumber, decision.chequeNumber,
+                                    decision.amount, decision.bounceReason);
+            }
+        }
+    }
+
+    /**
+     * Load the pending queue. Cheques whose issuer exists are marked to clear; whether
+     * the issuer covers them is only known when they are posted.
+     */
+    private static List<Decision> decide(Collection<Integer> chequeIds) {
+        List<Decision> decisions = new ArrayList<>();
+        Set<Integer> selection = chequeIds == null ? null : new HashSet<>(chequeIds);
+
+        String query = "SELECT c.cheque_id, c.cheque_number, c.accountNumber, c.amount, c.status, " +
+                      "c.deposited_to_account, a.accountNumber AS issuer " +
+                      "FROM cheques c LEFT JOIN accounts a ON a.accountNumber = c.accountNumber " +
+                      "WHERE c.status IN ('DEPOSITED', 'PENDING_CLEARANCE') " +
+                      "ORDER BY c.deposit_date, c.cheque_id";
+
+        Connection conn = DatabaseHelper.getConnection();
+        try (PreparedStatement pstmt = conn.prepareStatement(query);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            while (rs.next()) {
+                int chequeId = rs.getInt("cheque_id");
+                if (selection != null && !selection.contains(chequeId)) continue;
+
+                Decision decision = new Decision();
+                decision.chequeId = chequeId;
+                decision.chequeNumber = rs.getString("cheque_number");
+                decision.accountNumber = rs.getInt("accountNumber");
+                decision.amount = rs.getDouble("amount");
+                decision.oldStatus = rs.getString("status");
+                int depositedTo = rs.getInt("deposited_to_account");
+                decision.depositedTo = rs.wasNull() ? null : depositedTo;
+
+                rs.getInt("issuer");
+                if (rs.wasNull()) {
+                    decision.bounceReason = ACCOUNT_NOT_FOUND;
+                } else {
+                    decision.clear = true;
+                }
+                decisions.add(decision);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading clearing queue: " + e.getMessage());
+        }
+        return decisions;
+    }
+
+    /**
+     * Write one chunk of decisions in a single transaction.
+     * A cheque marked to clear whose issuer no longer covers it is bounced instead.
+     * @return The decisions that were applied; cheques whose status changed since
+     *         the queue was loaded are left alone
+     */
+    private static List<Decision> applyChunk(List<Decision> chunk, Integer staffId, String performerName,
+                                             boolean signatureVerified, String remarks) throws SQLException {
+        List<Decision> applied = new ArrayList<>();
+
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement clearStmt = conn.prepareStatement(
+                     "UPDATE cheques SET status = 'CLEARED', clearance_date = CURRENT_TIMESTAMP, " +
+                     "processed_by = ?, signature_verified = ?, remarks = ? " +
+                     "WHERE cheque_id = ? AND status = ?");
+                 PreparedStatement bounceStmt = conn.prepareStatement(
+                     "UPDATE cheques SET status = 'BOUNCED', bounce_reason = ?, processed_by = ?, " +
+                     "clearance_date = CURRENT_TIMESTAMP WHERE cheque_id = ? AND status = ?");
+                 PreparedStatement debitStmt = conn.prepareStatement(
+                     "UPDATE accounts SET balance = balance - ? WHERE accountNumber = ? AND balance >= ?");
+                 PreparedStatement creditStmt = conn.prepareStatement(
+                     "UPDATE accounts SET balance = balance + ? WHERE accountNumber = ?");
+                 PreparedStatement balanceStmt = conn.prepareStatement(
+                     "SELECT balance FROM accounts WHERE accountNumber = ?");
+                 PreparedStatement logStmt = conn.prepareStatement(
+                     "INSERT INTO cheque_transactions (cheque_id, cheque_number, accountNumber, " +
+                     "transaction_type, old_status, new_status, amount, performed_by, user_type, " +
+                     "performed_by_name, remarks, bounce_reason) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 'STAFF', ?, ?, ?)")) {
+
+                // Cheques are posted one by one in deposit order, so each debit sees the
+                // balance left by the cheques before it
+                for (Decision decision : chunk) {
+                    if (decision.clear) {
+                        debitStmt.setDouble(1, decision.amount);
+                        debitStmt.setInt(2, decision.accountNumber);
+                        debitStmt.setDouble(3, decision.amount);
+                        if (debitStmt.executeUpdate() == 0) {
+                            decision.clear = false;
+                            decision.bounceReason = INSUFFICIENT_FUNDS;
+                        } else {
+                            setStaff(clearStmt, 1, staffId);
+                            clearStmt.setBoolean(2, signatureVerified);
+                            clearStmt.setString(3, remarks);
+                            clearStmt.setInt(4, decision.chequeId);
+                            clearStmt.setString(5, decision.oldStatus);
+                            if (clearStmt.executeUpdate() == 0) {
+                                // Handled elsewhere since the queue was loaded; give the debit back
+                                credit(creditStmt, decision.accountNumber, decision.amount);
+                                continue;
+                            }
+                            if (decision.depositedTo != null) {
+                                credit(creditStmt, decision.depositedTo, decision.amount);
+                            }
+                            balanceStmt.setInt(1, decision.accountNumber);
+                            try (ResultSet rs = balanceStmt.executeQuery()) {
+                                decision.balanceAfter = rs.next() ? rs.getDouble("balance") : 0;
+                            }
+                            applied.add(decision);
+                            continue;
+                        }
+                    }
+
+                    bounceStmt.setString(1, decision.bounceReason);
+                    setStaff(bounceStmt, 2, staffId);
+                    bounceStmt.setInt(3, decision.chequeId);
+                    bounceStmt.setString(4, decision.oldStatus);
+                    if (bounceStmt.executeUpdate() > 0) {
+                        applied.add(decision);
+                    }
+                }
+
+                for (Decision decision : applied) {
+                    logStmt.setInt(1, decision.chequeId);
+                    logStmt.setString(2, decision.chequeNumber);
+                    logStmt.setInt(3, decision.accountNumber);
+                    logStmt.setString(4, decision.clear ? "CLEAR" : "BOUNCE");
+                    logStmt.setString(5, decision.oldStatus);
+                    logStmt.setString(6, decision.clear ? "CLEARED" : "BOUNCED");
+                    logStmt.setDouble(7, decision.amount);
+                    logStmt.setInt(8, staffId != null ? staffId : 0);
+                    logStmt.setString(9, performerName);
+                    logStmt.setString(10, decision.clear ? remarks : decision.bounceReason);
+                    logStmt.setString(11, decision.bounceReason);
+                    logStmt.addBatch();
+                }
+                if (!applied.isEmpty()) {
+                    logStmt.executeBatch();
+                }
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+
+        // Only clearings that committed reach the fraud rules
+        for (Decision decision : applied) {
+            if (!decision.clear) continue;
+            if (decision.depositedTo != null) {
+                FraudMonitor.onTransfer(decision.accountNumber, decision.depositedTo, decision.amount);
+            } else {
+                FraudMonitor.onWithdrawal(decision.accountNumber, decision.amount);
+            }
+        }
+        return applied;
+    }
+
+    private static void credit(PreparedStatement creditStmt, int accountNumber, double amount) throws SQLException {
+        creditStmt.setDouble(1, amount);
+        creditStmt.setInt(2, accountNumber);
+        creditStmt.executeUpdate();
+    }
+
+    private static void setStaff(PreparedStatement pstmt, int index, Integer staffId) throws SQLException {
+        if (staffId != null) {
+            pstmt.setInt(index, staffId);
+        } else {
+            pstmt.setNull(index, Types.INTEGER);
+        }
+    }
+
+    /**
+     * Queue a cheque cleared notification
+     */
+    public static void notifyChequeCleared(int accountNumber, String chequeNumber, double amount, double newBalance) {
+        // Sent in the background so a slow mail server never holds up clearing
+        BackgroundExecutor.execute("cheque-notification", () -> {
+            try {
+                getNotificationService().sendChequeClearedNotification(accountNumber, chequeNumber, amount, newBalance);
+            } catch (Exception e) {
+                System.err.println("Failed to send cheque cleared notification: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Queue a cheque bounced notification
+     */
+    public static void notifyChequeBounced(int accountNumber, String chequeNumber, double amount, String bounceReason) {
+        BackgroundExecutor.execute("cheque-notification", () -> {
+            try {
+                getNotificationService().sendChequeBouncedNotification(accountNumber, chequeNumber, amount, bounceReason);
+            } catch (Exception e) {
+                System.err.println("Failed to send cheque bounced notification: " + e.getMessage());
+            }
+        });
+    }
+
+    private static synchronized NotificationService getNotificationService() {
+        if (notificationService == null) {
+            notificationService = new NotificationService();
+        }
+        return notificationService;
+    }
+}
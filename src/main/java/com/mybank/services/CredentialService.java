@@ -0,0 +1,85 @@
+package com.mybank.services;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.mybank.database.ConfigRegistry;
+import com.mybank.utils.PasswordHasher;
+
+/**
+ * Service class for password verification off the JavaFX thread.
+ * Password checks run on a small bounded pool, since each one deliberately costs
+ * tens of milliseconds of CPU; when the queue is full new checks fail fast instead
+ * of piling up. At startup a short benchmark picks the PBKDF2 iteration count that
+ * takes about PASSWORD_HASH_TARGET_MILLIS on this machine.
+ */
+public class CredentialService {
+
+    private static final int QUEUE_CAPACITY = 32;
+    private static final int CALIBRATION_ITERATIONS = 50_000;
+    private static final int CALIBRATION_RUNS = 3;
+
+    private static final ThreadPoolExecutor pool;
+
+    static {
+        int workers = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+        AtomicInteger threadCount = new AtomicInteger();
+        pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                Thread thread = new Thread(r, "credential-worker-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Stop the worker pool
+     */
+    public static void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Run a credential check on the worker pool
+     * @param task The check, e.g. an authenticate call
+     * @return Future for the result; fails at once if the pool is saturated
+     */
+    public static <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, pool);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Too many sign-in requests, try again"));
+        }
+    }
+
+    /**
+     * Measure PBKDF2 on this machine and set the iteration count that meets the target latency
+     * @return The chosen iteration count
+     */
+    public static int calibrate() {
+        long targetMillis = Math.max(10, ConfigRegistry.getInt("PASSWORD_HASH_TARGET_MILLIS", 100));
+
+        // Warm up so the JIT has compiled the HMAC loop, then take the median of a few runs
+        for (int i = 0; i < CALIBRATION_RUNS; i++) {
+            PasswordHasher.time(CALIBRATION_ITERATIONS);
+        }
+        long[] runs = new long[CALIBRATION_RUNS];
+        for (int i = 0; i < CALIBRATION_RUNS; i++) {
+            runs[i] = PasswordHasher.time(CALIBRATION_ITERATIONS);
+        }
+        Arrays.sort(runs);
+        long nanos = Math.max(1, runs[CALIBRATION_RUNS / 2]);
+
+        long count = CALIBRATION_ITERATIONS * targetMillis * 1_000_000L / nanos;
+        PasswordHasher.setIterations((int) Math.min(Integer.MAX_VALUE, count / 10_000 * 10_000));
+        System.out.println(String.format("Password hashing calibrated: %d iterations (%.1f ms per %d)",
+                                         PasswordHasher.getIterations(), nanos / 1e6, CALIBRATION_ITERATIONS));
+        return PasswordHasher.getIterations();
+    }
+}
@@ -0,0 +1,68 @@
+package com.mybank.services;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.mybank.database.AuditLogDAO;
+import com.mybank.database.DatabaseHelper;
+import com.mybank.database.FraudMonitor;
+import com.mybank.models.AuditLog;
+import com.mybank.models.FraudAlert;
+
+/**
+ * Service class that writes fraud monitor alerts to the audit log.
+ * The rules run in memory on the posting thread; the database write happens
+ * here, a few seconds later, so a posting never waits on it.
+ */
+public class FraudAlertService {
+
+    private static final long FLUSH_INTERVAL_SECONDS = 2;
+
+    private static BackgroundExecutor.Periodic job;
+
+    /**
+     * Start writing alerts in the background
+     */
+    public static synchronized void start() {
+        if (job != null) return;
+
+        job = BackgroundExecutor.scheduleWithFixedDelay("fraud-alerts", () -> {
+            try {
+                flushAlerts();
+            } catch (Exception e) {
+                System.err.println("Writing fraud alerts failed: " + e.getMessage());
+            }
+        }, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop the background writer, writing any alerts still waiting
+     */
+    public static synchronized void stop() {
+        if (job != null) {
+            job.cancel();
+            job = null;
+            flushAlerts();
+        }
+    }
+
+    /**
+     * Write the alerts raised since the last flush
+     * @return Number of alerts written
+     */
+    public static int flushAlerts() {
+        List<FraudAlert> alerts = FraudMonitor.drainPendingAlerts();
+        if (alerts.isEmpty()) return 0;
+
+        // AuditLogDAO closes the shared connection, so keep postings out while it writes
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            for (FraudAlert alert : alerts) {
+                AuditLog log = new AuditLog("SYSTEM", 0, "fraud-monitor", "FRAUD_ALERT", "TRANSACTION",
+                    alert.toString(), null, "WARNING");
+                log.setTimestamp(alert.getTimestamp());
+                AuditLogDAO.insertLog(log);
+            }
+        }
+        return alerts.size();
+    }
+}
@@ -0,0 +1,390 @@
+package com.mybank.services;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+import com.mybank.database.ConfigRegistry;
+import com.mybank.database.DatabaseHelper;
+import com.mybank.database.FraudMonitor;
+import com.mybank.models.AccrualReport;
+
+/**
+ * Service class for daily interest accrual.
+ * Credits SAVINGS and CURRENT accounts with one day of interest at the
+ * SAVINGS_INTEREST_RATE / CURRENT_INTEREST_RATE annual rates from bank_config.
+ *
+ * Accounts are read in account-number chunks; each chunk's interest is computed
+ * in parallel on a fork/join pool and posted in one transaction. interest_accruals
+ * holds one row per (account, date), so an account is never credited twice for a
+ * date, and interest_accrual_runs records the last account of each committed
+ * chunk so an interrupted run resumes where it stopped.
+ */
+public class InterestAccrualService {
+
+    private static final int CHUNK_SIZE = 5000;
+    private static final int COMPUTE_THRESHOLD = 1000;
+    private static final int MAX_CATCH_UP_DAYS = 31;
+    private static final long CHECK_INTERVAL_MINUTES = 60;
+    private static final long PROGRESS_EVERY = 100000;
+    private static final String TRANSACTION_TYPE = "Interest Credit";
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final ForkJoinPool computePool = ForkJoinPool.commonPool();
+    private static BackgroundExecutor.Periodic job;
+
+    /**
+     * One chunk of accounts, read in account-number order
+     */
+    private static class Chunk {
+        int size;
+        final int[] accountNumbers;
+        final double[] balances;
+        final double[] rates;
+        final double[] interest;
+
+        Chunk(int capacity) {
+            accountNumbers = new int[capacity];
+            balances = new double[capacity];
+            rates = new double[capacity];
+            interest = new double[capacity];
+        }
+    }
+
+    /**
+     * Computes one day of interest for a slice of a chunk, splitting until slices are small
+     */
+    private static class AccrualTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Chunk chunk;
+        private final int from;
+        private final int to;
+        private final int daysInYear;
+
+        AccrualTask(Chunk chunk, int from, int to, int daysInYear) {
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+            this.daysInYear = daysInYear;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= COMPUTE_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    chunk.interest[i] = dailyInterest(chunk.balances[i], chunk.rates[i], daysInYear);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new AccrualTask(chunk, from, mid, daysInYear),
+                      new AccrualTask(chunk, mid, to, daysInYear));
+        }
+    }
+
+    /**
+     * Start the daily accrual check in the background
+     */
+    public static synchronized void start() {
+        if (job != null) return;
+
+        job = BackgroundExecutor.scheduleWithFixedDelay("interest-accrual", () -> {
+            try {
+                catchUp();
+            } catch (Exception e) {
+                System.err.println("Interest accrual failed: " + e.getMessage());
+            }
+        }, 1, CHECK_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stop the background check; a run in progress stops after its current chunk
+     */
+    public static synchronized void stop() {
+        if (job != null) {
+            job.cancel();
+            job = null;
+        }
+    }
+
+    /**
+     * Accrue every date from the last completed one up to yesterday.
+     * Interrupted runs are finished first. On a fresh database only yesterday is accrued.
+     * @return One report per date run
+     */
+    public static List<AccrualReport> catchUp() {
+        List<AccrualReport> reports = new ArrayList<>();
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+
+        LocalDate next = yesterday;
+        String lastCompleted = null;
+        Connection conn = DatabaseHelper.getConnection();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT MIN(CASE WHEN status = 'RUNNING' THEN accrualDate END), " +
+                "MAX(CASE WHEN status = 'COMPLETED' THEN accrualDate END) FROM interest_accrual_runs");
+             ResultSet rs = pstmt.executeQuery()) {
+            if (rs.next()) {
+                String running = rs.getString(1);
+                lastCompleted = rs.getString(2);
+                if (running != null) {
+                    next = LocalDate.parse(running);
+                } else if (lastCompleted != null) {
+                    next = LocalDate.parse(lastCompleted).plusDays(1);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading interest accrual runs: " + e.getMessage());
+            return reports;
+        }
+
+        if (next.isBefore(yesterday.minusDays(MAX_CATCH_UP_DAYS - 1))) {
+            System.err.println("Interest accrual is more than " + MAX_CATCH_UP_DAYS +
+                              " days behind; accruing the last " + MAX_CATCH_UP_DAYS + " days only");
+            next = yesterday.minusDays(MAX_CATCH_UP_DAYS - 1);
+        }
+
+        for (LocalDate date = next; !date.isAfter(yesterday); date = date.plusDays(1)) {
+            if (Thread.currentThread().isInterrupted()) break;
+            reports.add(runAccrual(date));
+        }
+        return reports;
+    }
+
+    /**
+     * Accrue one day of interest for every eligible account.
+     * Safe to call again for the same date: completed dates are skipped and
+     * interrupted ones continue from their checkpoint.
+     * @param date The accrual date
+     * @return Summary of the run
+     */
+    public static synchronized AccrualReport runAccrual(LocalDate date) {
+        long start = System.currentTimeMillis();
+        String accrualDate = date.toString();
+        AccrualReport report = new AccrualReport(accrualDate);
+
+        double savingsRate = ConfigRegistry.getDouble("SAVINGS_INTEREST_RATE", 0);
+        double currentRate = ConfigRegistry.getDouble("CURRENT_INTEREST_RATE", 0);
+
+        long lastAccount;
+        try {
+            lastAccount = openRun(accrualDate, report);
+        } catch (SQLException e) {
+            System.err.println("Error starting interest accrual for " + accrualDate + ": " + e.getMessage());
+            return report;
+        }
+        if (lastAccount < 0) {
+            System.out.println("Interest accrual for " + accrualDate + " already completed");
+            return report;
+        }
+
+        Chunk buffer = new Chunk(CHUNK_SIZE);
+        long nextProgress = PROGRESS_EVERY;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Chunk chunk = readChunk(buffer, lastAccount, savingsRate, currentRate);
+                if (chunk.size == 0) break;
+
+                computePool.invoke(new AccrualTask(chunk, 0, chunk.size, date.lengthOfYear()));
+                postChunk(chunk, accrualDate, report);
+                lastAccount = chunk.accountNumbers[chunk.size - 1];
+
+                if (report.getAccountsProcessed() >= nextProgress) {
+                    report.setElapsedMillis(System.currentTimeMillis() - start);
+                    System.out.println(report);
+                    nextProgress += PROGRESS_EVERY;
+                }
+            }
+
+            if (!Thread.currentThread().isInterrupted()) {
+                closeRun(accrualDate);
+            }
+        } catch (SQLException e) {
+            System.err.println("Interest accrual for " + accrualDate + " stopped after account " +
+                              lastAccount + "; it will resume from there: " + e.getMessage());
+        }
+
+        report.setElapsedMillis(System.currentTimeMillis() - start);
+        System.out.println(report);
+        return report;
+    }
+
+    /**
+     * Create or resume the checkpoint row for a date
+     * @return Account number to continue after, or -1 if the date is already done
+     */
+    private static long openRun(String accrualDate, AccrualReport report) throws SQLException {
+        Connection conn = DatabaseHelper.getConnection();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT status, lastAccountNumber FROM interest_accrual_runs WHERE accrualDate = ?")) {
+            pstmt.setString(1, accrualDate);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    if ("COMPLETED".equals(rs.getString("status"))) return -1;
+                    report.setResumed(true);
+                    return rs.getLong("lastAccountNumber");
+                }
+            }
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO interest_accrual_runs (accrualDate) VALUES (?)")) {
+            pstmt.setString(1, accrualDate);
+            pstmt.executeUpdate();
+        }
+        return 0;
+    }
+
+    private static void closeRun(String accrualDate) throws SQLException {
+        Connection conn = DatabaseHelper.getConnection();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "UPDATE interest_accrual_runs SET status = 'COMPLETED', finishedTimestamp = CURRENT_TIMESTAMP " +
+                "WHERE accrualDate = ?")) {
+            pstmt.setString(1, accrualDate);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Read the next chunk of accounts after the given account number into the buffer
+     * @return The buffer, with size 0 once every account has been read
+     */
+    private static Chunk readChunk(Chunk buffer, long afterAccount, double savingsRate, double currentRate)
+            throws SQLException {
+        int size = 0;
+        Connection conn = DatabaseHelper.getConnection();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT accountNumber, accountType, status, balance FROM accounts " +
+                "WHERE accountNumber > ? ORDER BY accountNumber LIMIT ?")) {
+            pstmt.setLong(1, afterAccount);
+            pstmt.setInt(2, CHUNK_SIZE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    buffer.accountNumbers[size] = rs.getInt("accountNumber");
+                    buffer.balances[size] = rs.getDouble("balance");
+                    String type = rs.getString("accountType");
+                    boolean active = "ACTIVE".equals(rs.getString("status"));
+                    if (!active) {
+                        buffer.rates[size] = 0;
+                    } else if ("SAVINGS".equals(type)) {
+                        buffer.rates[size] = savingsRate;
+                    } else if ("CURRENT".equals(type)) {
+                        buffer.rates[size] = currentRate;
+                    } else {
+                        buffer.rates[size] = 0;
+                    }
+                    size++;
+                }
+            }
+        }
+        buffer.size = size;
+        return buffer;
+    }
+
+    /**
+     * One day's interest rounded to the paisa; zero for non-positive balances
+     */
+    private static double dailyInterest(double balance, double annualRate, int daysInYear) {
+        if (balance <= 0 || annualRate <= 0) return 0;
+        return BigDecimal.valueOf(balance * annualRate / 100.0 / daysInYear)
+                         .setScale(2, RoundingMode.HALF_EVEN)
+                         .doubleValue();
+    }
+
+    /**
+     * Post a computed chunk and advance the checkpoint in one transaction
+     */
+    private static void postChunk(Chunk chunk, String accrualDate, AccrualReport report) throws SQLException {
+        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
+
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement accrualStmt = conn.prepareStatement(
+                     "INSERT OR IGNORE INTO interest_accruals (accountNumber, accrualDate, balance, rate, amount) " +
+                     "VALUES (?, ?, ?, ?, ?)");
+                 PreparedStatement balanceStmt = conn.prepareStatement(
+                     "UPDATE accounts SET balance = balance + ? WHERE accountNumber = ?");
+                 PreparedStatement transactionStmt = conn.prepareStatement(
+                     "INSERT INTO transactions (accountNumber, type, amount, timestamp) VALUES (?, ?, ?, ?)");
+                 PreparedStatement runStmt = conn.prepareStatement(
+                     "UPDATE interest_accrual_runs SET lastAccountNumber = ?, " +
+                     "accountsProcessed = accountsProcessed + ?, accountsCredited = accountsCredited + ?, " +
+                     "totalInterest = totalInterest + ? WHERE accrualDate = ?")) {
+
+                int[] positions = new int[chunk.size];
+                int[] creditedPositions = new int[chunk.size];
+                int pending = 0;
+                for (int i = 0; i < chunk.size; i++) {
+                    if (chunk.interest[i] <= 0) continue;
+                    accrualStmt.setInt(1, chunk.accountNumbers[i]);
+                    accrualStmt.setString(2, accrualDate);
+                    accrualStmt.setDouble(3, chunk.balances[i]);
+                    accrualStmt.setDouble(4, chunk.rates[i]);
+                    accrualStmt.setDouble(5, chunk.interest[i]);
+                    accrualStmt.addBatch();
+                    positions[pending++] = i;
+                }
+
+                // Rows already present were credited by an earlier attempt at this date
+                int credited = 0;
+                double total = 0;
+                if (pending > 0) {
+                    int[] counts = accrualStmt.executeBatch();
+                    for (int p = 0; p < pending; p++) {
+                        if (counts[p] <= 0) continue;
+                        int i = positions[p];
+                        balanceStmt.setDouble(1, chunk.interest[i]);
+                        balanceStmt.setInt(2, chunk.accountNumbers[i]);
+                        balanceStmt.addBatch();
+                        transactionStmt.setInt(1, chunk.accountNumbers[i]);
+                        transactionStmt.setString(2, TRANSACTION_TYPE);
+                        transactionStmt.setDouble(3, chunk.interest[i]);
+                        transactionStmt.setString(4, timestamp);
+                        transactionStmt.addBatch();
+                        creditedPositions[credited++] = i;
+                        total += chunk.interest[i];
+                    }
+                    if (credited > 0) {
+                        balanceStmt.executeBatch();
+                        transactionStmt.executeBatch();
+                    }
+                }
+
+                runStmt.setInt(1, chunk.accountNumbers[chunk.size - 1]);
+                runStmt.setInt(2, chunk.size);
+                runStmt.setInt(3, credited);
+                runStmt.setDouble(4, total);
+                runStmt.setString(5, accrualDate);
+                runStmt.executeUpdate();
+
+                conn.commit();
+
+                // Only credits that committed reach the fraud rules
+                for (int c = 0; c < credited; c++) {
+                    int i = creditedPositions[c];
+                    FraudMonitor.onDeposit(chunk.accountNumbers[i], chunk.interest[i]);
+                }
+                report.addAccountsProcessed(chunk.size);
+                report.addCredited(credited, total);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,427 @@
+package com.mybank.services;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.mybank.database.DatabaseHelper;
+import com.mybank.database.FraudMonitor;
+import com.mybank.models.LoanInstallment;
+import com.mybank.models.LoanServicingReport;
+
+/**
+ * Service class for loan servicing.
+ * Builds each loan's amortization schedule into loan_schedule once, then on every
+ * run collects the installments that have fallen due from the loan's account and
+ * moves loans between ACTIVE, OVERDUE and PAID.
+ *
+ * A loan's nextDueDate is always the due date of its first unpaid installment, so
+ * the due loans are found with a range scan on idx_loans_next_due.
+ */
+public class LoanServicingService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final long CHECK_INTERVAL_MINUTES = 60;
+    private static final String TRANSACTION_TYPE = "Loan Installment";
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static BackgroundExecutor.Periodic job;
+
+    /**
+     * A loan with installments due, as read at the start of the run
+     */
+    private static class DueLoan {
+        int loanId;
+        int accountNumber;
+        double outstandingBalance;
+        String repaymentStatus;
+        List<LoanInstallment> due = new ArrayList<>();
+    }
+
+    /**
+     * Start servicing loans in the background
+     */
+    public static synchronized void start() {
+        if (job != null) return;
+
+        job = BackgroundExecutor.scheduleWithFixedDelay("loan-servicing", () -> {
+            try {
+                runServicing(LocalDate.now());
+            } catch (Exception e) {
+                System.err.println("Loan servicing failed: " + e.getMessage());
+            }
+        }, 2, CHECK_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stop the background servicing
+     */
+    public static synchronized void stop() {
+        if (job != null) {
+            job.cancel();
+            job = null;
+        }
+    }
+
+    /**
+     * Build missing schedules and collect every installment due on or before the date.
+     * Safe to run repeatedly: collected installments are marked PAID, and an
+     * installment the account could not cover is tried again on the next run.
+     * @param date The servicing date
+     * @return Summary of the run
+     */
+    public static synchronized LoanServicingReport runServicing(LocalDate date) {
+        long start = System.currentTimeMillis();
+        LoanServicingReport report = new LoanServicingReport(date.toString());
+
+        try {
+            buildMissingSchedules(report);
+
+            List<DueLoan> dueLoans = loadDueLoans(date);
+            report.setLoansDue(dueLoans.size());
+            for (int from = 0; from < dueLoans.size(); from += CHUNK_SIZE) {
+                collectChunk(dueLoans.subList(from, Math.min(from + CHUNK_SIZE, dueLoans.size())), date, report);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error servicing loans: " + e.getMessage());
+        }
+
+        report.setElapsedMillis(System.currentTimeMillis() - start);
+        System.out.println(report);
+        return report;
+    }
+
+    /**
+     * Compute the amortization schedule of a loan.
+     * The stored installment amount is used when set, otherwise the standard
+     * equal-installment amount; the last installment absorbs rounding.
+     * @param loanId The loan
+     * @param loanAmount Principal
+     * @param annualRate Annual interest rate in percent
+     * @param installmentAmount Stored installment amount, or 0
+     * @param loanTerm Number of monthly installments
+     * @param firstDueDate Due date of the first installment
+     * @return Installments in order
+     */
+    public static List<LoanInstallment> computeSchedule(int loanId, double loanAmount, double annualRate,
+                                                        double installmentAmount, int loanTerm, LocalDate firstDueDate) {
+        List<LoanInstallment> schedule = new ArrayList<>();
+        if (loanTerm <= 0 || loanAmount <= 0) return schedule;
+
+        double monthlyRate = annualRate / 1200.0;
+        double payment = installmentAmount;
+        if (payment <= 0) {
+            payment = monthlyRate == 0
+                ? loanAmount / loanTerm
+                : loanAmount * monthlyRate / (1 - Math.pow(1 + monthlyRate, -loanTerm));
+            payment = round(payment);
+        }
+
+        double balance = loanAmount;
+        for (int n = 1; n <= loanTerm && balance > 0; n++) {
+            double interest = round(balance * monthlyRate);
+            double principal = round(payment - interest);
+            if (n == loanTerm || principal >= balance) {
+                principal = balance;
+            }
+            balance = round(balance - principal);
+            schedule.add(new LoanInstallment(loanId, n, firstDueDate.plusMonths(n - 1).toString(),
+                                             round(principal + interest), principal, interest, balance));
+        }
+        return schedule;
+    }
+
+    /**
+     * Build schedules for loans that don't have one yet.
+     * Installments due before the loan's current nextDueDate are taken as already paid.
+     */
+    private static void buildMissingSchedules(LoanServicingReport report) throws SQLException {
+        List<LoanInstallment> rows = new ArrayList<>();
+        Map<Integer, String> firstDueDates = new HashMap<>();
+        int loans = 0;
+
+        Connection conn = DatabaseHelper.getConnection();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT loanId, loanAmount, interestRate, installmentAmount, loanTerm, " +
+                "disbursementDate, nextDueDate, repaymentStatus FROM loans l " +
+                "WHERE NOT EXISTS (SELECT 1 FROM loan_schedule s WHERE s.loanId = l.loanId)");
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                int loanId = rs.getInt("loanId");
+                String nextDueDate = rs.getString("nextDueDate");
+                LocalDate firstDue = parseDate(rs.getString("disbursementDate"));
+                firstDue = firstDue != null ? firstDue.plusMonths(1) : parseDate(nextDueDate);
+                if (firstDue == null) firstDue = LocalDate.now().plusMonths(1);
+
+                List<LoanInstallment> schedule = computeSchedule(loanId, rs.getDouble("loanAmount"),
+                    rs.getDouble("interestRate"), rs.getDouble("installmentAmount"), rs.getInt("loanTerm"), firstDue);
+                if (schedule.isEmpty()) continue;
+
+                boolean paidOff = "PAID".equals(rs.getString("repaymentStatus"));
+                for (LoanInstallment installment : schedule) {
+                    if (paidOff || (nextDueDate != null && installment.getDueDate().compareTo(nextDueDate) < 0)) {
+                        installment.setStatus("PAID");
+                    }
+                }
+                if (nextDueDate == null && !paidOff) {
+                    firstDueDates.put(loanId, schedule.get(0).getDueDate());
+                }
+                rows.addAll(schedule);
+                loans++;
+            }
+        }
+        if (rows.isEmpty()) return;
+
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            conn = DatabaseHelper.getConnection();
+            conn.setAutoCommit(false);
+            try (PreparedStatement insertStmt = conn.prepareStatement(
+                     "INSERT OR IGNORE INTO loan_schedule (loanId, installmentNumber, dueDate, amount, principal, " +
+                     "interest, balanceAfter, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+                 PreparedStatement dueStmt = conn.prepareStatement(
+                     "UPDATE loans SET nextDueDate = ? WHERE loanId = ? AND nextDueDate IS NULL")) {
+                for (LoanInstallment installment : rows) {
+                    insertStmt.setInt(1, installment.getLoanId());
+                    insertStmt.setInt(2, installment.getInstallmentNumber());
+                    insertStmt.setString(3, installment.getDueDate());
+                    insertStmt.setDouble(4, installment.getAmount());
+                    insertStmt.setDouble(5, installment.getPrincipal());
+                    insertStmt.setDouble(6, installment.getInterest());
+                    insertStmt.setDouble(7, installment.getBalanceAfter());
+                    insertStmt.setString(8, installment.getStatus());
+                    insertStmt.addBatch();
+                }
+                insertStmt.executeBatch();
+
+                for (Map.Entry<Integer, String> entry : firstDueDates.entrySet()) {
+                    dueStmt.setString(1, entry.getValue());
+                    dueStmt.setInt(2, entry.getKey());
+                    dueStmt.addBatch();
+                }
+                dueStmt.executeBatch();
+
+                conn.commit();
+                report.addSchedulesBuilt(loans);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Load loans with a due date on or before the date, with their unpaid due installments
+     */
+    private static List<DueLoan> loadDueLoans(LocalDate date) throws SQLException {
+        Map<Integer, DueLoan> loans = new LinkedHashMap<>();
+
+        String query = "SELECT l.loanId, l.accountNumber, l.outstandingBalance, l.repaymentStatus, " +
+                      "s.installmentNumber, s.dueDate, s.amount, s.principal, s.interest, s.balanceAfter " +
+                      "FROM loans l " +
+                      "JOIN loan_schedule s ON s.loanId = l.loanId AND s.status = 'DUE' AND s.dueDate <= ? " +
+                      "WHERE l.nextDueDate <= ? AND l.repaymentStatus IN ('ACTIVE', 'OVERDUE') " +
+                      "ORDER BY l.nextDueDate, l.loanId, s.installmentNumber";
+
+        Connection conn = DatabaseHelper.getConnection();
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setString(1, date.toString());
+            pstmt.setString(2, date.toString());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int loanId = rs.getInt("loanId");
+                    DueLoan loan = loans.get(loanId);
+                    if (loan == null) {
+                        loan = new DueLoan();
+                        loan.loanId = loanId;
+                        loan.accountNumber = rs.getInt("accountNumber");
+                        loan.outstandingBalance = rs.getDouble("outstandingBalance");
+                        loan.repaymentStatus = rs.getString("repaymentStatus");
+                        loans.put(loanId, loan);
+                    }
+                    loan.due.add(new LoanInstallment(loanId, rs.getInt("installmentNumber"), rs.getString("dueDate"),
+                        rs.getDouble("amount"), rs.getDouble("principal"), rs.getDouble("interest"),
+                        rs.getDouble("balanceAfter")));
+                }
+            }
+        }
+        return new ArrayList<>(loans.values());
+    }
+
+    /**
+     * Collect the due installments of a chunk of loans in one transaction.
+     * Balances are read under the connection lock, so withdrawals and transfers
+     * cannot interleave with the collection.
+     */
+    private static void collectChunk(List<DueLoan> chunk, LocalDate date, LoanServicingReport report)
+            throws SQLException {
+        String paidDate = date.toString();
+        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
+
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Map<Integer, Double> balances = loadActiveBalances(chunk);
+            Map<Integer, Double> debits = new HashMap<>();
+            List<Integer> postedAccounts = new ArrayList<>();
+            List<Double> postedAmounts = new ArrayList<>();
+
+            Connection conn = DatabaseHelper.getConnection();
+            conn.setAutoCommit(false);
+            try (PreparedStatement scheduleStmt = conn.prepareStatement(
+                     "UPDATE loan_schedule SET status = 'PAID', paidDate = ? " +
+                     "WHERE loanId = ? AND installmentNumber = ? AND status = 'DUE'");
+                 PreparedStatement transactionStmt = conn.prepareStatement(
+                     "INSERT INTO transactions (accountNumber, type, amount, timestamp) VALUES (?, ?, ?, ?)");
+                 PreparedStatement loanStmt = conn.prepareStatement(
+                     "UPDATE loans SET outstandingBalance = ?, repaymentStatus = ?, " +
+                     "lastPaymentDate = COALESCE(?, lastPaymentDate), " +
+                     "nextDueDate = (SELECT MIN(dueDate) FROM loan_schedule s " +
+                     "               WHERE s.loanId = loans.loanId AND s.status = 'DUE') " +
+                     "WHERE loanId = ?");
+                 PreparedStatement balanceStmt = conn.prepareStatement(
+                     "UPDATE accounts SET balance = balance - ?, lastTransactionDate = ? WHERE accountNumber = ?")) {
+
+                int collected = 0;
+                double collectedAmount = 0;
+                int paidOff = 0;
+                int overdue = 0;
+
+                for (DueLoan loan : chunk) {
+                    Double available = balances.get(loan.accountNumber);
+                    double balance = available != null ? available : 0;
+                    double principalPaid = 0;
+                    int paid = 0;
+                    boolean finished = false;
+
+                    for (LoanInstallment installment : loan.due) {
+                        if (available == null || balance < installment.getAmount()) break;
+                        balance -= installment.getAmount();
+                        principalPaid += installment.getPrincipal();
+                        finished = installment.getBalanceAfter() <= 0;
+                        paid++;
+
+                        scheduleStmt.setString(1, paidDate);
+                        scheduleStmt.setInt(2, loan.loanId);
+                        scheduleStmt.setInt(3, installment.getInstallmentNumber());
+                        scheduleStmt.addBatch();
+
+                        transactionStmt.setInt(1, loan.accountNumber);
+                        transactionStmt.setString(2, TRANSACTION_TYPE + " (Loan #" + loan.loanId + ")");
+                        transactionStmt.setDouble(3, installment.getAmount());
+                        transactionStmt.setString(4, timestamp);
+                        transactionStmt.addBatch();
+
+                        debits.merge(loan.accountNumber, installment.getAmount(), Double::sum);
+                        postedAccounts.add(loan.accountNumber);
+                        postedAmounts.add(installment.getAmount());
+                        collectedAmount += installment.getAmount();
+                    }
+                    if (available != null) {
+                        balances.put(loan.accountNumber, balance);
+                    }
+                    collected += paid;
+
+                    String status;
+                    if (finished) {
+                        status = "PAID";
+                        paidOff++;
+                    } else if (paid < loan.due.size()) {
+                        status = "OVERDUE";
+                        overdue++;
+                    } else {
+                        status = "ACTIVE";
+                    }
+                    if (paid == 0 && status.equals(loan.repaymentStatus)) continue;
+
+                    loanStmt.setDouble(1, finished ? 0 : Math.max(0, round(loan.outstandingBalance - principalPaid)));
+                    loanStmt.setString(2, status);
+                    loanStmt.setString(3, paid > 0 ? paidDate : null);
+                    loanStmt.setInt(4, loan.loanId);
+                    loanStmt.addBatch();
+                }
+
+                for (Map.Entry<Integer, Double> debit : debits.entrySet()) {
+                    balanceStmt.setDouble(1, round(debit.getValue()));
+                    balanceStmt.setString(2, timestamp);
+                    balanceStmt.setInt(3, debit.getKey());
+                    balanceStmt.addBatch();
+                }
+
+                // Schedule rows first: the loan update reads the next unpaid installment
+                scheduleStmt.executeBatch();
+                transactionStmt.executeBatch();
+                balanceStmt.executeBatch();
+                loanStmt.executeBatch();
+                conn.commit();
+
+                // Each collected installment reaches the fraud rules as a withdrawal
+                for (int i = 0; i < postedAccounts.size(); i++) {
+                    FraudMonitor.onWithdrawal(postedAccounts.get(i), postedAmounts.get(i));
+                }
+
+                report.addCollected(collected, collectedAmount);
+                report.addPaidOff(paidOff);
+                report.addOverdue(overdue);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Read the balances of the chunk's active accounts; inactive accounts are left out
+     */
+    private static Map<Integer, Double> loadActiveBalances(List<DueLoan> chunk) throws SQLException {
+        Map<Integer, Double> balances = new HashMap<>();
+        Set<Integer> accountSet = new LinkedHashSet<>();
+        for (DueLoan loan : chunk) {
+            accountSet.add(loan.accountNumber);
+        }
+        List<Integer> accounts = new ArrayList<>(accountSet);
+
+        String placeholders = String.join(", ", Collections.nCopies(accounts.size(), "?"));
+        Connection conn = DatabaseHelper.getConnection();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT accountNumber, balance FROM accounts " +
+                "WHERE status = 'ACTIVE' AND accountNumber IN (" + placeholders + ")")) {
+            for (int i = 0; i < accounts.size(); i++) {
+                pstmt.setInt(i + 1, accounts.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    balances.put(rs.getInt("accountNumber"), rs.getDouble("balance"));
+                }
+            }
+        }
+        return balances;
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null || value.length() < 10) return null;
+        try {
+            return LocalDate.parse(value.substring(0, 10));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,71 @@
+package com.mybank.services;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import com.mybank.database.DatabaseHelper;
+import com.mybank.database.LoginThrottle;
+
+/**
+ * Service class that saves failed login counts kept by LoginThrottle.
+ * Counts are written every FLUSH_INTERVAL_SECONDS in one transaction, so a burst
+ * of failed logins costs one write per account per interval instead of one per attempt.
+ */
+public class LoginThrottleService {
+
+    private static final long FLUSH_INTERVAL_SECONDS = 30;
+
+    private static BackgroundExecutor.Periodic job;
+
+    /**
+     * Start saving failed login counts in the background
+     */
+    public static synchronized void start() {
+        if (job != null) return;
+
+        job = BackgroundExecutor.scheduleWithFixedDelay("login-throttle", () -> {
+            try {
+                flush();
+            } catch (Exception e) {
+                System.err.println("Saving failed login counts failed: " + e.getMessage());
+            }
+        }, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop the background writer, saving any counts still waiting
+     */
+    public static synchronized void stop() {
+        if (job != null) {
+            job.cancel();
+            job = null;
+            flush();
+        }
+    }
+
+    /**
+     * Save the counts changed since the last flush
+     * @return Number of accounts written
+     */
+    public static int flush() {
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            try {
+                conn.setAutoCommit(false);
+                int written = LoginThrottle.flush(conn);
+                conn.commit();
+                return written;
+            } catch (SQLException e) {
+                System.err.println("Error saving failed login counts: " + e.getMessage());
+                return 0;
+            } finally {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException e) {
+                    System.err.println("Error restoring auto-commit: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.mybank.services;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.mybank.database.ConfigRegistry;
+import com.mybank.database.DatabaseHelper;
+import com.mybank.database.FraudMonitor;
+import com.mybank.models.PenaltyReport;
+
+/**
+ * Service class for the month-end low-balance penalty.
+ * Once a month has ended, every active SAVINGS or CURRENT account whose balance
+ * at the end of that month was below MIN_BALANCE_SAVINGS / MIN_BALANCE_CURRENT is
+ * charged LOW_BALANCE_PENALTY, capped at the current balance so no account goes
+ * negative.
+ *
+ * The month-end balance is the current balance with everything posted since the
+ * month ended taken back out: ledger rows in transactions and cheques cleared since.
+ * So a sweep that runs days late, because no terminal was up on the 1st, still
+ * judges the month by how it ended. Months before LOW_BALANCE_PENALTY_START_MONTH,
+ * the month the penalty was installed in, are never charged.
+ *
+ * low_balance_penalties holds one row per (account, month), so a month is never
+ * charged twice even if the sweep is rerun.
+ */
+public class LowBalancePenaltyService {
+
+    private static final int BATCH_SIZE = 500;
+    private static final long CHECK_INTERVAL_MINUTES = 60;
+    private static final String TRANSACTION_TYPE = "Low Balance Penalty";
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Ledger types that add to the balance; every other type takes money out
+    private static final String SIGNED_AMOUNT =
+        "CASE WHEN type IN ('Deposit', 'Initial Deposit', 'Interest Credit') OR type LIKE 'Transfer In%' " +
+        "THEN amount ELSE -amount END";
+
+    private static BackgroundExecutor.Periodic job;
+
+    /**
+     * Start checking for an unswept month in the background
+     */
+    public static synchronized void start() {
+        if (job != null) return;
+
+        job = BackgroundExecutor.scheduleWithFixedDelay("low-balance-penalty", () -> {
+            try {
+                YearMonth lastMonth = YearMonth.now().minusMonths(1);
+                if (!lastMonth.isBefore(getStartMonth()) && !isCompleted(lastMonth)) {
+                    runSweep(lastMonth);
+                }
+            } catch (Exception e) {
+                System.err.println("Low-balance sweep failed: " + e.getMessage());
+            }
+        }, 3, CHECK_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stop the background check
+     */
+    public static synchronized void stop() {
+        if (job != null) {
+            job.cancel();
+            job = null;
+        }
+    }
+
+    /**
+     * Check whether the sweep for a month has finished
+     */
+    public static boolean isCompleted(YearMonth month) {
+        Connection conn = DatabaseHelper.getConnection();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT 1 FROM low_balance_penalty_runs WHERE penaltyMonth = ? AND status = 'COMPLETED'")) {
+            pstmt.setString(1, month.toString());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading low-balance sweep runs: " + e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Get the first month the penalty may be charged for
+     */
+    public static YearMonth getStartMonth() {
+        String value = ConfigRegistry.getString("LOW_BALANCE_PENALTY_START_MONTH");
+        try {
+            return YearMonth.parse(value.trim());
+        } catch (RuntimeException e) {
+            // Missing or unreadable: charge nothing that has already ended
+            return YearMonth.now();
+        }
+    }
+
+    /**
+     * Charge the low-balance penalty for a month that has ended.
+     * Accounts are judged by their balance at the end of the month.
+     * @param month The month being charged
+     * @return Summary of the sweep
+     */
+    public static synchronized PenaltyReport runSweep(YearMonth month) {
+        long start = System.currentTimeMillis();
+        PenaltyReport report = new PenaltyReport(month.toString());
+
+        if (month.isBefore(getStartMonth())) {
+            System.out.println("Low-balance penalty not charged for " + month + ": before " + getStartMonth());
+            return report;
+        }
+
+        double penalty = ConfigRegistry.getDouble("LOW_BALANCE_PENALTY", 0);
+        double minSavings = ConfigRegistry.getDouble("MIN_BALANCE_SAVINGS", 0);
+        double minCurrent = ConfigRegistry.getDouble("MIN_BALANCE_CURRENT", 0);
+
+        try {
+            if (!openRun(month)) {
+                System.out.println("Low-balance sweep for " + month + " already completed");
+                return report;
+            }
+
+            if (penalty > 0) {
+                sweepType(month, "SAVINGS", minSavings, penalty, report);
+                sweepType(month, "CURRENT", minCurrent, penalty, report);
+            }
+            closeRun(month);
+        } catch (SQLException e) {
+            System.err.println("Low-balance sweep for " + month + " stopped; rerunning it is safe: " + e.getMessage());
+        }
+
+        report.setElapsedMillis(System.currentTimeMillis() - start);
+        System.out.println(report);
+        return report;
+    }
+
+    /**
+     * Find the accounts of one type that ended the month below the minimum and charge them in batches
+     */
+    private static void sweepType(YearMonth month, String accountType, double minimumBalance, double penalty,
+                                  PenaltyReport report) throws SQLException {
+        if (minimumBalance <= 0) return;
+
+        // Everything posted from the first moment of the next month on is undone.
+        // Ledger timestamps are local time; cheque clearance dates are UTC.
+        String monthEnd = month.plusMonths(1).atDay(1).atStartOfDay().format(TIMESTAMP_FORMATTER);
+        String query =
+            "SELECT accountNumber, monthEndBalance FROM (" +
+            "  SELECT a.accountNumber, a.balance - COALESCE(SUM(later.net), 0) AS monthEndBalance " +
+            "  FROM accounts a LEFT JOIN (" +
+            "    SELECT accountNumber, " + SIGNED_AMOUNT + " AS net FROM transactions WHERE timestamp >= ? " +
+            "    UNION ALL SELECT accountNumber, -amount FROM cheques " +
+            "      WHERE status = 'CLEARED' AND datetime(clearance_date, 'localtime') >= ? " +
+            "    UNION ALL SELECT deposited_to_account, amount FROM cheques " +
+            "      WHERE status = 'CLEARED' AND deposited_to_account IS NOT NULL " +
+            "      AND datetime(clearance_date, 'localtime') >= ?" +
+            "  ) later ON later.accountNumber = a.accountNumber " +
+            "  WHERE a.accountType = ? AND a.status = 'ACTIVE' " +
+            "  GROUP BY a.accountNumber, a.balance" +
+            ") WHERE monthEndBalance > 0 AND monthEndBalance < ?";
+
+        Map<Integer, Double> offenders = new LinkedHashMap<>();
+        Connection conn = DatabaseHelper.getConnection();
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setString(1, monthEnd);
+            pstmt.setString(2, monthEnd);
+            pstmt.setString(3, monthEnd);
+            pstmt.setString(4, accountType);
+            pstmt.setDouble(5, minimumBalance);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    offenders.put(rs.getInt("accountNumber"), rs.getDouble("monthEndBalance"));
+                }
+            }
+        }
+        report.addOffenders(offenders.size());
+
+        List<Integer> accounts = new ArrayList<>(offenders.keySet());
+        for (int from = 0; from < accounts.size(); from += BATCH_SIZE) {
+            chargeBatch(accounts.subList(from, Math.min(from + BATCH_SIZE, accounts.size())), offenders,
+                        month, minimumBalance, penalty, report);
+        }
+    }
+
+    /**
+     * Charge one batch in a single transaction.
+     * Current balances are re-read under the connection lock so a withdrawal since
+     * the scan cannot push an account negative; accounts now empty are skipped.
+     */
+    private static void chargeBatch(List<Integer> accounts, Map<Integer, Double> monthEndBalances, YearMonth month,
+                                    double minimumBalance, double penalty, PenaltyReport report) throws SQLException {
+        String penaltyMonth = month.toString();
+        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
+        String placeholders = String.join(", ", Collections.nCopies(accounts.size(), "?"));
+
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement balanceQuery = conn.prepareStatement(
+                     "SELECT accountNumber, balance FROM accounts " +
+                     "WHERE accountNumber IN (" + placeholders + ") AND balance > 0");
+                 PreparedStatement penaltyStmt = conn.prepareStatement(
+                     "INSERT OR IGNORE INTO low_balance_penalties (accountNumber, penaltyMonth, balance, " +
+                     "minimumBalance, amount) VALUES (?, ?, ?, ?, ?)");
+                 PreparedStatement balanceStmt = conn.prepareStatement(
+                     "UPDATE accounts SET balance = balance - ?, lastTransactionDate = ? WHERE accountNumber = ?");
+                 PreparedStatement transactionStmt = conn.prepareStatement(
+                     "INSERT INTO transactions (accountNumber, type, amount, timestamp) VALUES (?, ?, ?, ?)");
+                 PreparedStatement runStmt = conn.prepareStatement(
+                     "UPDATE low_balance_penalty_runs SET accountsPenalized = accountsPenalized + ?, " +
+                     "totalPenalty = totalPenalty + ? WHERE penaltyMonth = ?")) {
+
+                for (int i = 0; i < accounts.size(); i++) {
+                    balanceQuery.setInt(i + 1, accounts.get(i));
+                }
+
+                List<Integer> candidates = new ArrayList<>();
+                List<Double> amounts = new ArrayList<>();
+                try (ResultSet rs = balanceQuery.executeQuery()) {
+                    while (rs.next()) {
+                        int accountNumber = rs.getInt("accountNumber");
+                        double amount = Math.min(penalty, rs.getDouble("balance"));
+
+                        // The penalty row records the month-end balance the charge is based on
+                        penaltyStmt.setInt(1, accountNumber);
+                        penaltyStmt.setString(2, penaltyMonth);
+                        penaltyStmt.setDouble(3, monthEndBalances.get(accountNumber));
+                        penaltyStmt.setDouble(4, minimumBalance);
+                        penaltyStmt.setDouble(5, amount);
+                        penaltyStmt.addBatch();
+                        candidates.add(accountNumber);
+                        amounts.add(amount);
+                    }
+                }
+                // Accounts whose row already existed were charged by an earlier sweep of this month
+                int charged = 0;
+                double total = 0;
+                List<Integer> chargedPositions = new ArrayList<>();
+                if (!candidates.isEmpty()) {
+                    int[] counts = penaltyStmt.executeBatch();
+                    for (int i = 0; i < counts.length; i++) {
+                        if (counts[i] <= 0) continue;
+                        balanceStmt.setDouble(1, amounts.get(i));
+                        balanceStmt.setString(2, timestamp);
+                        balanceStmt.setInt(3, candidates.get(i));
+                        balanceStmt.addBatch();
+                        transactionStmt.setInt(1, candidates.get(i));
+                        transactionStmt.setString(2, TRANSACTION_TYPE + " (" + penaltyMonth + ")");
+                        transactionStmt.setDouble(3, amounts.get(i));
+                        transactionStmt.setString(4, timestamp);
+                        transactionStmt.addBatch();
+                        charged++;
+                        total += amounts.get(i);
+                        chargedPositions.add(i);
+                    }
+                    if (charged > 0) {
+                        balanceStmt.executeBatch();
+                        transactionStmt.executeBatch();
+                    }
+                }
+
+                runStmt.setInt(1, charged);
+                runStmt.setDouble(2, total);
+                runStmt.setString(3, penaltyMonth);
+                runStmt.executeUpdate();
+
+                conn.commit();
+
+                // Only penalties that committed reach the fraud rules
+                for (int i : chargedPositions) {
+                    FraudMonitor.onWithdrawal(candidates.get(i), amounts.get(i));
+                }
+                report.addPenalized(charged, total);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Create the run row for a month
+     * @return false if the month has already been swept
+     */
+    private static boolean openRun(YearMonth month) throws SQLException {
+        Connection conn = DatabaseHelper.getConnection();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT OR IGNORE INTO low_balance_penalty_runs (penaltyMonth) VALUES (?)")) {
+            pstmt.setString(1, month.toString());
+            pstmt.executeUpdate();
+        }
+        return !isCompleted(month);
+    }
+
+    private static void closeRun(YearMonth month) throws SQLException {
+        Connection conn = DatabaseHelper.getConnection();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "UPDATE low_balance_penalty_runs SET status = 'COMPLETED', finishedTimestamp = CURRENT_TIMESTAMP " +
+                "WHERE penaltyMonth = ?")) {
+            pstmt.setString(1, month.toString());
+            pstmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.mybank.services;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.mybank.database.ConfigRegistry;
+import com.mybank.models.Session;
+import com.mybank.utils.TimingWheel;
+
+/**
+ * Session Registry
+ * Every signed-in customer, staff member and admin, keyed by session token, so one
+ * process can hold many sessions at once. A session expires after
+ * SESSION_TIMEOUT_MINUTES without activity.
+ *
+ * Touching a session is one volatile write. Expiry runs on a timing wheel ticking
+ * every TICK_MILLIS: each tick only visits the sessions due in that tick, and a
+ * session that saw activity is moved along then instead of on every touch.
+ * Lookups also check the timeout, so a session never outlives it between ticks.
+ */
+public class SessionRegistry {
+
+    /**
+     * Told about sessions that expired, not ones closed by logout
+     */
+    public interface Listener {
+        void sessionExpired(Session session);
+    }
+
+    public static final String SESSION_TIMEOUT_MINUTES = "SESSION_TIMEOUT_MINUTES";
+
+    private static final long TICK_MILLIS = 1000;
+    // 1024 one-second slots is a turn of about 17 minutes, longer than the default timeout
+    private static final int WHEEL_SLOTS = 1024;
+    private static final int TOKEN_BYTES = 32;
+
+    private static final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private static final TimingWheel<Session> wheel = new TimingWheel<>(WHEEL_SLOTS, TICK_MILLIS,
+        session -> session.isClosed() ? -1 : session.getLastActivity() + timeoutMillis());
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private static final SecureRandom random = new SecureRandom();
+
+    private static volatile long timeoutMillis = -1;
+    private static final AtomicBoolean subscribed = new AtomicBoolean();
+
+    private static BackgroundExecutor.Periodic job;
+
+    /**
+     * Start expiring idle sessions in the background
+     */
+    public static synchronized void start() {
+        if (job != null) return;
+
+        timeoutMillis();
+        job = BackgroundExecutor.scheduleWithFixedDelay("session-expiry", () -> {
+            try {
+                expireIdle();
+            } catch (Exception e) {
+                System.err.println("Session expiry failed: " + e.getMessage());
+            }
+        }, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the background expiry
+     */
+    public static synchronized void stop() {
+        if (job != null) {
+            job.cancel();
+            job = null;
+        }
+    }
+
+    /**
+     * Register a listener for expired sessions
+     */
+    public static void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove a listener
+     */
+    public static void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Open a session
+     * @param userType Session.CUSTOMER, Session.STAFF or Session.ADMIN
+     * @param userId Account number, staff ID or admin ID
+     * @param username Name shown for the session
+     * @param principal The Staff or Admin signed in, or null
+     * @return The new session
+     */
+    public static Session open(String userType, int userId, String username, Object principal) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        Session session = new Session(token, userType, userId, username, principal);
+        sessions.put(token, session);
+        wheel.schedule(session);
+        return session;
+    }
+
+    /**
+     * Get a live session
+     * @return The session, or null if the token is unknown, closed or timed out
+     */
+    public static Session get(String token) {
+        if (token == null) return null;
+        Session session = sessions.get(token);
+        if (session == null || session.isClosed()) {
+            return null;
+        }
+        if (session.getLastActivity() + timeoutMillis() <= System.currentTimeMillis()) {
+            expire(session);
+            return null;
+        }
+        return session;
+    }
+
+    /**
+     * Record activity on a session, pushing back its expiry
+     * @return The session, or null if it is no longer live
+     */
+    public static Session touch(String token) {
+        Session session = get(token);
+        if (session != null) {
+            session.touch();
+        }
+        return session;
+    }
+
+    /**
+     * Close a session on logout
+     */
+    public static void close(String token) {
+        if (token == null) return;
+        Session session = sessions.remove(token);
+        if (session != null) {
+            // Dropped from the wheel when its slot comes round
+            session.close();
+        }
+    }
+
+    /**
+     * Get all live sessions
+     */
+    public static List<Session> getSessions() {
+        List<Session> live = new ArrayList<>();
+        for (Session session : sessions.values()) {
+            if (!session.isClosed()) {
+                live.add(session);
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Get the number of open sessions, including any idle ones not yet expired
+     */
+    public static int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Expire the sessions whose timeout has passed
+     * @return Number of sessions expired
+     */
+    public static int expireIdle() {
+        return wheel.advance(System.currentTimeMillis(), SessionRegistry::expire);
+    }
+
+    private static void expire(Session session) {
+        // Only the caller that removes the session closes it and tells listeners
+        if (!sessions.remove(session.getToken(), session)) {
+            return;
+        }
+        session.close();
+        for (Listener listener : listeners) {
+            try {
+                listener.sessionExpired(session);
+            } catch (Exception e) {
+                System.err.println("Session listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // Loaded on first use rather than in a static initializer, since loading takes the connection lock
+    private static long timeoutMillis() {
+        long timeout = timeoutMillis;
+        if (timeout < 0) {
+            timeout = loadTimeout();
+            timeoutMillis = timeout;
+            if (subscribed.compareAndSet(false, true)) {
+                ConfigRegistry.subscribe(changedKeys -> {
+                    if (changedKeys.contains(SESSION_TIMEOUT_MINUTES)) {
+                        timeoutMillis = loadTimeout();
+                    }
+                });
+            }
+        }
+        return timeout;
+    }
+
+    private static long loadTimeout() {
+        Duration timeout = ConfigRegistry.getDuration(SESSION_TIMEOUT_MINUTES, Duration.ofMinutes(15));
+        return Math.max(TICK_MILLIS, timeout.toMillis());
+    }
+}
@@ -1,8 +1,5 @@
 package com.mybank.services;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -15,6 +12,7 @@ import java.util.List;
 import com.mybank.database.DatabaseHelper;
 import com.mybank.models.ActivityLog;
 import com.mybank.models.Staff;
+import com.mybank.utils.PasswordHasher;
 
 /**
  * Service class for staff authentication and management operations.
@@ -23,72 +21,86 @@ import com.mybank.models.Staff;
 public class StaffService {
     
     /**
-     * Authenticate staff member with username and password
+     * Authenticate staff member with username and password.
+     * Verifying costs a deliberate PBKDF2 delay, so call this through CredentialService.
      * @param username Staff username
      * @param password Plain text password
      * @return Staff object if authentication successful, null otherwise
      */
     public static Staff authenticateStaff(String username, String password) {
-        String hashedPassword = hashPassword(password);
         Staff staff = null;
+        String storedHash = null;
         
-        String query = "SELECT * FROM staff WHERE username = ? AND passwordHash = ?";
+        String query = "SELECT * FROM staff WHERE username = ?";
         
-        try (Connection conn = DatabaseHelper.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            
-            pstmt.setString(1, username);
-            pstmt.setString(2, hashedPassword);
-            
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                String status = rs.getString("status");
-                
-                // Check if staff account is active
-                if (!Staff.STATUS_ACTIVE.equals(status)) {
-                    System.err.println("Staff account is not active. Status: " + status);
-                    return null;
-                }
+        // Read the row under the lock, but verify outside it so postings don't wait on PBKDF2
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
                 
-                staff = new Staff();
-                staff.setStaffId(rs.getInt("staffId"));
-                staff.setUsername(rs.getString("username"));
-                staff.setPasswordHash(rs.getString("passwordHash"));
-                staff.setFullName(rs.getString("fullName"));
-                staff.setEmail(rs.getString("email"));
-                staff.setPhoneNumber(rs.getString("phoneNumber"));
-                staff.setRole(rs.getString("role"));
-                staff.setStatus(status);
-                staff.setProfilePicturePath(rs.getString("profilePicturePath"));
+                pstmt.setString(1, username);
                 
-                Timestamp createdTs = rs.getTimestamp("createdDate");
-                if (createdTs != null) {
-                    staff.setCreatedDate(createdTs.toLocalDateTime());
-                }
+                ResultSet rs = pstmt.executeQuery();
                 
-                Timestamp lastLoginTs = rs.getTimestamp("lastLogin");
-                if (lastLoginTs != null) {
-                    staff.setLastLogin(lastLoginTs.toLocalDateTime());
+                if (rs.next()) {
+                    storedHash = rs.getString("passwordHash");
+                    
+                    staff = new Staff();
+                    staff.setStaffId(rs.getInt("staffId"));
+                    staff.setUsername(rs.getString("username"));
+                    staff.setPasswordHash(storedHash);
+                    staff.setFullName(rs.getString("fullName"));
+                    staff.setEmail(rs.getString("email"));
+                    staff.setPhoneNumber(rs.getString("phoneNumber"));
+                    staff.setRole(rs.getString("role"));
+                    staff.setStatus(rs.getString("status"));
+                    staff.setProfilePicturePath(rs.getString("profilePicturePath"));
+                    
+                    Timestamp createdTs = rs.getTimestamp("createdDate");
+                    if (createdTs != null) {
+                        staff.setCreatedDate(createdTs.toLocalDateTime());
+                    }
+                    
+                    Timestamp lastLoginTs = rs.getTimestamp("lastLogin");
+                    if (lastLoginTs != null) {
+                        staff.setLastLogin(lastLoginTs.toLocalDateTime());
+                    }
                 }
                 
-                // Update last login timestamp
-                updateLastLogin(staff.getStaffId());
-                
-                // Log successful login
-                logActivity(staff.getStaffId(), ActivityLog.ACTION_LOGIN, null, 
-                           "Staff " + username + " logged in successfully");
-                
-                System.out.println("Staff authentication successful: " + username);
-            } else {
-                System.err.println("Staff authentication failed for username: " + username);
+            } catch (SQLException e) {
+                System.err.println("Error during staff authentication: " + e.getMessage());
+                e.printStackTrace();
+                return null;
             }
-            
-        } catch (SQLException e) {
-            System.err.println("Error during staff authentication: " + e.getMessage());
-            e.printStackTrace();
         }
         
+        if (staff == null || !PasswordHasher.verify(password, storedHash)) {
+            System.err.println("Staff authentication failed for username: " + username);
+            return null;
+        }
+        
+        // Check if staff account is active
+        if (!Staff.STATUS_ACTIVE.equals(staff.getStatus())) {
+            System.err.println("Staff account is not active. Status: " + staff.getStatus());
+            return null;
+        }
+        
+        // Replace a legacy or outdated hash now that the password is known
+        if (PasswordHasher.needsRehash(storedHash)) {
+            String rehash = hashPassword(password);
+            updatePasswordHash(staff.getStaffId(), rehash);
+            staff.setPasswordHash(rehash);
+        }
+        
+        // Update last login timestamp
+        updateLastLogin(staff.getStaffId());
+        
+        // Log successful login
+        logActivity(staff.getStaffId(), ActivityLog.ACTION_LOGIN, null, 
+                   "Staff " + username + " logged in successfully");
+        
+        System.out.println("Staff authentication successful: " + username);
+        
         return staff;
     }
     
@@ -111,41 +123,43 @@ public class StaffService {
         String query = "INSERT INTO staff (username, passwordHash, fullName, email, phoneNumber, role, status, profilePicturePath) " +
                       "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
         
-        try (Connection conn = DatabaseHelper.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            
-            pstmt.setString(1, username);
-            pstmt.setString(2, hashedPassword);
-            pstmt.setString(3, fullName);
-            pstmt.setString(4, email);
-            pstmt.setString(5, phoneNumber);
-            pstmt.setString(6, role);
-            
-            // If self-registration (createdBy = 0), set status as PENDING for admin approval
-            // If created by admin (createdBy > 0), set status as ACTIVE
-            String status = (createdBy == 0) ? Staff.STATUS_PENDING : Staff.STATUS_ACTIVE;
-            pstmt.setString(7, status);
-            
-            if (profilePicturePath != null && !profilePicturePath.isEmpty()) {
-                pstmt.setString(8, profilePicturePath);
-            } else {
-                pstmt.setNull(8, Types.VARCHAR);
-            }
-            
-            int rowsAffected = pstmt.executeUpdate();
-            
-            if (rowsAffected > 0) {
-                String actionMsg = (createdBy == 0) 
-                    ? "Staff self-registered (pending approval): " + username + " with role: " + role
-                    : "Created new staff account: " + username + " with role: " + role;
-                logActivity(createdBy, ActivityLog.ACTION_CREATE_ACCOUNT, null, actionMsg);
-                System.out.println("Staff account created successfully: " + username + " (Status: " + status + ")");
-                return true;
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                
+                pstmt.setString(1, username);
+                pstmt.setString(2, hashedPassword);
+                pstmt.setString(3, fullName);
+                pstmt.setString(4, email);
+                pstmt.setString(5, phoneNumber);
+                pstmt.setString(6, role);
+                
+                // If self-registration (createdBy = 0), set status as PENDING for admin approval
+                // If created by admin (createdBy > 0), set status as ACTIVE
+                String status = (createdBy == 0) ? Staff.STATUS_PENDING : Staff.STATUS_ACTIVE;
+                pstmt.setString(7, status);
+                
+                if (profilePicturePath != null && !profilePicturePath.isEmpty()) {
+                    pstmt.setString(8, profilePicturePath);
+                } else {
+                    pstmt.setNull(8, Types.VARCHAR);
+                }
+                
+                int rowsAffected = pstmt.executeUpdate();
+                
+                if (rowsAffected > 0) {
+                    String actionMsg = (createdBy == 0) 
+                        ? "Staff self-registered (pending approval): " + username + " with role: " + role
+                        : "Created new staff account: " + username + " with role: " + role;
+                    logActivity(createdBy, ActivityLog.ACTION_CREATE_ACCOUNT, null, actionMsg);
+                    System.out.println("Staff account created successfully: " + username + " (Status: " + status + ")");
+                    return true;
+                }
+                
+            } catch (SQLException e) {
+                System.err.println("Error creating staff account: " + e.getMessage());
+                e.printStackTrace();
             }
-            
-        } catch (SQLException e) {
-            System.err.println("Error creating staff account: " + e.getMessage());
-            e.printStackTrace();
         }
         
         return false;
@@ -158,37 +172,39 @@ public class StaffService {
         String query = "SELECT * FROM staff WHERE staffId = ?";
         Staff staff = null;
         
-        try (Connection conn = DatabaseHelper.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            
-            pstmt.setInt(1, staffId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                staff = new Staff();
-                staff.setStaffId(rs.getInt("staffId"));
-                staff.setUsername(rs.getString("username"));
-                staff.setFullName(rs.getString("fullName"));
-                staff.setEmail(rs.getString("email"));
-                staff.setPhoneNumber(rs.getString("phoneNumber"));
-                staff.setRole(rs.getString("role"));
-                staff.setStatus(rs.getString("status"));
-                staff.setProfilePicturePath(rs.getString("profilePicturePath"));
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
                 
-                Timestamp createdTs = rs.getTimestamp("createdDate");
-                if (createdTs != null) {
-                    staff.setCreatedDate(createdTs.toLocalDateTime());
-                }
+                pstmt.setInt(1, staffId);
+                ResultSet rs = pstmt.executeQuery();
                 
-                Timestamp lastLoginTs = rs.getTimestamp("lastLogin");
-                if (lastLoginTs != null) {
-                    staff.setLastLogin(lastLoginTs.toLocalDateTime());
+                if (rs.next()) {
+                    staff = new Staff();
+                    staff.setStaffId(rs.getInt("staffId"));
+                    staff.setUsername(rs.getString("username"));
+                    staff.setFullName(rs.getString("fullName"));
+                    staff.setEmail(rs.getString("email"));
+                    staff.setPhoneNumber(rs.getString("phoneNumber"));
+                    staff.setRole(rs.getString("role"));
+                    staff.setStatus(rs.getString("status"));
+                    staff.setProfilePicturePath(rs.getString("profilePicturePath"));
+                    
+                    Timestamp createdTs = rs.getTimestamp("createdDate");
+                    if (createdTs != null) {
+                        staff.setCreatedDate(createdTs.toLocalDateTime());
+                    }
+                    
+                    Timestamp lastLoginTs = rs.getTimestamp("lastLogin");
+                    if (lastLoginTs != null) {
+                        staff.setLastLogin(lastLoginTs.toLocalDateTime());
+                    }
                 }
+                
+            } catch (SQLException e) {
+                System.err.println("Error retrieving staff information: " + e.getMessage());
+                e.printStackTrace();
             }
-            
-        } catch (SQLException e) {
-            System.err.println("Error retrieving staff information: " + e.getMessage());
-            e.printStackTrace();
         }
         
         return staff;
@@ -214,23 +230,25 @@ public class StaffService {
         String query = "INSERT INTO staff_activity_log (staffId, action, targetAccount, details) " +
                       "VALUES (?, ?, ?, ?)";
         
-        try (Connection conn = DatabaseHelper.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            
-            pstmt.setInt(1, staffId);
-            pstmt.setString(2, action);
-            if (targetAccount != null) {
-                pstmt.setInt(3, targetAccount);
-            } else {
-                pstmt.setNull(3, Types.INTEGER);
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                
+                pstmt.setInt(1, staffId);
+                pstmt.setString(2, action);
+                if (targetAccount != null) {
+                    pstmt.setInt(3, targetAccount);
+                } else {
+                    pstmt.setNull(3, Types.INTEGER);
+                }
+                pstmt.setString(4, details);
+                
+                pstmt.executeUpdate();
+                
+            } catch (SQLException e) {
+                System.err.println("Error logging staff activity: " + e.getMessage());
+                e.printStackTrace();
             }
-            pstmt.setString(4, details);
-            
-            pstmt.executeUpdate();
-            
-        } catch (SQLException e) {
-            System.err.println("Error logging staff activity: " + e.getMessage());
-            e.printStackTrace();
         }
     }
     
@@ -245,41 +263,43 @@ public class StaffService {
                       "WHERE l.staffId = ? " +
                       "ORDER BY l.timestamp DESC LIMIT ?";
         
-        try (Connection conn = DatabaseHelper.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            
-            pstmt.setInt(1, staffId);
-            pstmt.setInt(2, limit);
-            
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                ActivityLog log = new ActivityLog();
-                log.setLogId(rs.getInt("logId"));
-                log.setStaffId(rs.getInt("staffId"));
-                log.setStaffName(rs.getString("fullName"));
-                log.setAction(rs.getString("action"));
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
                 
-                int targetAccount = rs.getInt("targetAccount");
-                if (!rs.wasNull()) {
-                    log.setTargetAccount(targetAccount);
-                }
+                pstmt.setInt(1, staffId);
+                pstmt.setInt(2, limit);
                 
-                log.setDetails(rs.getString("details"));
+                ResultSet rs = pstmt.executeQuery();
                 
-                Timestamp ts = rs.getTimestamp("timestamp");
-                if (ts != null) {
-                    log.setTimestamp(ts.toLocalDateTime());
+                while (rs.next()) {
+                    ActivityLog log = new ActivityLog();
+                    log.setLogId(rs.getInt("logId"));
+                    log.setStaffId(rs.getInt("staffId"));
+                    log.setStaffName(rs.getString("fullName"));
+                    log.setAction(rs.getString("action"));
+                    
+                    int targetAccount = rs.getInt("targetAccount");
+                    if (!rs.wasNull()) {
+                        log.setTargetAccount(targetAccount);
+                    }
+                    
+                    log.setDetails(rs.getString("details"));
+                    
+                    Timestamp ts = rs.getTimestamp("timestamp");
+                    if (ts != null) {
+                        log.setTimestamp(ts.toLocalDateTime());
+                    }
+                    
+                    log.setIpAddress(rs.getString("ipAddress"));
+                    
+                    logs.add(log);
                 }
                 
-                log.setIpAddress(rs.getString("ipAddress"));
-                
-                logs.add(log);
+            } catch (SQLException e) {
+                System.err.println("Error retrieving activity logs: " + e.getMessage());
+                e.printStackTrace();
             }
-            
-        } catch (SQLException e) {
-            System.err.println("Error retrieving activity logs: " + e.getMessage());
-            e.printStackTrace();
         }
         
         return logs;
@@ -295,40 +315,42 @@ public class StaffService {
                       "JOIN staff s ON l.staffId = s.staffId " +
                       "ORDER BY l.timestamp DESC LIMIT ?";
         
-        try (Connection conn = DatabaseHelper.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            
-            pstmt.setInt(1, limit);
-            
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                ActivityLog log = new ActivityLog();
-                log.setLogId(rs.getInt("logId"));
-                log.setStaffId(rs.getInt("staffId"));
-                log.setStaffName(rs.getString("fullName"));
-                log.setAction(rs.getString("action"));
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
                 
-                int targetAccount = rs.getInt("targetAccount");
-                if (!rs.wasNull()) {
-                    log.setTargetAccount(targetAccount);
-                }
+                pstmt.setInt(1, limit);
                 
-                log.setDetails(rs.getString("details"));
+                ResultSet rs = pstmt.executeQuery();
                 
-                Timestamp ts = rs.getTimestamp("timestamp");
-                if (ts != null) {
-                    log.setTimestamp(ts.toLocalDateTime());
+                while (rs.next()) {
+                    ActivityLog log = new ActivityLog();
+                    log.setLogId(rs.getInt("logId"));
+                    log.setStaffId(rs.getInt("staffId"));
+                    log.setStaffName(rs.getString("fullName"));
+                    log.setAction(rs.getString("action"));
+                    
+                    int targetAccount = rs.getInt("targetAccount");
+                    if (!rs.wasNull()) {
+                        log.setTargetAccount(targetAccount);
+                    }
+                    
+                    log.setDetails(rs.getString("details"));
+                    
+                    Timestamp ts = rs.getTimestamp("timestamp");
+                    if (ts != null) {
+                        log.setTimestamp(ts.toLocalDateTime());
+                    }
+                    
+                    log.setIpAddress(rs.getString("ipAddress"));
+                    
+                    logs.add(log);
                 }
                 
-                log.setIpAddress(rs.getString("ipAddress"));
-                
-                logs.add(log);
+            } catch (SQLException e) {
+                System.err.println("Error retrieving activity logs: " + e.getMessage());
+                e.printStackTrace();
             }
-            
-        } catch (SQLException e) {
-            System.err.println("Error retrieving activity logs: " + e.getMessage());
-            e.printStackTrace();
         }
         
         return logs;
@@ -340,73 +362,83 @@ public class StaffService {
     private static void updateLastLogin(int staffId) {
         String query = "UPDATE staff SET lastLogin = CURRENT_TIMESTAMP WHERE staffId = ?";
         
-        try (Connection conn = DatabaseHelper.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            
-            pstmt.setInt(1, staffId);
-            pstmt.executeUpdate();
-            
-        } catch (SQLException e) {
-            System.err.println("Error updating last login: " + e.getMessage());
-            e.printStackTrace();
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                
+                pstmt.setInt(1, staffId);
+                pstmt.executeUpdate();
+                
+            } catch (SQLException e) {
+                System.err.println("Error updating last login: " + e.getMessage());
+                e.printStackTrace();
+            }
         }
     }
     
     /**
-     * Hash password using SHA-256
+     * Update a staff member's stored password hash
      */
-    private static String hashPassword(String password) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(password.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
+    private static void updatePasswordHash(int staffId, String passwordHash) {
+        String query = "UPDATE staff SET passwordHash = ? WHERE staffId = ?";
+        
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                
+                pstmt.setString(1, passwordHash);
+                pstmt.setInt(2, staffId);
+                pstmt.executeUpdate();
+                
+            } catch (SQLException e) {
+                System.err.println("Error updating password hash: " + e.getMessage());
             }
-            
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Error hashing password", e);
         }
     }
     
+    /**
+     * Hash password with a fresh salt (PBKDF2, see PasswordHasher)
+     */
+    private static String hashPassword(String password) {
+        return PasswordHasher.hash(password);
+    }
+    
     /**
      * Initialize default admin account if not exists
      */
     public static void initializeDefaultAdmin() {
         String checkQuery = "SELECT COUNT(*) FROM staff WHERE role = ?";
         
-        try (Connection conn = DatabaseHelper.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(checkQuery)) {
-            
-            pstmt.setString(1, Staff.ROLE_ADMIN);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next() && rs.getInt(1) == 0) {
-                // No admin exists, create default admin
-                String insertQuery = "INSERT INTO staff (username, passwordHash, fullName, email, phoneNumber, role, status) " +
-                                   "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        synchronized (DatabaseHelper.getConnectionLock()) {
+            Connection conn = DatabaseHelper.getConnection();
+            try (PreparedStatement pstmt = conn.prepareStatement(checkQuery)) {
+                
+                pstmt.setString(1, Staff.ROLE_ADMIN);
+                ResultSet rs = pstmt.executeQuery();
                 
-                try (PreparedStatement insertStmt = conn.prepareStatement(insertQuery)) {
-                    insertStmt.setString(1, "admin");
-                    insertStmt.setString(2, hashPassword("admin123"));
-                    insertStmt.setString(3, "System Administrator");
-                    insertStmt.setString(4, "admin@mybank.com");
-                    insertStmt.setString(5, "01700000000");
-                    insertStmt.setString(6, Staff.ROLE_ADMIN);
-                    insertStmt.setString(7, Staff.STATUS_ACTIVE);
+                if (rs.next() && rs.getInt(1) == 0) {
+                    // No admin exists, create default admin
+                    String insertQuery = "INSERT INTO staff (username, passwordHash, fullName, email, phoneNumber, role, status) " +
+                                       "VALUES (?, ?, ?, ?, ?, ?, ?)";
                     
-                    insertStmt.executeUpdate();
-                    System.out.println("Default admin account created (username: admin, password: admin123)");
+                    try (PreparedStatement insertStmt = conn.prepareStatement(insertQuery)) {
+                        insertStmt.setString(1, "admin");
+                        insertStmt.setString(2, hashPassword("admin123"));
+                        insertStmt.setString(3, "System Administrator");
+                        insertStmt.setString(4, "admin@mybank.com");
+                        insertStmt.setString(5, "01700000000");
+                        insertStmt.setString(6, Staff.ROLE_ADMIN);
+                        insertStmt.setString(7, Staff.STATUS_ACTIVE);
+                        
+                        insertStmt.executeUpdate();
+                        System.out.println("Default admin account created (username: admin, password: admin123)");
+                    }
                 }
+                
+            } catch (SQLException e) {
+                System.err.println("Error initializing default admin: " + e.getMessage());
+                e.printStackTrace();
             }
-            
-        } catch (SQLException e) {
-            System.err.println("Error initializing default admin: " + e.getMessage());
-            e.printStackTrace();
         }
     }
 }
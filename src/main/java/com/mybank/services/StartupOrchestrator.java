@@ -0,0 +1,172 @@
+package com.mybank.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Startup Orchestrator
+ * Runs startup tasks on a small pool, each as soon as the tasks it depends on have
+ * finished, so independent work (schema, password cost calibration, screen loading)
+ * overlaps instead of running in a line. A task that fails is logged and its
+ * dependents still run, as they did when startup was sequential.
+ *
+ * Every task's start and end are recorded; printTimelineWhenDone() shows them
+ * relative to the moment the orchestrator was created.
+ */
+public class StartupOrchestrator {
+
+    /**
+     * When one task ran, relative to startup
+     */
+    public static final class Step {
+        private final String name;
+        private final String thread;
+        private final long startMillis;
+        private final long endMillis;
+        private final boolean failed;
+
+        Step(String name, String thread, long startMillis, long endMillis, boolean failed) {
+            this.name = name;
+            this.thread = thread;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+            this.failed = failed;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public long getEndMillis() {
+            return endMillis;
+        }
+
+        public boolean isFailed() {
+            return failed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%6d ms %6d ms  %-20s %s%s", startMillis, endMillis - startMillis,
+                                name, thread, failed ? "  FAILED" : "");
+        }
+    }
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, CompletableFuture<Void>> tasks = new LinkedHashMap<>();
+    private final List<Step> timeline = Collections.synchronizedList(new ArrayList<>());
+    private final ExecutorService pool;
+
+    public StartupOrchestrator() {
+        int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger count = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "startup-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Add a task; it starts once every named dependency has finished.
+     * Dependencies must have been added first.
+     * @param name Unique task name
+     * @param work The work
+     * @param dependsOn Names of tasks that must finish first
+     * @return this, for chaining
+     */
+    public synchronized StartupOrchestrator task(String name, Runnable work, String... dependsOn) {
+        if (tasks.containsKey(name)) {
+            throw new IllegalArgumentException("Startup task added twice: " + name);
+        }
+        CompletableFuture<Void> ready = after(dependsOn);
+        tasks.put(name, ready.thenRunAsync(() -> run(name, work), pool));
+        return this;
+    }
+
+    /**
+     * Get a future that completes when the named tasks have finished
+     */
+    public synchronized CompletableFuture<Void> after(String... names) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[names.length];
+        for (int i = 0; i < names.length; i++) {
+            CompletableFuture<Void> future = tasks.get(names[i]);
+            if (future == null) {
+                throw new IllegalArgumentException("Unknown startup task: " + names[i]);
+            }
+            futures[i] = future;
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Get a future that completes when every task added so far has finished
+     */
+    public synchronized CompletableFuture<Void> all() {
+        return CompletableFuture.allOf(tasks.values().toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Record a step that ran outside the pool, such as showing the first window
+     */
+    public void mark(String name) {
+        long now = elapsedMillis();
+        timeline.add(new Step(name, Thread.currentThread().getName(), now, now, false));
+    }
+
+    /**
+     * Get the recorded steps, in the order they finished
+     */
+    public List<Step> getTimeline() {
+        synchronized (timeline) {
+            return new ArrayList<>(timeline);
+        }
+    }
+
+    /**
+     * Print the timeline once every task has finished, then release the pool
+     */
+    public void printTimelineWhenDone() {
+        all().whenComplete((ignored, error) -> {
+            pool.shutdown();
+            StringBuilder out = new StringBuilder("Startup timeline (start, duration, task, thread):");
+            for (Step step : getTimeline()) {
+                out.append(System.lineSeparator()).append("  ").append(step);
+            }
+            System.out.println(out);
+        });
+    }
+
+    private void run(String name, Runnable work) {
+        long start = elapsedMillis();
+        boolean failed = false;
+        try {
+            work.run();
+        } catch (Exception e) {
+            failed = true;
+            System.err.println("Startup task failed (" + name + "): " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            timeline.add(new Step(name, Thread.currentThread().getName(), start, elapsedMillis(), failed));
+        }
+    }
+
+    private long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,117 @@
+package com.mybank.utils;
+
+import java.util.Arrays;
+
+/**
+ * Int Double Map
+ * Open-addressing hash map from int keys to double values, without boxing.
+ * Absent keys read as 0. Not thread-safe; callers synchronize.
+ */
+public class IntDoubleMap {
+
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private int[] keys;
+    private double[] values;
+    private int size;
+    private int mask;
+
+    /**
+     * Create a map sized for the given number of keys
+     */
+    public IntDoubleMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    public IntDoubleMap() {
+        this(16);
+    }
+
+    /**
+     * Get the value for a key
+     * @return The value, or 0 if the key is absent
+     */
+    public double get(int key) {
+        int slot = find(key);
+        return keys[slot] == key ? values[slot] : 0;
+    }
+
+    /**
+     * Add a delta to a key's value, inserting the key if absent
+     * @return The new value
+     */
+    public double add(int key, double delta) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key " + key + " is reserved");
+        }
+        int slot = find(key);
+        if (keys[slot] != key) {
+            if ((size + 1) * 2 > keys.length) {
+                rehash(keys.length << 1);
+                slot = find(key);
+            }
+            keys[slot] = key;
+            values[slot] = 0;
+            size++;
+        }
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    /**
+     * Set a key's value
+     */
+    public void put(int key, double value) {
+        add(key, value - get(key));
+    }
+
+    /**
+     * Remove every key, keeping the allocated capacity
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    /**
+     * Get the number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    // Linear probing; returns the key's slot or the empty slot where it would go
+    private int find(int key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        double[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new double[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,151 @@
+package com.mybank.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Base64;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Password Hasher
+ * Salted PBKDF2-HMAC-SHA256 password hashes stored as
+ *   pbkdf2$<iterations>$<base64 salt>$<base64 hash>
+ * The iteration count travels with each hash, so raising it never breaks stored
+ * passwords. Unsalted SHA-256 hashes from earlier releases (hex for customers and
+ * staff, Base64 for admins) still verify, and needsRehash() reports them so they
+ * can be replaced on the next successful login.
+ */
+public class PasswordHasher {
+
+    public static final int MIN_ITERATIONS = 100_000;
+    public static final int MAX_ITERATIONS = 5_000_000;
+
+    private static final String PREFIX = "pbkdf2$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private static final SecureRandom random = new SecureRandom();
+    private static volatile int iterations = MIN_ITERATIONS;
+
+    /**
+     * Get the iteration count used for new hashes
+     */
+    public static int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Set the iteration count used for new hashes, clamped to the allowed range
+     */
+    public static void setIterations(int count) {
+        iterations = Math.max(MIN_ITERATIONS, Math.min(MAX_ITERATIONS, count));
+    }
+
+    /**
+     * Hash a password with a fresh salt and the current iteration count
+     * @param password The plain text password
+     * @return The encoded hash
+     */
+    public static String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        int count = iterations;
+        byte[] hash = pbkdf2(password, salt, count);
+        return PREFIX + count + "$" + Base64.getEncoder().encodeToString(salt)
+            + "$" + Base64.getEncoder().encodeToString(hash);
+    }
+
+    /**
+     * Check a password against a stored hash of any supported format
+     * @return true if the password matches
+     */
+    public static boolean verify(String password, String storedHash) {
+        if (password == null || storedHash == null || storedHash.isEmpty()) {
+            return false;
+        }
+
+        if (storedHash.startsWith(PREFIX)) {
+            String[] parts = storedHash.split("\\$");
+            if (parts.length != 4) return false;
+            try {
+                int count = Integer.parseInt(parts[1]);
+                byte[] salt = Base64.getDecoder().decode(parts[2]);
+                byte[] expected = Base64.getDecoder().decode(parts[3]);
+                return MessageDigest.isEqual(expected, pbkdf2(password, salt, count));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Malformed password hash");
+                return false;
+            }
+        }
+
+        // Legacy unsalted SHA-256
+        byte[] digest = sha256(password);
+        byte[] legacy = storedHash.getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(legacy, toHex(digest).getBytes(StandardCharsets.US_ASCII))
+            || MessageDigest.isEqual(legacy, Base64.getEncoder().encode(digest));
+    }
+
+    /**
+     * Check whether a stored hash should be replaced after a successful login:
+     * it is a legacy hash, or was made with well under today's iteration count
+     */
+    public static boolean needsRehash(String storedHash) {
+        if (storedHash == null || !storedHash.startsWith(PREFIX)) {
+            return true;
+        }
+        int end = storedHash.indexOf('$', PREFIX.length());
+        if (end < 0) return true;
+        try {
+            int count = Integer.parseInt(storedHash.substring(PREFIX.length(), end));
+            // Some slack, so timing noise between calibrations doesn't rehash every login
+            return count < iterations * 3L / 4;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Time one hash at the given iteration count
+     * @return Elapsed nanoseconds
+     */
+    public static long time(int count) {
+        byte[] salt = new byte[SALT_BYTES];
+        long start = System.nanoTime();
+        pbkdf2("calibration-password", salt, count);
+        return System.nanoTime() - start;
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int count) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, count, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+            throw new IllegalStateException("PBKDF2 unavailable", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static byte[] sha256(String password) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hexString = new StringBuilder();
+        for (byte b : bytes) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) hexString.append('0');
+            hexString.append(hex);
+        }
+        return hexString.toString();
+    }
+}
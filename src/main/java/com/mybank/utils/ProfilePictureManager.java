@@ -3,16 +3,30 @@ package com.mybank.utils;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
 
+import com.mybank.database.DatabaseHelper;
+import com.mybank.services.BackgroundExecutor;
+
+import javafx.application.Platform;
 import javafx.scene.image.Image;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
@@ -20,6 +34,15 @@ import javafx.stage.Stage;
 /**
  * Utility class for managing profile picture uploads
  * Handles validation, storage, and retrieval of user profile pictures
+ *
+ * Uploads are scaled down once, re-encoded (JPEG, or PNG when they have
+ * transparency) and stored under the SHA-256 of the result, so the same picture
+ * uploaded twice is stored once. A thumbnail at display size is stored beside
+ * each picture and is what the dashboards read.
+ *
+ * Decoded pictures are kept in a small LRU cache keyed by path and modification
+ * time, so showing a dashboard again doesn't decode the file again, and a file
+ * replaced in place is decoded afresh. The default avatar is drawn once.
  */
 public class ProfilePictureManager {
     
@@ -30,6 +53,21 @@ public class ProfilePictureManager {
     private static final String[] ALLOWED_EXTENSIONS = {"jpg", "jpeg", "png"};
     private static final String PROFILE_PICTURES_DIR = "profile_pictures";
     private static final String DEFAULT_AVATAR_PATH = "/images/default-avatar.png";
+    private static final int DISPLAY_SIZE = 150;
+    private static final float JPEG_QUALITY = 0.85f;
+    private static final String THUMBNAIL_SUFFIX = "_thumb";
+    private static final int MAX_CACHED_PICTURES = 64;
+    
+    // Decoded pictures by path and modification time, least recently used dropped first
+    private static final Map<String, Image> pictureCache = new LinkedHashMap<String, Image>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Image> eldest) {
+            return size() > MAX_CACHED_PICTURES;
+        }
+    };
+    private static final AtomicLong cacheHits = new AtomicLong();
+    private static final AtomicLong cacheMisses = new AtomicLong();
+    private static volatile Image defaultAvatar;
     
     /**
      * Open file chooser dialog for profile picture selection
@@ -96,69 +134,69 @@ public class ProfilePictureManager {
     /**
      * Save profile picture to storage
      * @param sourceFile Source image file
-     * @param accountNumber Account number (used for filename)
-     * @return Path to saved file or null if failed
+     * @param accountNumber Account number
+     * @return Path to saved file, which other accounts may share
      */
     public static String saveProfilePicture(File sourceFile, int accountNumber) throws IOException {
-        // Create profile pictures directory if it doesn't exist
-        Path profilePicturesPath = Paths.get(PROFILE_PICTURES_DIR);
-        if (!Files.exists(profilePicturesPath)) {
-            Files.createDirectories(profilePicturesPath);
-        }
-        
-        // Generate unique filename
-        String extension = getFileExtension(sourceFile.getName());
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String filename = "profile_" + accountNumber + "_" + timestamp + "." + extension;
-        Path destinationPath = profilePicturesPath.resolve(filename);
-        
-        // Resize and save image
-        BufferedImage originalImage = ImageIO.read(sourceFile);
-        BufferedImage resizedImage = resizeImage(originalImage, MAX_IMAGE_WIDTH, MAX_IMAGE_HEIGHT);
-        
-        // Save resized image
-        ImageIO.write(resizedImage, extension, destinationPath.toFile());
-        
-        return destinationPath.toString();
+        return storePicture(sourceFile);
     }
     
     /**
-     * Save profile picture for account request (temporary storage)
+     * Save profile picture for account request
+     * The request's path is carried over to the account when it is approved.
      * @param sourceFile Source image file
-     * @param requestId Request ID (used for filename)
-     * @return Path to saved file or null if failed
+     * @param requestId Request ID
+     * @return Path to saved file, which other accounts may share
      */
     public static String saveProfilePictureForRequest(File sourceFile, String requestId) throws IOException {
-        // Create profile pictures directory if it doesn't exist
-        Path profilePicturesPath = Paths.get(PROFILE_PICTURES_DIR, "requests");
-        if (!Files.exists(profilePicturesPath)) {
-            Files.createDirectories(profilePicturesPath);
+        return storePicture(sourceFile);
+    }
+    
+    /**
+     * Normalize an upload and store it, with its thumbnail, under its content hash
+     * @param sourceFile Source image file
+     * @return Path to the stored picture
+     */
+    private static String storePicture(File sourceFile) throws IOException {
+        BufferedImage originalImage = ImageIO.read(sourceFile);
+        if (originalImage == null) {
+            throw new IOException("Unsupported image file: " + sourceFile.getName());
         }
         
-        // Generate unique filename
-        String extension = getFileExtension(sourceFile.getName());
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String filename = "request_" + requestId + "_" + timestamp + "." + extension;
-        Path destinationPath = profilePicturesPath.resolve(filename);
+        // Keep transparency as PNG; everything else becomes JPEG
+        boolean transparent = originalImage.getColorModel().hasAlpha();
+        String format = transparent ? "png" : "jpg";
         
-        // Resize and save image
-        BufferedImage originalImage = ImageIO.read(sourceFile);
-        BufferedImage resizedImage = resizeImage(originalImage, MAX_IMAGE_WIDTH, MAX_IMAGE_HEIGHT);
+        BufferedImage picture = resizeImage(originalImage, MAX_IMAGE_WIDTH, MAX_IMAGE_HEIGHT, transparent);
+        BufferedImage thumbnail = resizeImage(picture, DISPLAY_SIZE, DISPLAY_SIZE, transparent);
+        byte[] pictureBytes = encode(picture, format);
+        
+        // Create profile pictures directory if it doesn't exist
+        Path profilePicturesPath = Paths.get(PROFILE_PICTURES_DIR);
+        Files.createDirectories(profilePicturesPath);
         
-        // Save resized image
-        ImageIO.write(resizedImage, extension, destinationPath.toFile());
+        // The same picture uploaded again lands on the same file
+        Path destinationPath = profilePicturesPath.resolve(sha256(pictureBytes) + "." + format);
+        writeIfAbsent(destinationPath, pictureBytes);
+        Path thumbnailPath = thumbnailFor(destinationPath.toFile()).toPath();
+        if (!Files.exists(thumbnailPath)) {
+            writeIfAbsent(thumbnailPath, encode(thumbnail, format));
+        }
         
         return destinationPath.toString();
     }
     
     /**
      * Resize image while maintaining aspect ratio
+     * Large reductions are done in halving steps, which keeps bilinear scaling sharp.
      * @param originalImage Original image
      * @param maxWidth Maximum width
      * @param maxHeight Maximum height
+     * @param transparent Whether to keep an alpha channel
      * @return Resized image
      */
-    private static BufferedImage resizeImage(BufferedImage originalImage, int maxWidth, int maxHeight) {
+    private static BufferedImage resizeImage(BufferedImage originalImage, int maxWidth, int maxHeight,
+                                             boolean transparent) {
         int originalWidth = originalImage.getWidth();
         int originalHeight = originalImage.getHeight();
         
@@ -171,12 +209,25 @@ public class ProfilePictureManager {
             double heightRatio = (double) maxHeight / originalHeight;
             double ratio = Math.min(widthRatio, heightRatio);
             
-            newWidth = (int) (originalWidth * ratio);
-            newHeight = (int) (originalHeight * ratio);
+            newWidth = Math.max(1, (int) (originalWidth * ratio));
+            newHeight = Math.max(1, (int) (originalHeight * ratio));
         }
         
-        // Create resized image
-        BufferedImage resizedImage = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_RGB);
+        BufferedImage current = originalImage;
+        int width = originalWidth;
+        int height = originalHeight;
+        do {
+            width = Math.max(newWidth, width / 2);
+            height = Math.max(newHeight, height / 2);
+            current = drawScaled(current, width, height, transparent);
+        } while (width != newWidth || height != newHeight);
+        
+        return current;
+    }
+    
+    private static BufferedImage drawScaled(BufferedImage source, int width, int height, boolean transparent) {
+        BufferedImage resizedImage = new BufferedImage(width, height,
+            transparent ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
         Graphics2D g = resizedImage.createGraphics();
         
         // Set rendering hints for better quality
@@ -184,21 +235,82 @@ public class ProfilePictureManager {
         g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         
-        g.drawImage(originalImage, 0, 0, newWidth, newHeight, null);
+        g.drawImage(source, 0, 0, width, height, null);
         g.dispose();
         
         return resizedImage;
     }
     
     /**
-     * Get file extension from filename
+     * Encode an image, JPEG at JPEG_QUALITY or PNG
+     */
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if ("png".equals(format)) {
+            ImageIO.write(image, format, bytes);
+            return bytes.toByteArray();
+        }
+        
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        try (MemoryCacheImageOutputStream output = new MemoryCacheImageOutputStream(bytes)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+    
+    /**
+     * Write a file unless it is already there, without leaving a partial file behind
      */
-    private static String getFileExtension(String filename) {
-        int lastDotIndex = filename.lastIndexOf('.');
-        if (lastDotIndex > 0 && lastDotIndex < filename.length() - 1) {
-            return filename.substring(lastDotIndex + 1).toLowerCase();
+    private static void writeIfAbsent(Path path, byte[] content) throws IOException {
+        if (Files.exists(path)) {
+            return;
+        }
+        Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    private static String sha256(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-        return "";
+    }
+    
+    /**
+     * Get the thumbnail stored beside a picture; pictures saved before thumbnails have none
+     */
+    private static File thumbnailFor(File imageFile) {
+        String name = imageFile.getName();
+        int lastDotIndex = name.lastIndexOf('.');
+        String thumbnailName = lastDotIndex > 0
+            ? name.substring(0, lastDotIndex) + THUMBNAIL_SUFFIX + name.substring(lastDotIndex)
+            : name + THUMBNAIL_SUFFIX;
+        return new File(imageFile.getParentFile(), thumbnailName);
+    }
+    
+    /**
+     * Get the file to show for a picture: its thumbnail if it has one
+     */
+    private static File displayFile(File imageFile) {
+        File thumbnail = thumbnailFor(imageFile);
+        return thumbnail.exists() ? thumbnail : imageFile;
     }
     
     /**
@@ -212,9 +324,16 @@ public class ProfilePictureManager {
         }
         
         try {
-            File imageFile = new File(profilePicturePath);
+            File imageFile = displayFile(new File(profilePicturePath));
             if (imageFile.exists()) {
-                return new Image(imageFile.toURI().toString(), 150, 150, true, true);
+                String key = cacheKey(imageFile);
+                Image image = getCached(key);
+                if (image == null) {
+                    image = decode(imageFile, key);
+                }
+                if (image != null) {
+                    return image;
+                }
             }
         } catch (Exception e) {
             System.err.println("Error loading profile picture: " + e.getMessage());
@@ -223,16 +342,108 @@ public class ProfilePictureManager {
         return loadDefaultAvatar();
     }
     
+    /**
+     * Load profile picture without decoding on the calling thread.
+     * A cached picture is handed over at once; otherwise the default avatar is handed
+     * over as a placeholder and the picture follows, on the FX thread, once decoded.
+     * @param profilePicturePath Path to profile picture
+     * @param onLoaded Receives the placeholder and then the picture
+     */
+    public static void loadProfilePictureAsync(String profilePicturePath, Consumer<Image> onLoaded) {
+        if (profilePicturePath == null || profilePicturePath.isEmpty()) {
+            onLoaded.accept(loadDefaultAvatar());
+            return;
+        }
+        
+        File imageFile = displayFile(new File(profilePicturePath));
+        Image cached = imageFile.exists() ? getCached(cacheKey(imageFile)) : null;
+        if (cached != null) {
+            onLoaded.accept(cached);
+            return;
+        }
+        
+        onLoaded.accept(loadDefaultAvatar());
+        if (imageFile.exists()) {
+            BackgroundExecutor.execute("profile-picture", () -> {
+                Image image = decode(imageFile, cacheKey(imageFile));
+                if (image != null) {
+                    Platform.runLater(() -> onLoaded.accept(image));
+                }
+            });
+        }
+    }
+    
+    /**
+     * Get cache counts, e.g. for logging
+     */
+    public static String getCacheStats() {
+        long hits = cacheHits.get();
+        long misses = cacheMisses.get();
+        int size;
+        synchronized (pictureCache) {
+            size = pictureCache.size();
+        }
+        return String.format("%d cached, %d hits, %d misses, %.1f%% hit rate", size, hits, misses,
+                            hits + misses > 0 ? 100.0 * hits / (hits + misses) : 0.0);
+    }
+    
+    /**
+     * Decode a picture on the calling thread and keep it if it decoded cleanly
+     * @return The picture, or null if it can't be decoded
+     */
+    private static Image decode(File imageFile, String key) {
+        cacheMisses.incrementAndGet();
+        // Not background loading: the image must be complete before isError() means anything
+        Image image = new Image(imageFile.toURI().toString(), DISPLAY_SIZE, DISPLAY_SIZE, true, true, false);
+        if (image.isError()) {
+            System.err.println("Error loading profile picture: " + imageFile + " could not be decoded");
+            return null;
+        }
+        synchronized (pictureCache) {
+            pictureCache.put(key, image);
+        }
+        return image;
+    }
+    
+    private static Image getCached(String key) {
+        Image image;
+        synchronized (pictureCache) {
+            image = pictureCache.get(key);
+        }
+        if (image != null) {
+            cacheHits.incrementAndGet();
+        }
+        return image;
+    }
+    
+    private static String cacheKey(File imageFile) {
+        return imageFile.getAbsolutePath() + "@" + imageFile.lastModified();
+    }
+    
     /**
      * Load default avatar image
      * @return Default avatar image
      */
     public static Image loadDefaultAvatar() {
+        Image avatar = defaultAvatar;
+        if (avatar == null) {
+            synchronized (ProfilePictureManager.class) {
+                avatar = defaultAvatar;
+                if (avatar == null) {
+                    avatar = readDefaultAvatar();
+                    defaultAvatar = avatar;
+                }
+            }
+        }
+        return avatar;
+    }
+    
+    private static Image readDefaultAvatar() {
         try {
             // Try to load from resources
             var stream = ProfilePictureManager.class.getResourceAsStream(DEFAULT_AVATAR_PATH);
             if (stream != null) {
-                return new Image(stream, 150, 150, true, true);
+                return new Image(stream, DISPLAY_SIZE, DISPLAY_SIZE, true, true);
             }
         } catch (Exception e) {
             System.err.println("Default avatar resource not found, using generated avatar");
@@ -299,7 +510,8 @@ public class ProfilePictureManager {
     }
     
     /**
-     * Delete profile picture file
+     * Delete profile picture file and its thumbnail, unless someone else still uses it.
+     * Call after the owner's row no longer points at it.
      * @param profilePicturePath Path to profile picture
      */
     public static void deleteProfilePicture(String profilePicturePath) {
@@ -307,10 +519,20 @@ public class ProfilePictureManager {
             return;
         }
         
+        // Stored by content, so another account may have uploaded the same picture
+        if (DatabaseHelper.isProfilePictureInUse(profilePicturePath)) {
+            return;
+        }
+        
         try {
             File file = new File(profilePicturePath);
-            if (file.exists()) {
-                Files.delete(file.toPath());
+            for (File stored : new File[] {thumbnailFor(file), file}) {
+                if (stored.exists()) {
+                    synchronized (pictureCache) {
+                        pictureCache.remove(cacheKey(stored));
+                    }
+                    Files.delete(stored.toPath());
+                }
             }
         } catch (IOException e) {
             System.err.println("Error deleting profile picture: " + e.getMessage());
@@ -0,0 +1,54 @@
+package com.mybank.utils;
+
+/**
+ * Time Ring
+ * Sliding-window event counter that keeps only the timestamps of the last N events.
+ * More than N events fall within a window exactly when the oldest of the last N+1 does,
+ * so a check is one array write and one comparison. Not thread-safe; callers synchronize.
+ */
+public class TimeRing {
+
+    private long[] times = new long[0];
+    private int next;
+    private int count;
+
+    /**
+     * Record an event
+     * @param now Event time in millis
+     * @param limit Most events allowed within the window
+     * @param windowMillis Window length in millis
+     * @return true if this makes more than limit events within the window
+     */
+    public boolean add(long now, int limit, long windowMillis) {
+        int size = limit + 1;
+        if (times.length != size) {
+            // The limit changed; start counting again at the new size
+            times = new long[size];
+            next = 0;
+            count = 0;
+        }
+        times[next] = now;
+        next = (next + 1) % size;
+        if (count < size) count++;
+        return count == size && now - times[next] <= windowMillis;
+    }
+
+    /**
+     * Count the recorded events within the window ending now
+     */
+    public int count(long now, long windowMillis) {
+        int inWindow = 0;
+        for (int i = 0; i < count; i++) {
+            if (now - times[i] <= windowMillis) inWindow++;
+        }
+        return inWindow;
+    }
+
+    /**
+     * Forget all events
+     */
+    public void clear() {
+        next = 0;
+        count = 0;
+    }
+}
@@ -0,0 +1,98 @@
+package com.mybank.utils;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Timing Wheel
+ * Hashed wheel of fixed-length ticks for expiring items by deadline. An item sits in
+ * the slot of its deadline's tick; each tick only looks at one slot, so the cost per
+ * tick depends on what is due, not on how many items are scheduled.
+ *
+ * Deadlines are read when a slot comes round rather than when an item is scheduled.
+ * An item whose deadline moved later (e.g. a session that saw activity) is moved to
+ * its new slot then, so pushing a deadline back never touches the wheel. A deadline
+ * of -1 drops the item. schedule() may be called from any thread; advance() from one.
+ */
+public class TimingWheel<T> {
+
+    private final Queue<T>[] slots;
+    private final long tickMillis;
+    private final ToLongFunction<T> deadline;
+
+    // Last tick whose slot has been processed
+    private volatile long currentTick = -1;
+
+    /**
+     * @param slotCount Number of slots; deadlines further than one turn away are revisited once per turn
+     * @param tickMillis Tick length in millis
+     * @param deadline Gives an item's current deadline in millis, or -1 if it is no longer live
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimingWheel(int slotCount, long tickMillis, ToLongFunction<T> deadline) {
+        this.slots = new Queue[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.tickMillis = tickMillis;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Add an item to the slot of its current deadline
+     */
+    public void schedule(T item) {
+        long due = deadline.applyAsLong(item);
+        if (due < 0) return;
+        slotFor(due).add(item);
+    }
+
+    /**
+     * Process every tick up to now
+     * @param now Current time in millis
+     * @param expired Called for each item whose deadline has passed
+     * @return Number of items expired
+     */
+    public int advance(long now, Consumer<T> expired) {
+        long nowTick = now / tickMillis;
+        if (currentTick < 0) {
+            currentTick = nowTick - 1;
+        }
+
+        int count = 0;
+        // After a long pause one turn covers every slot
+        long from = Math.max(currentTick + 1, nowTick - slots.length + 1);
+        for (long tick = from; tick <= nowTick; tick++) {
+            currentTick = tick;
+            Queue<T> slot = slots[(int) (tick % slots.length)];
+            // Rescheduling never targets the slot being drained, so this ends
+            T item;
+            while ((item = slot.poll()) != null) {
+                long due = deadline.applyAsLong(item);
+                if (due < 0) {
+                    continue;
+                }
+                if (due <= now) {
+                    expired.accept(item);
+                    count++;
+                } else {
+                    slotFor(due).add(item);
+                }
+            }
+        }
+        return count;
+    }
+
+    private Queue<T> slotFor(long due) {
+        long current = currentTick;
+        long tick = due / tickMillis;
+        if (current >= 0) {
+            // Never behind the wheel, and never a whole turn ahead onto the current slot
+            tick = Math.max(tick, current + 1);
+            tick = Math.min(tick, current + slots.length - 1);
+        }
+        return slots[(int) (tick % slots.length)];
+    }
+}
@@ -3,6 +3,7 @@ module com.mybank {
     requires javafx.fxml;
     requires java.sql;
     requires java.desktop;  // Required for image processing (BufferedImage, Graphics2D, ImageIO)
+    requires jdk.httpserver;  // Embedded HTTP server for the headless banking API
     
     // Email and SMS notification modules
     requires java.mail;